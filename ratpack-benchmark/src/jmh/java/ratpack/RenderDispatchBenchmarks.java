@@ -0,0 +1,125 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ratpack;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.reflect.TypeToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ratpack.path.PathBinding;
+import ratpack.registry.Registries;
+import ratpack.registry.Registry;
+import ratpack.registry.RegistryBuilder;
+import ratpack.registry.internal.MultiEntryRegistry;
+import ratpack.render.Renderer;
+import ratpack.render.internal.DefaultRenderController;
+import ratpack.render.internal.RenderController;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Period;
+import java.time.ZoneId;
+import java.util.Currency;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Measures the cost of rendering an object when many renderers are registered, compared to finding the renderer by a linear scan.
+ * <p>
+ * The renderer for the rendered type is registered first, so it is the last one found by a linear scan.
+ * The server registry is built as the server builds it (i.e. indexed), and the request registry joins a per request registry onto it.
+ * The renderers ignore the context, so none is given.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class RenderDispatchBenchmarks {
+
+  private static final TypeToken<Renderer<?>> RENDERER_TYPE = new TypeToken<Renderer<?>>() {};
+
+  private static final List<Class<?>> RENDERED_TYPES = ImmutableList.of(
+    Integer.class, Long.class, Short.class, Byte.class, Double.class, Float.class, Character.class, Boolean.class,
+    BigDecimal.class, BigInteger.class, UUID.class, Date.class, LocalDate.class, LocalTime.class, LocalDateTime.class,
+    Instant.class, Duration.class, Period.class, ZoneId.class, URI.class, Locale.class, Currency.class, Pattern.class,
+    StringBuilder.class
+  );
+
+  public static class Thing {
+  }
+
+  private final RenderController renderController = new DefaultRenderController();
+
+  private Registry serverRegistry;
+  private Registry requestRegistry;
+  private Thing thing;
+
+  @Setup
+  public void setup() throws Exception {
+    RegistryBuilder builder = Registries.registry();
+    builder.with(Renderer.of(Thing.class, (context, t) -> {}).register());
+    for (Class<?> type : RENDERED_TYPES) {
+      builder.with(Renderer.of(type, (context, object) -> {}).register());
+    }
+    serverRegistry = MultiEntryRegistry.flatten(builder.build(), Registries.empty());
+    requestRegistry = serverRegistry.join(Registries.just(PathBinding.class, () -> null));
+    thing = new Thing();
+  }
+
+  @Benchmark
+  public Renderer<?> scan() {
+    return scan(serverRegistry, thing.getClass());
+  }
+
+  @Benchmark
+  public Renderer<?> scanJoined() {
+    return scan(requestRegistry, thing.getClass());
+  }
+
+  @Benchmark
+  public void render() throws Exception {
+    renderController.render(thing, null, serverRegistry);
+  }
+
+  @Benchmark
+  public void renderJoined() throws Exception {
+    renderController.render(thing, null, requestRegistry);
+  }
+
+  private static Renderer<?> scan(Registry registry, Class<?> type) {
+    for (Renderer<?> renderer : registry.getAll(RENDERER_TYPE)) {
+      if (renderer.getType().isAssignableFrom(type)) {
+        return renderer;
+      }
+    }
+    return null;
+  }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import ratpack.exec.ExecControl;
+import ratpack.exec.ExecController;
+import ratpack.exec.internal.DefaultExecController;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Measures the throughput of stream operator chains.
+ * <p>
+ * Each invocation streams {@code size} items through the chain to a subscriber that requests {@code batch} items at a time.
+ * A batch of {@link Long#MAX_VALUE} lets the source emit as fast as it can, while a batch of 1 exercises back pressure handling.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class StreamBenchmarks {
+
+  @Param({"1000"})
+  public int size;
+
+  @Param({"1", "9223372036854775807"})
+  public long batch;
+
+  private List<Integer> items;
+  private List<List<Integer>> groups;
+  private ExecController execController;
+  private ExecControl execControl;
+
+  @Setup
+  public void setup() {
+    items = new ArrayList<>(size);
+    groups = new ArrayList<>();
+    for (int i = 0; i < size; ++i) {
+      items.add(i);
+      if (i % 10 == 0) {
+        groups.add(new ArrayList<>(10));
+      }
+      groups.get(groups.size() - 1).add(i);
+    }
+    execController = new DefaultExecController(1);
+    execControl = execController.getControl();
+  }
+
+  @TearDown
+  public void tearDown() {
+    execController.close();
+  }
+
+  @Benchmark
+  public void publish(Blackhole blackhole) throws InterruptedException {
+    consume(Streams.publish(items), blackhole);
+  }
+
+  @Benchmark
+  public void map(Blackhole blackhole) throws InterruptedException {
+    consume(Streams.publish(items).map(i -> i + 1), blackhole);
+  }
+
+  @Benchmark
+  public void mapChain(Blackhole blackhole) throws InterruptedException {
+    consume(Streams.publish(items).map(i -> i + 1).map(i -> i * 2).map(i -> i - 1).map(Object::toString), blackhole);
+  }
+
+  @Benchmark
+  public void filter(Blackhole blackhole) throws InterruptedException {
+    consume(Streams.publish(items).filter(i -> i % 2 == 0), blackhole);
+  }
+
+  @Benchmark
+  public void wiretap(Blackhole blackhole) throws InterruptedException {
+    consume(Streams.publish(items).wiretap(blackhole::consume), blackhole);
+  }
+
+  @Benchmark
+  public void buffer(Blackhole blackhole) throws InterruptedException {
+    consume(Streams.publish(items).buffer(), blackhole);
+  }
+
+  @Benchmark
+  public void fanOut(Blackhole blackhole) throws InterruptedException {
+    consume(Streams.fanOut(Streams.publish(groups)), blackhole);
+  }
+
+  @Benchmark
+  public void merge(Blackhole blackhole) throws InterruptedException {
+    int half = items.size() / 2;
+    consume(Streams.merge(Streams.publish(items.subList(0, half)), Streams.publish(items.subList(half, items.size()))), blackhole);
+  }
+
+  @Benchmark
+  public void multicast(Blackhole blackhole) throws InterruptedException {
+    consume(Streams.publish(items).multicast(), blackhole);
+  }
+
+  @Benchmark
+  public void flatMap(Blackhole blackhole) throws InterruptedException {
+    inExecution(done -> Streams.publish(items).flatMap(execControl::promiseOf).subscribe(new BatchingSubscriber<>(blackhole, done)));
+  }
+
+  @Benchmark
+  public void mapFlatMapChain(Blackhole blackhole) throws InterruptedException {
+    inExecution(done -> Streams.publish(items)
+        .map(i -> i + 1)
+        .flatMap(execControl::promiseOf)
+        .map(Object::toString)
+        .subscribe(new BatchingSubscriber<>(blackhole, done))
+    );
+  }
+
+  private void consume(Publisher<?> publisher, Blackhole blackhole) throws InterruptedException {
+    CountDownLatch done = new CountDownLatch(1);
+    publisher.subscribe(new BatchingSubscriber<>(blackhole, done));
+    done.await();
+  }
+
+  private void inExecution(Consumer<CountDownLatch> action) throws InterruptedException {
+    CountDownLatch done = new CountDownLatch(1);
+    execControl.fork().start(execution -> action.accept(done));
+    done.await();
+  }
+
+  private class BatchingSubscriber<T> implements Subscriber<T> {
+    private final Blackhole blackhole;
+    private final CountDownLatch done;
+    private Subscription subscription;
+    private long remaining;
+
+    BatchingSubscriber(Blackhole blackhole, CountDownLatch done) {
+      this.blackhole = blackhole;
+      this.done = done;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      this.subscription = subscription;
+      remaining = batch;
+      subscription.request(batch);
+    }
+
+    @Override
+    public void onNext(T item) {
+      blackhole.consume(item);
+      if (batch != Long.MAX_VALUE && --remaining == 0) {
+        remaining = batch;
+        subscription.request(batch);
+      }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      blackhole.consume(throwable);
+      done.countDown();
+    }
+
+    @Override
+    public void onComplete() {
+      done.countDown();
+    }
+  }
+
+}
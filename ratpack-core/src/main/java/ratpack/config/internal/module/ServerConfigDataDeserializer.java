@@ -29,6 +29,7 @@ import ratpack.server.internal.ServerConfigData;
 import ratpack.server.internal.ServerEnvironment;
 
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.URI;
@@ -64,9 +65,15 @@ public class ServerConfigDataDeserializer extends JsonDeserializer<ServerConfigD
     if (serverNode.hasNonNull("maxContentLength")) {
       data.setMaxContentLength(serverNode.get("maxContentLength").asInt(ServerConfig.DEFAULT_MAX_CONTENT_LENGTH));
     }
+    if (serverNode.hasNonNull("responseStreamWindow")) {
+      data.setResponseStreamWindow(serverNode.get("responseStreamWindow").asInt(ServerConfig.DEFAULT_RESPONSE_STREAM_WINDOW));
+    }
     if (serverNode.hasNonNull("ssl")) {
       data.setSslContext(toValue(codec, serverNode.get("ssl"), SSLContext.class));
     }
+    if (serverNode.hasNonNull("sslParameters")) {
+      data.setSslParameters(toValue(codec, serverNode.get("sslParameters"), SSLParameters.class));
+    }
     if (serverNode.hasNonNull("baseDir")) {
       data.setBaseDir(toValue(codec, serverNode.get("baseDir"), Path.class));
     }
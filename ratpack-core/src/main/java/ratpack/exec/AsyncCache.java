@@ -0,0 +1,172 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec;
+
+import com.google.common.base.Ticker;
+import ratpack.exec.internal.DefaultAsyncCache;
+import ratpack.func.Action;
+import ratpack.func.Function;
+
+import java.time.Duration;
+
+/**
+ * A cache of values that are loaded asynchronously, via promises.
+ * <p>
+ * Concurrent requests for a value that is not cached result in a single load of the value, the result of which is given to all requesters.
+ * Values can expire a fixed time after they were loaded, and can be refreshed in the background before they expire,
+ * in which case the stale value is given to requesters while the refresh is in progress.
+ * Failed loads are not cached.
+ * <pre class="java">{@code
+ * import ratpack.exec.AsyncCache;
+ * import ratpack.exec.ExecControl;
+ * import ratpack.test.exec.ExecHarness;
+ *
+ * import java.time.Duration;
+ * import java.util.concurrent.atomic.AtomicInteger;
+ *
+ * import static org.junit.Assert.assertEquals;
+ *
+ * public class Example {
+ *   public static void main(String... args) throws Exception {
+ *     AtomicInteger loads = new AtomicInteger();
+ *     AsyncCache<String, String> cache = AsyncCache.of(
+ *       spec -> spec.expireAfterWrite(Duration.ofMinutes(5)).refreshAfterWrite(Duration.ofMinutes(1)).maximumSize(100),
+ *       key -> ExecControl.execControl().promiseOf(key.toUpperCase() + loads.incrementAndGet())
+ *     );
+ *
+ *     assertEquals("FOO1", ExecHarness.yieldSingle(e -> cache.get("foo")).getValue());
+ *     assertEquals("FOO1", ExecHarness.yieldSingle(e -> cache.get("foo")).getValue());
+ *     assertEquals(1, loads.get());
+ *   }
+ * }
+ * }</pre>
+ *
+ * @param <K> the type of key
+ * @param <V> the type of value
+ */
+public interface AsyncCache<K, V> {
+
+  /**
+   * Creates a cache of values that never expire, using the given function to load values.
+   *
+   * @param loader the function that loads the value for a key
+   * @param <K> the type of key
+   * @param <V> the type of value
+   * @return a new cache
+   */
+  static <K, V> AsyncCache<K, V> of(Function<? super K, ? extends Promise<V>> loader) {
+    return new DefaultAsyncCache<>(loader);
+  }
+
+  /**
+   * Creates a cache, using the given function to load values.
+   *
+   * @param spec the specification of expiry, refresh and size limits
+   * @param loader the function that loads the value for a key
+   * @param <K> the type of key
+   * @param <V> the type of value
+   * @return a new cache
+   * @throws Exception any thrown by {@code spec}
+   */
+  static <K, V> AsyncCache<K, V> of(Action<? super Spec> spec, Function<? super K, ? extends Promise<V>> loader) throws Exception {
+    return new DefaultAsyncCache<>(spec, loader);
+  }
+
+  /**
+   * Provides the value for the given key, loading it if it is not cached or has expired.
+   * <p>
+   * If the value is being loaded (e.g. for a concurrent request), the returned promise provides the result of that load.
+   * If the value is due for {@link Spec#refreshAfterWrite(Duration) refresh}, the cached value is provided and a refresh is started in a new execution.
+   * <p>
+   * The cache is not consulted until the returned promise is subscribed to.
+   *
+   * @param key the key
+   * @return a promise for the value
+   */
+  Promise<V> get(K key);
+
+  /**
+   * Discards the value for the given key, if it is cached.
+   *
+   * @param key the key
+   */
+  void invalidate(K key);
+
+  /**
+   * Discards all cached values.
+   */
+  void invalidateAll();
+
+  /**
+   * The approximate number of values that are cached or being loaded.
+   *
+   * @return the approximate number of values that are cached or being loaded
+   */
+  long getSize();
+
+  /**
+   * The number of times a value has been loaded, including refreshes.
+   *
+   * @return the number of times a value has been loaded
+   */
+  long getLoadCount();
+
+  /**
+   * Specifies the behaviour of an {@link AsyncCache}.
+   */
+  interface Spec {
+
+    /**
+     * The maximum number of values to cache, after which the least recently used values are discarded.
+     *
+     * @param maximumSize the maximum number of values to cache
+     * @return {@code this}
+     */
+    Spec maximumSize(long maximumSize);
+
+    /**
+     * How long after being loaded a value expires, after which it is loaded again when requested.
+     *
+     * @param duration how long values are cached for
+     * @return {@code this}
+     */
+    Spec expireAfterWrite(Duration duration);
+
+    /**
+     * How long after being loaded a value is refreshed, when requested.
+     * <p>
+     * This should be shorter than the {@link #expireAfterWrite(Duration) expiry} time.
+     * A value that is requested after this time and before it expires is provided straight away, while a new value is loaded in the background.
+     * If the refresh fails, the value is refreshed again the next time it is requested.
+     *
+     * @param duration how long after being loaded a value is refreshed
+     * @return {@code this}
+     */
+    Spec refreshAfterWrite(Duration duration);
+
+    /**
+     * The source of time, for expiry and refresh.
+     * <p>
+     * Defaults to {@link Ticker#systemTicker()}.
+     *
+     * @param ticker the source of time
+     * @return {@code this}
+     */
+    Spec ticker(Ticker ticker);
+  }
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ratpack.exec;
+
+import ratpack.exec.internal.DefaultBatchLoader;
+import ratpack.func.Action;
+import ratpack.func.Function;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coalesces individual key lookups into calls to a batch function, deduplicating and caching them per execution.
+ * <p>
+ * Keys {@link #load(Object) loaded} within an execution are collected until the promise for one of them is subscribed to,
+ * at which point the batch function is called once with all of the collected keys.
+ * Loading a key that was already loaded within the same execution does not call the batch function again (unless {@link Spec#cache(boolean) caching} is disabled).
+ * The cache is specific to each execution (e.g. each request), so values are never shared between executions.
+ * <pre class="java">{@code
+ * import ratpack.exec.BatchLoader;
+ * import ratpack.exec.ExecControl;
+ * import ratpack.exec.Promise;
+ * import ratpack.test.exec.ExecHarness;
+ *
+ * import java.util.Arrays;
+ * import java.util.HashMap;
+ * import java.util.List;
+ * import java.util.Map;
+ * import java.util.concurrent.atomic.AtomicInteger;
+ *
+ * import static org.junit.Assert.assertEquals;
+ *
+ * public class Example {
+ *   public static void main(String... args) throws Exception {
+ *     AtomicInteger calls = new AtomicInteger();
+ *     BatchLoader<Integer, String> loader = BatchLoader.of(keys -> {
+ *       calls.incrementAndGet();
+ *       Map<Integer, String> values = new HashMap<>();
+ *       keys.forEach(key -> values.put(key, "value" + key));
+ *       return ExecControl.execControl().promiseOf(values);
+ *     });
+ *
+ *     List<String> values = ExecHarness.yieldSingle(e -> {
+ *       Promise<String> one = loader.load(1);
+ *       Promise<String> two = loader.load(2);
+ *       return one.flatMap(v1 -> two.flatMap(v2 -> loader.load(1).map(v3 -> Arrays.asList(v1, v2, v3))));
+ *     }).getValue();
+ *
+ *     assertEquals(Arrays.asList("value1", "value2", "value1"), values);
+ *     assertEquals(1, calls.get());
+ *   }
+ * }
+ * }</pre>
+ * <p>
+ * If {@link Spec#batchAcrossExecutions(Duration) enabled}, the keys of different executions on the same event loop are also combined into a single call,
+ * at the cost of waiting for other executions to load keys.
+ *
+ * @param <K> the type of key
+ * @param <V> the type of value
+ */
+public interface BatchLoader<K, V> {
+
+  /**
+   * Creates a batch loader, using the given function to load the values for a batch of keys.
+   * <p>
+   * The function is given distinct keys, in the order they were loaded.
+   * The map it provides need not contain all of the keys; the value for a missing key is {@code null}.
+   *
+   * @param batchFunction the function that loads the values for a batch of keys
+   * @param <K> the type of key
+   * @param <V> the type of value
+   * @return a new batch loader
+   */
+  static <K, V> BatchLoader<K, V> of(Function<? super List<K>, ? extends Promise<Map<K, V>>> batchFunction) {
+    return new DefaultBatchLoader<>(batchFunction);
+  }
+
+  /**
+   * Creates a batch loader, using the given function to load the values for a batch of keys.
+   *
+   * @param spec the specification of batch sizes, caching and batching across executions
+   * @param batchFunction the function that loads the values for a batch of keys
+   * @param <K> the type of key
+   * @param <V> the type of value
+   * @return a new batch loader
+   * @throws Exception any thrown by {@code spec}
+   * @see #of(Function)
+   */
+  static <K, V> BatchLoader<K, V> of(Action<? super Spec> spec, Function<? super List<K>, ? extends Promise<Map<K, V>>> batchFunction) throws Exception {
+    return new DefaultBatchLoader<>(spec, batchFunction);
+  }
+
+  /**
+   * Adds the key to the current batch, returning a promise for its value.
+   * <p>
+   * This method must be called within an execution.
+   * The key is added to the batch when this method is called, not when the promise is subscribed to.
+   * The batch is loaded when a promise for any of its keys is first subscribed to.
+   *
+   * @param key the key to load
+   * @return a promise for the value of the key
+   */
+  Promise<V> load(K key);
+
+  /**
+   * Adds the keys to the current batch, returning a promise for their values.
+   *
+   * @param keys the keys to load
+   * @return a promise for the values of the keys, in the same order as the keys
+   * @see #load(Object)
+   */
+  Promise<List<V>> loadAll(Iterable<? extends K> keys);
+
+  /**
+   * The number of times the batch function has been called.
+   *
+   * @return the number of times the batch function has been called
+   */
+  long getBatchCount();
+
+  /**
+   * The specification of a batch loader.
+   */
+  interface Spec {
+
+    /**
+     * The maximum number of keys given to the batch function at once.
+     * <p>
+     * Defaults to no limit.
+     *
+     * @param maxBatchSize the maximum number of keys in a batch
+     * @return {@code this}
+     */
+    Spec maxBatchSize(int maxBatchSize);
+
+    /**
+     * Whether values are cached for the rest of the execution once loaded.
+     * <p>
+     * Defaults to {@code true}.
+     * When disabled, keys are still deduplicated within a batch.
+     *
+     * @param cache whether to cache values for the execution
+     * @return {@code this}
+     */
+    Spec cache(boolean cache);
+
+    /**
+     * Combines the batches of different executions on the same event loop into single calls to the batch function.
+     * <p>
+     * A batch waits at most the given delay for other executions to add their batches, or until the {@link #maxBatchSize(int) max batch size} is reached.
+     * A delay of zero combines the batches of the executions that dispatch them within the same event loop iteration.
+     * The batch function is called in a separate execution in this case.
+     *
+     * @param maxDelay how long to wait for other executions' keys
+     * @return {@code this}
+     */
+    Spec batchAcrossExecutions(Duration maxDelay);
+  }
+
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.internal;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import ratpack.exec.AsyncCache;
+import ratpack.exec.Downstream;
+import ratpack.exec.ExecControl;
+import ratpack.exec.Promise;
+import ratpack.func.Action;
+import ratpack.func.Function;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+public class DefaultAsyncCache<K, V> implements AsyncCache<K, V> {
+
+  private final Function<? super K, ? extends Promise<V>> loader;
+  // loaded values only, bounded and expired by the cache
+  private final ConcurrentMap<K, Entry<V>> entries;
+  // loads in progress, kept out of the cache so that they are never evicted while running (which would start a duplicate load)
+  private final ConcurrentMap<K, Load<V>> loads = new ConcurrentHashMap<>();
+  private final Ticker ticker;
+  private final long refreshAfterNanos;
+  private final AtomicLong loadCount = new AtomicLong();
+
+  public DefaultAsyncCache(Function<? super K, ? extends Promise<V>> loader) {
+    this(new Spec(), loader);
+  }
+
+  public DefaultAsyncCache(Action<? super AsyncCache.Spec> spec, Function<? super K, ? extends Promise<V>> loader) throws Exception {
+    this(configure(spec), loader);
+  }
+
+  private static Spec configure(Action<? super AsyncCache.Spec> action) throws Exception {
+    Spec spec = new Spec();
+    action.execute(spec);
+    return spec;
+  }
+
+  private DefaultAsyncCache(Spec spec, Function<? super K, ? extends Promise<V>> loader) {
+    this.loader = loader;
+    this.ticker = spec.ticker;
+    this.refreshAfterNanos = spec.refreshAfterWrite == null ? 0 : spec.refreshAfterWrite.toNanos();
+
+    CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().ticker(ticker);
+    if (spec.maximumSize >= 0) {
+      builder.maximumSize(spec.maximumSize);
+    }
+    if (spec.expireAfterWrite != null) {
+      builder.expireAfterWrite(spec.expireAfterWrite.toNanos(), TimeUnit.NANOSECONDS);
+    }
+    Cache<K, Entry<V>> cache = builder.build();
+    this.entries = cache.asMap();
+  }
+
+  @Override
+  public Promise<V> get(K key) {
+    return ExecControl.execControl().promiseFrom(() -> lookup(key)).flatMap(Function.identity());
+  }
+
+  private Promise<V> lookup(K key) {
+    Entry<V> entry = entries.get(key);
+    if (entry == null) {
+      Load<V> load = loads.get(key);
+      if (load != null) {
+        return load.promise;
+      }
+
+      Load<V> newLoad = new Load<>();
+      newLoad.promise = load(key, value -> loaded(key, newLoad, value), () -> loads.remove(key, newLoad)).cache();
+      load = loads.putIfAbsent(key, newLoad);
+      if (load != null) {
+        return load.promise;
+      }
+
+      // a load may have completed since the value was looked up, as values are cached before their load is removed
+      entry = entries.get(key);
+      if (entry == null) {
+        return newLoad.promise;
+      }
+      loads.remove(key, newLoad);
+    }
+
+    if (refreshAfterNanos > 0 && ticker.read() - entry.loadedAt >= refreshAfterNanos && entry.refreshing.compareAndSet(false, true)) {
+      refresh(key, entry);
+    }
+    return ExecControl.execControl().promiseOf(entry.value);
+  }
+
+  private void loaded(K key, Load<V> load, V value) {
+    synchronized (load) {
+      if (!load.invalidated) {
+        entries.put(key, new Entry<>(value, ticker.read()));
+      }
+    }
+    loads.remove(key, load);
+  }
+
+  private Promise<V> load(K key, Consumer<? super V> onSuccess, Runnable onFailure) {
+    return ExecControl.execControl().wrap(() -> {
+      loadCount.incrementAndGet();
+      return loader.apply(key);
+    }).transform(up -> down -> up.connect(new Downstream<V>() {
+      @Override
+      public void success(V value) {
+        onSuccess.accept(value);
+        down.success(value);
+      }
+
+      @Override
+      public void error(Throwable throwable) {
+        onFailure.run();
+        down.error(throwable);
+      }
+
+      @Override
+      public void complete() {
+        onFailure.run();
+        down.complete();
+      }
+    }));
+  }
+
+  private void refresh(K key, Entry<V> stale) {
+    ExecControl.execControl().fork()
+      .onError(e -> stale.refreshing.set(false))
+      .start(e ->
+          load(key, value -> entries.replace(key, stale, new Entry<>(value, ticker.read())), () -> entries.remove(key, stale))
+            .onError(t -> stale.refreshing.set(false))
+            .then(Action.noop())
+      );
+  }
+
+  @Override
+  public void invalidate(K key) {
+    Load<V> load = loads.remove(key);
+    if (load != null) {
+      invalidate(load);
+    }
+    entries.remove(key);
+  }
+
+  @Override
+  public void invalidateAll() {
+    for (Load<V> load : loads.values()) {
+      invalidate(load);
+    }
+    loads.clear();
+    entries.clear();
+  }
+
+  // prevents a load in progress from caching its value, as it may have been loaded before the invalidation
+  private static void invalidate(Load<?> load) {
+    synchronized (load) {
+      load.invalidated = true;
+    }
+  }
+
+  @Override
+  public long getSize() {
+    return entries.size() + loads.size();
+  }
+
+  @Override
+  public long getLoadCount() {
+    return loadCount.get();
+  }
+
+  private static class Load<V> {
+    private Promise<V> promise;
+    private boolean invalidated;
+  }
+
+  private static class Entry<V> {
+    private final V value;
+    private final long loadedAt;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private Entry(V value, long loadedAt) {
+      this.value = value;
+      this.loadedAt = loadedAt;
+    }
+  }
+
+  public static class Spec implements AsyncCache.Spec {
+    private long maximumSize = -1;
+    private Duration expireAfterWrite;
+    private Duration refreshAfterWrite;
+    private Ticker ticker = Ticker.systemTicker();
+
+    @Override
+    public AsyncCache.Spec maximumSize(long maximumSize) {
+      this.maximumSize = maximumSize;
+      return this;
+    }
+
+    @Override
+    public AsyncCache.Spec expireAfterWrite(Duration duration) {
+      this.expireAfterWrite = duration;
+      return this;
+    }
+
+    @Override
+    public AsyncCache.Spec refreshAfterWrite(Duration duration) {
+      this.refreshAfterWrite = duration;
+      return this;
+    }
+
+    @Override
+    public AsyncCache.Spec ticker(Ticker ticker) {
+      this.ticker = ticker;
+      return this;
+    }
+  }
+
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ratpack.exec.internal;
+
+import com.google.common.collect.ImmutableList;
+import io.netty.channel.EventLoop;
+import ratpack.exec.BatchLoader;
+import ratpack.exec.ExecControl;
+import ratpack.exec.Execution;
+import ratpack.exec.Fulfiller;
+import ratpack.exec.Promise;
+import ratpack.func.Action;
+import ratpack.func.Function;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class DefaultBatchLoader<K, V> implements BatchLoader<K, V> {
+
+  private final Function<? super List<K>, ? extends Promise<Map<K, V>>> batchFunction;
+  private final int maxBatchSize;
+  private final boolean cache;
+  private final Duration maxDelay;
+  private final ConcurrentMap<EventLoop, SharedBatch> sharedBatches = new ConcurrentHashMap<>();
+  private final AtomicLong batchCount = new AtomicLong();
+
+  public DefaultBatchLoader(Function<? super List<K>, ? extends Promise<Map<K, V>>> batchFunction) {
+    this(new Spec(), batchFunction);
+  }
+
+  public DefaultBatchLoader(Action<? super BatchLoader.Spec> spec, Function<? super List<K>, ? extends Promise<Map<K, V>>> batchFunction) throws Exception {
+    this(Action.with(new Spec(), spec), batchFunction);
+  }
+
+  private DefaultBatchLoader(Spec spec, Function<? super List<K>, ? extends Promise<Map<K, V>>> batchFunction) {
+    this.batchFunction = batchFunction;
+    this.maxBatchSize = spec.maxBatchSize;
+    this.cache = spec.cache;
+    this.maxDelay = spec.maxDelay;
+  }
+
+  @Override
+  public Promise<V> load(K key) {
+    State state = state(ExecControl.execControl().getExecution());
+
+    Promise<V> promise = state.cached.get(key);
+    if (promise != null) {
+      return promise;
+    }
+
+    Batch batch = state.current;
+    if (batch != null && !batch.dispatched) {
+      promise = batch.promises.get(key);
+      if (promise != null) {
+        return promise;
+      }
+    }
+
+    if (batch == null || batch.dispatched || batch.keys.size() >= maxBatchSize) {
+      batch = new Batch();
+      state.current = batch;
+    }
+
+    batch.keys.add(key);
+    promise = batch.values.map(v -> v.get(key));
+    batch.promises.put(key, promise);
+    if (cache) {
+      state.cached.put(key, promise);
+    }
+
+    return promise;
+  }
+
+  @Override
+  public Promise<List<V>> loadAll(Iterable<? extends K> keys) {
+    List<Promise<V>> promises = new ArrayList<>();
+    for (K key : keys) {
+      promises.add(load(key));
+    }
+
+    return ExecControl.execControl().wrap(() -> {
+      List<V> values = new ArrayList<>(promises.size());
+      Promise<List<V>> result = ExecControl.execControl().promiseOf(values);
+      for (Promise<V> promise : promises) {
+        result = result.flatMap(list -> promise.map(value -> {
+          list.add(value);
+          return list;
+        }));
+      }
+      return result;
+    });
+  }
+
+  @Override
+  public long getBatchCount() {
+    return batchCount.get();
+  }
+
+  private State state(Execution execution) {
+    States states = execution.maybeGet(States.class).orElse(null);
+    if (states == null) {
+      states = new States();
+      execution.add(States.class, states);
+    }
+
+    @SuppressWarnings("unchecked") State state = (State) states.states.computeIfAbsent(this, loader -> new State());
+    return state;
+  }
+
+  private Promise<Map<K, V>> dispatch(List<K> keys) throws Exception {
+    if (maxDelay == null) {
+      batchCount.incrementAndGet();
+      return batchFunction.apply(keys);
+    } else {
+      ExecControl execControl = ExecControl.execControl();
+      EventLoop eventLoop = execControl.getExecution().getEventLoop();
+      return execControl.promise(fulfiller -> share(eventLoop, keys, fulfiller));
+    }
+  }
+
+  // only called on the given event loop
+  private void share(EventLoop eventLoop, List<K> keys, Fulfiller<Map<K, V>> fulfiller) {
+    SharedBatch sharedBatch = sharedBatches.computeIfAbsent(eventLoop, l -> new SharedBatch());
+    sharedBatch.waiters.add(new Waiter(keys, fulfiller));
+    sharedBatch.keys.addAll(keys);
+
+    if (sharedBatch.keys.size() >= maxBatchSize) {
+      flush(eventLoop, sharedBatch);
+    } else if (!sharedBatch.scheduled) {
+      sharedBatch.scheduled = true;
+      if (maxDelay.isZero()) {
+        eventLoop.execute(() -> flush(eventLoop, sharedBatch));
+      } else {
+        eventLoop.schedule(() -> flush(eventLoop, sharedBatch), maxDelay.toNanos(), TimeUnit.NANOSECONDS);
+      }
+    }
+  }
+
+  private void flush(EventLoop eventLoop, SharedBatch sharedBatch) {
+    if (!sharedBatches.remove(eventLoop, sharedBatch)) {
+      return; // already flushed
+    }
+
+    // each execution's keys go to a single call, so calls may slightly exceed the max size when combining
+    List<Waiter> chunk = new ArrayList<>();
+    Set<K> chunkKeys = new LinkedHashSet<>();
+    for (Waiter waiter : sharedBatch.waiters) {
+      if (!chunk.isEmpty() && chunkKeys.size() + waiter.keys.size() > maxBatchSize) {
+        call(eventLoop, chunk, chunkKeys);
+        chunk = new ArrayList<>();
+        chunkKeys = new LinkedHashSet<>();
+      }
+      chunk.add(waiter);
+      chunkKeys.addAll(waiter.keys);
+    }
+    call(eventLoop, chunk, chunkKeys);
+  }
+
+  private void call(EventLoop eventLoop, List<Waiter> waiters, Set<K> keys) {
+    ExecControl.execControl().fork()
+      .eventLoop(eventLoop)
+      .onError(throwable -> waiters.forEach(waiter -> waiter.fulfiller.error(throwable)))
+      .start(e -> {
+        batchCount.incrementAndGet();
+        batchFunction.apply(ImmutableList.copyOf(keys)).then(values ->
+            waiters.forEach(waiter -> waiter.fulfiller.success(values))
+        );
+      });
+  }
+
+  private static class States {
+    private final Map<DefaultBatchLoader<?, ?>, Object> states = new IdentityHashMap<>();
+  }
+
+  private class State {
+    private final Map<K, Promise<V>> cached = new HashMap<>();
+    private Batch current;
+  }
+
+  private class Batch {
+    private final List<K> keys = new ArrayList<>();
+    private final Map<K, Promise<V>> promises = new HashMap<>();
+    private boolean dispatched;
+    private final Promise<Map<K, V>> values = ExecControl.execControl().wrap(() -> {
+      dispatched = true;
+      return dispatch(ImmutableList.copyOf(keys));
+    }).cache();
+  }
+
+  private class Waiter {
+    private final List<K> keys;
+    private final Fulfiller<Map<K, V>> fulfiller;
+
+    private Waiter(List<K> keys, Fulfiller<Map<K, V>> fulfiller) {
+      this.keys = keys;
+      this.fulfiller = fulfiller;
+    }
+  }
+
+  private class SharedBatch {
+    private final List<Waiter> waiters = new ArrayList<>();
+    private final Set<K> keys = new HashSet<>();
+    private boolean scheduled;
+  }
+
+  public static class Spec implements BatchLoader.Spec {
+    private int maxBatchSize = Integer.MAX_VALUE;
+    private boolean cache = true;
+    private Duration maxDelay;
+
+    @Override
+    public BatchLoader.Spec maxBatchSize(int maxBatchSize) {
+      if (maxBatchSize < 1) {
+        throw new IllegalArgumentException("max batch size must be greater than 0");
+      }
+      this.maxBatchSize = maxBatchSize;
+      return this;
+    }
+
+    @Override
+    public BatchLoader.Spec cache(boolean cache) {
+      this.cache = cache;
+      return this;
+    }
+
+    @Override
+    public BatchLoader.Spec batchAcrossExecutions(Duration maxDelay) {
+      this.maxDelay = maxDelay;
+      return this;
+    }
+  }
+
+}
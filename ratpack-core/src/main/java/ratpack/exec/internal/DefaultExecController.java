@@ -21,6 +21,7 @@ import io.netty.util.concurrent.DefaultThreadFactory;
 import ratpack.exec.ExecController;
 import ratpack.util.internal.ChannelImplDetector;
 
+import java.time.Duration;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -45,7 +46,20 @@ public class DefaultExecController implements ExecController {
   }
 
   public void close() {
-    eventLoopGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+    close(Duration.ZERO, Duration.ZERO);
+  }
+
+  /**
+   * Shuts down the event loops once no tasks have been submitted to them for the quiet period, or the timeout elapses.
+   * <p>
+   * The quiet period allows work that is still completing (e.g. the listeners of the last writes to a connection) to run before the event loops stop.
+   *
+   * @param quietPeriod the period without new tasks after which the event loops stop
+   * @param timeout the maximum time to wait for the quiet period before stopping regardless
+   */
+  public void close(Duration quietPeriod, Duration timeout) {
+    long quietPeriodMillis = quietPeriod.toMillis();
+    eventLoopGroup.shutdownGracefully(quietPeriodMillis, Math.max(quietPeriodMillis, timeout.toMillis()), TimeUnit.MILLISECONDS);
     blockingExecutor.shutdown();
   }
 
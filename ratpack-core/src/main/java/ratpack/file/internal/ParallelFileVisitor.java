@@ -0,0 +1,107 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.file.internal;
+
+import ratpack.func.BiAction;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Applies an action to files in a directory tree in parallel, e.g. to compile templates ahead of their first use.
+ */
+public abstract class ParallelFileVisitor {
+
+  private ParallelFileVisitor() {
+  }
+
+  /**
+   * Applies the given action to each regular file under the given directory whose name ends with the given suffix, on a fork join pool.
+   * <p>
+   * The action receives the path of the file relative to the directory, using {@code /} as the separator, and the file.
+   * The action is applied to every file even if it fails for some.
+   * If it fails for any file, the first failure is thrown with the others added as suppressed exceptions.
+   *
+   * @param dir the directory to visit
+   * @param suffix the suffix of the files to visit (use an empty string for all files)
+   * @param action the action to apply to each file
+   * @return the number of visited files
+   * @throws Exception the first failure of the action, or any thrown traversing the directory
+   */
+  public static int visit(Path dir, String suffix, BiAction<? super String, ? super Path> action) throws Exception {
+    if (!Files.isDirectory(dir)) {
+      return 0;
+    }
+
+    List<Path> files;
+    try (Stream<Path> paths = Files.walk(dir)) {
+      files = paths
+        .filter(path -> Files.isRegularFile(path) && path.getFileName().toString().endsWith(suffix))
+        .collect(Collectors.toList());
+    }
+
+    if (files.isEmpty()) {
+      return 0;
+    }
+
+    // Failures are captured by the tasks, as fork join tasks may rethrow a copy of an exception thrown on another thread
+    Exception[] failures = new Exception[files.size()];
+    ForkJoinPool pool = new ForkJoinPool(Math.min(files.size(), Runtime.getRuntime().availableProcessors()));
+    try {
+      List<ForkJoinTask<?>> tasks = new ArrayList<>(files.size());
+      for (int i = 0; i < files.size(); ++i) {
+        int index = i;
+        Path file = files.get(i);
+        String name = dir.relativize(file).toString().replace(File.separatorChar, '/');
+        tasks.add(pool.submit(() -> {
+          try {
+            action.execute(name, file);
+          } catch (Exception e) {
+            failures[index] = e;
+          }
+        }));
+      }
+      tasks.forEach(ForkJoinTask::join);
+    } finally {
+      pool.shutdown();
+    }
+
+    Exception failure = null;
+    for (Exception exception : failures) {
+      if (exception != null) {
+        if (failure == null) {
+          failure = exception;
+        } else {
+          failure.addSuppressed(exception);
+        }
+      }
+    }
+
+    if (failure != null) {
+      throw failure;
+    }
+    return files.size();
+  }
+
+}
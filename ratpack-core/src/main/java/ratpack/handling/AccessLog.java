@@ -0,0 +1,183 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ratpack.handling;
+
+import ratpack.func.Action;
+import ratpack.handling.internal.DefaultAccessLog;
+import ratpack.server.Service;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Writes a line for each request to a file or to standard out, in either the NCSA common log format or as JSON.
+ * <p>
+ * An access log is both a {@link HandlerDecorator} and a {@link Service}, and is used by adding it to the server registry.
+ * <pre class="java">{@code
+ * import ratpack.handling.AccessLog;
+ * import ratpack.test.embed.EmbeddedApp;
+ * import static org.junit.Assert.*;
+ *
+ * public class Example {
+ *   public static void main(String... args) throws Exception {
+ *     AccessLog accessLog = AccessLog.of(l -> l.stdout().format(AccessLog.Format.JSON));
+ *     EmbeddedApp.of(s -> s
+ *       .registryOf(r -> r.add(accessLog))
+ *       .handler(r -> ctx -> ctx.render("ok"))
+ *     ).test(httpClient -> {
+ *       assertEquals("ok", httpClient.getText());
+ *     });
+ *   }
+ * }
+ * }</pre>
+ * <p>
+ * Log lines are written when the {@link RequestOutcome request outcome} is known.
+ * They are encoded directly into pooled buffers on the request thread, without building intermediate strings,
+ * and handed over to a single background thread that writes them out in batches.
+ * Request threads never wait for the log to be written.
+ * If the background thread can't keep up and more than {@link Spec#queueCapacity(int)} lines are pending,
+ * further lines are dropped (and counted by {@link #getDroppedCount()}) instead of applying back pressure to the application.
+ * <p>
+ * The background thread is started when the server starts, and stopped after writing all pending lines when the server stops.
+ */
+public interface AccessLog extends HandlerDecorator, Service {
+
+  /**
+   * The format of log lines.
+   */
+  enum Format {
+
+    /**
+     * The NCSA common log format (e.g. {@code 127.0.0.1 - - [10/Oct/2015:13:55:36 +0000] "GET /index.html HTTP/1.1" 200 2326}).
+     * <p>
+     * The response size is taken from the {@code Content-Length} response header, and is {@code -} if it was not set.
+     */
+    COMMON,
+
+    /**
+     * A JSON object per line, with the {@code time} (ISO-8601), {@code remoteAddress}, {@code method}, {@code uri}, {@code status} and {@code size} fields.
+     * <p>
+     * The size is taken from the {@code Content-Length} response header, and is {@code null} if it was not set.
+     */
+    JSON
+
+  }
+
+  /**
+   * Creates an access log that writes NCSA common log format lines to standard out.
+   *
+   * @return an access log
+   */
+  static AccessLog of() {
+    return new DefaultAccessLog();
+  }
+
+  /**
+   * Creates an access log configured by the given action.
+   *
+   * @param spec the configuration of the access log
+   * @return an access log
+   * @throws Exception any thrown by {@code spec}
+   */
+  static AccessLog of(Action<? super Spec> spec) throws Exception {
+    return new DefaultAccessLog(spec);
+  }
+
+  /**
+   * The number of lines that have been written.
+   *
+   * @return the number of lines that have been written
+   */
+  long getWrittenCount();
+
+  /**
+   * The number of lines that have been dropped because too many lines were pending, or because writing failed.
+   *
+   * @return the number of lines that have been dropped
+   */
+  long getDroppedCount();
+
+  /**
+   * The configuration of an access log.
+   */
+  interface Spec {
+
+    /**
+     * The format of log lines.
+     * <p>
+     * Defaults to {@link Format#COMMON}.
+     *
+     * @param format the format of log lines
+     * @return this
+     */
+    Spec format(Format format);
+
+    /**
+     * Write log lines to standard out.
+     * <p>
+     * This is the default.
+     *
+     * @return this
+     */
+    Spec stdout();
+
+    /**
+     * Write log lines to the given file, appending to it if it exists.
+     *
+     * @param file the log file
+     * @return this
+     */
+    Spec file(Path file);
+
+    /**
+     * Rotate the log file once it reaches the given size.
+     * <p>
+     * When rotated, the log file is renamed by appending the current time to its name (e.g. {@code access.log.20150410-135536}) and a new file is started.
+     * By default, files are not rotated by size.
+     * Has no effect when writing to standard out.
+     *
+     * @param bytes the maximum size of the log file, in bytes
+     * @return this
+     */
+    Spec rotateAfterSize(long bytes);
+
+    /**
+     * Rotate the log file once it has been written to for the given time.
+     * <p>
+     * By default, files are not rotated by time.
+     * Has no effect when writing to standard out.
+     *
+     * @param duration the maximum time to write to a log file for
+     * @return this
+     * @see #rotateAfterSize(long)
+     */
+    Spec rotateAfter(Duration duration);
+
+    /**
+     * The maximum number of lines waiting to be written, after which lines are dropped.
+     * <p>
+     * Defaults to {@code 65536}.
+     *
+     * @param capacity the maximum number of pending lines
+     * @return this
+     */
+    Spec queueCapacity(int capacity);
+
+  }
+
+}
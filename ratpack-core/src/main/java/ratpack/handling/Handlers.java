@@ -21,6 +21,7 @@ import ratpack.file.internal.AssetHandler;
 import ratpack.file.internal.FileSystemBindingHandler;
 import ratpack.func.Action;
 import ratpack.handling.internal.*;
+import ratpack.http.client.internal.ProxyHandler;
 import ratpack.http.internal.*;
 import ratpack.path.PathBinder;
 import ratpack.path.PathBinders;
@@ -28,6 +29,7 @@ import ratpack.path.internal.PathHandler;
 import ratpack.registry.Registry;
 import ratpack.server.ServerConfig;
 
+import java.net.URI;
 import java.util.List;
 
 import static com.google.common.collect.ImmutableList.copyOf;
@@ -300,6 +302,26 @@ public abstract class Handlers {
     return path(PathBinders.parse(prefix, false), handler);
   }
 
+  /**
+   * A handler that forwards the request to the given upstream server, and streams the upstream response back as the response.
+   * <p>
+   * The request URI (path and query) is appended to the given upstream URI.
+   * The request method, headers and body are forwarded, except for hop-by-hop headers such as {@code Connection} and the {@code Host} header.
+   * The upstream status and headers (except for hop-by-hop headers) are copied to the response.
+   * Redirects are not followed and compressed responses are not decompressed, but forwarded as is.
+   * <p>
+   * The request to the upstream server is made with the contextual {@link ratpack.http.client.HttpClient},
+   * on the same event loop as the request being proxied.
+   * The response content is forwarded as it is received, without being copied or buffered,
+   * and is only read from the upstream server as fast as it can be written to the client.
+   *
+   * @param upstream the URI of the upstream server (e.g. {@code http://backend:8080/api})
+   * @return a handler
+   */
+  public static Handler proxy(URI upstream) {
+    return new ProxyHandler(upstream);
+  }
+
   /**
    * A handler that delegates to the next handler if the request is PUT, otherwise raises a 405 client error.
    *
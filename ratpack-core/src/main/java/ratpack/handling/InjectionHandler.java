@@ -17,13 +17,15 @@
 package ratpack.handling;
 
 import com.google.common.reflect.TypeToken;
-import ratpack.handling.internal.Extractions;
+import ratpack.registry.NotInRegistryException;
+import ratpack.registry.Registry;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Optional;
 
 import static ratpack.util.Exceptions.uncheck;
 
@@ -115,12 +117,28 @@ import static ratpack.util.Exceptions.uncheck;
  * }
  * }</pre>
  * <p>
+ * Primitive parameters are supplied from registry objects of the corresponding wrapper type (e.g. an {@code int} parameter from an {@link Integer}).
+ * <p>
  * If there is no suitable {@code handle(Context, ...)} method, a {@link NoSuitableHandleMethodException} will be thrown at construction time.
  */
 public abstract class InjectionHandler implements Handler {
 
-  private final List<TypeToken<?>> types;
-  private final Method handleMethod;
+  private static final Type OPTIONAL_VALUE_TYPE;
+
+  static {
+    try {
+      OPTIONAL_VALUE_TYPE = Optional.class.getMethod("get").getGenericReturnType();
+    } catch (NoSuchMethodException e) {
+      throw new InternalError("Optional class does not have get method");
+    }
+  }
+
+  // Handle methods with up to this many injected parameters are invoked without allocating an argument array.
+  private static final int MAX_UNSPREAD_PARAMETERS = 6;
+
+  private final TypeToken<?>[] types;
+  private final boolean[] optional;
+  private final MethodHandle handleMethod;
 
   /**
    * Constructor.
@@ -159,13 +177,33 @@ public abstract class InjectionHandler implements Handler {
       throw new NoSuitableHandleMethodException(thisClass, e);
     }
 
-    this.handleMethod = handleMethod;
-
     Type[] parameterTypes = handleMethod.getGenericParameterTypes();
-    this.types = new ArrayList<>(parameterTypes.length - 1);
+    int injectedCount = parameterTypes.length - 1;
+    this.types = new TypeToken<?>[injectedCount];
+    this.optional = new boolean[injectedCount];
 
-    for (int i = 1; i < parameterTypes.length; ++i) {
-      this.types.add(TypeToken.of(parameterTypes[i]));
+    for (int i = 0; i < injectedCount; ++i) {
+      TypeToken<?> type = TypeToken.of(parameterTypes[i + 1]);
+      if (type.getRawType().equals(Optional.class)) {
+        this.types[i] = type.resolveType(OPTIONAL_VALUE_TYPE);
+        this.optional[i] = true;
+      } else {
+        // primitive parameters are looked up as their wrapper type, as registry entries are objects
+        this.types[i] = type.wrap();
+      }
+    }
+
+    MethodHandle boundHandleMethod;
+    try {
+      boundHandleMethod = MethodHandles.lookup().unreflect(handleMethod).bindTo(this);
+    } catch (IllegalAccessException e) {
+      throw new NoSuitableHandleMethodException(thisClass, e);
+    }
+
+    if (injectedCount <= MAX_UNSPREAD_PARAMETERS) {
+      this.handleMethod = boundHandleMethod.asType(MethodType.genericMethodType(injectedCount).insertParameterTypes(0, Context.class).changeReturnType(void.class));
+    } else {
+      this.handleMethod = boundHandleMethod.asSpreader(Object[].class, parameterTypes.length).asType(MethodType.methodType(void.class, Object[].class));
     }
   }
 
@@ -175,16 +213,57 @@ public abstract class InjectionHandler implements Handler {
    * @param context The context to handle
    */
   public final void handle(Context context) {
-    Object[] args = new Object[types.size() + 1];
-    args[0] = context;
-    Extractions.extract(types, context.getRequest().join(context), args, 1);
+    Registry request = context.getRequest();
     try {
-      handleMethod.invoke(this, args);
-    } catch (IllegalAccessException e) {
-      throw uncheck(e);
-    } catch (InvocationTargetException e) {
-      Throwable root = e.getTargetException();
-      throw uncheck(root);
+      switch (types.length) {
+        case 1:
+          handleMethod.invokeExact(context, extract(0, context, request));
+          break;
+        case 2:
+          handleMethod.invokeExact(context, extract(0, context, request), extract(1, context, request));
+          break;
+        case 3:
+          handleMethod.invokeExact(context, extract(0, context, request), extract(1, context, request), extract(2, context, request));
+          break;
+        case 4:
+          handleMethod.invokeExact(context, extract(0, context, request), extract(1, context, request), extract(2, context, request), extract(3, context, request));
+          break;
+        case 5:
+          handleMethod.invokeExact(context, extract(0, context, request), extract(1, context, request), extract(2, context, request), extract(3, context, request),
+            extract(4, context, request));
+          break;
+        case 6:
+          handleMethod.invokeExact(context, extract(0, context, request), extract(1, context, request), extract(2, context, request), extract(3, context, request),
+            extract(4, context, request), extract(5, context, request));
+          break;
+        default:
+          Object[] args = new Object[types.length + 1];
+          args[0] = context;
+          for (int i = 0; i < types.length; ++i) {
+            args[i + 1] = extract(i, context, request);
+          }
+          handleMethod.invokeExact(args);
+      }
+    } catch (Throwable throwable) {
+      throw uncheck(throwable);
+    }
+  }
+
+  private Object extract(int i, Registry context, Registry request) {
+    return extract(types[i], optional[i], context, request);
+  }
+
+  // The context takes precedence over the request, without creating a joined registry per call.
+  private static <T> Object extract(TypeToken<T> type, boolean optional, Registry context, Registry request) {
+    Optional<T> value = context.maybeGet(type);
+    if (!value.isPresent()) {
+      value = request.maybeGet(type);
+    }
+
+    if (optional) {
+      return value;
+    } else {
+      return value.orElseThrow(() -> new NotInRegistryException(type));
     }
   }
 
@@ -198,7 +277,7 @@ public abstract class InjectionHandler implements Handler {
       super("No injectable handle method found for " + clazz.getName());
     }
 
-    public NoSuitableHandleMethodException(Class<?> clazz, SecurityException cause) {
+    public NoSuitableHandleMethodException(Class<?> clazz, Throwable cause) {
       super("Unable to make handle method accessible for " + clazz.getName(), cause);
     }
   }
@@ -0,0 +1,467 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ratpack.handling.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ratpack.func.Action;
+import ratpack.handling.AccessLog;
+import ratpack.handling.Handler;
+import ratpack.handling.Handlers;
+import ratpack.handling.RequestOutcome;
+import ratpack.http.Request;
+import ratpack.http.internal.HttpHeaderConstants;
+import ratpack.registry.Registry;
+import ratpack.server.StartEvent;
+import ratpack.server.StopEvent;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+public class DefaultAccessLog implements AccessLog {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AccessLog.class);
+
+  private static final int DEFAULT_QUEUE_CAPACITY = 65536;
+  private static final int BATCH_SIZE = 64;
+  private static final int INITIAL_LINE_CAPACITY = 192;
+
+  private static final DateTimeFormatter COMMON_TIME_FORMAT = DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH).withZone(ZoneOffset.UTC);
+  private static final DateTimeFormatter ISO_TIME_FORMAT = DateTimeFormatter.ISO_INSTANT;
+  private static final DateTimeFormatter ROTATION_SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+  private final Format format;
+  private final Path file;
+  private final long rotateAfterBytes;
+  private final long rotateAfterNanos;
+  private final int queueCapacity;
+  private final ByteBufAllocator allocator = PooledByteBufAllocator.DEFAULT;
+
+  private final Queue<ByteBuf> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pending = new AtomicInteger();
+  private final AtomicLong written = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+
+  private volatile boolean running;
+  private volatile Thread writer;
+
+  // Set while the writer is parked (or about to park) waiting for lines, so that producers know to unpark it
+  private volatile boolean writerIdle;
+
+  // Set once the writer has finished writing, after which lines that are still queued must be released by whoever queued them
+  private volatile boolean writerStopped;
+
+  // The formatted time of the most recently logged second, as formatting it is relatively expensive
+  private volatile FormattedTime formattedTime = new FormattedTime(Long.MIN_VALUE, null);
+
+  private static class FormattedTime {
+    final long second;
+    final byte[] bytes;
+
+    FormattedTime(long second, byte[] bytes) {
+      this.second = second;
+      this.bytes = bytes;
+    }
+  }
+
+  private static class SpecImpl implements Spec {
+    private Format format = Format.COMMON;
+    private Path file;
+    private long rotateAfterBytes = Long.MAX_VALUE;
+    private Duration rotateAfter;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+    @Override
+    public Spec format(Format format) {
+      this.format = format;
+      return this;
+    }
+
+    @Override
+    public Spec stdout() {
+      this.file = null;
+      return this;
+    }
+
+    @Override
+    public Spec file(Path file) {
+      this.file = file;
+      return this;
+    }
+
+    @Override
+    public Spec rotateAfterSize(long bytes) {
+      this.rotateAfterBytes = bytes;
+      return this;
+    }
+
+    @Override
+    public Spec rotateAfter(Duration duration) {
+      this.rotateAfter = duration;
+      return this;
+    }
+
+    @Override
+    public Spec queueCapacity(int capacity) {
+      this.queueCapacity = capacity;
+      return this;
+    }
+  }
+
+  public DefaultAccessLog() {
+    this(new SpecImpl());
+  }
+
+  public DefaultAccessLog(Action<? super Spec> action) throws Exception {
+    this(Action.with(new SpecImpl(), action));
+  }
+
+  private DefaultAccessLog(SpecImpl spec) {
+    this.format = spec.format;
+    this.file = spec.file;
+    this.rotateAfterBytes = spec.rotateAfterBytes;
+    this.rotateAfterNanos = spec.rotateAfter == null ? Long.MAX_VALUE : spec.rotateAfter.toNanos();
+    this.queueCapacity = spec.queueCapacity;
+  }
+
+  @Override
+  public Handler decorate(Registry serverRegistry, Handler rest) throws Exception {
+    return Handlers.chain(ctx -> {
+      ctx.onClose(this::log);
+      ctx.next();
+    }, rest);
+  }
+
+  @Override
+  public long getWrittenCount() {
+    return written.get();
+  }
+
+  @Override
+  public long getDroppedCount() {
+    return dropped.get();
+  }
+
+  @Override
+  public synchronized void onStart(StartEvent event) throws Exception {
+    if (writer == null) {
+      Writer writer = new Writer(open());
+      Thread thread = new Thread(writer, "ratpack-access-log");
+      thread.setDaemon(true);
+      writerStopped = false;
+      running = true;
+      this.writer = thread;
+      thread.start();
+    }
+  }
+
+  @Override
+  public synchronized void onStop(StopEvent event) throws Exception {
+    Thread thread = writer;
+    if (thread != null) {
+      running = false;
+      writer = null;
+      LockSupport.unpark(thread);
+      event.getExecControl().blocking(() -> {
+        thread.join();
+        return null;
+      }).then(Action.noop());
+    }
+  }
+
+  private void log(RequestOutcome outcome) {
+    if (!running) {
+      dropped.incrementAndGet();
+      return;
+    }
+    if (pending.incrementAndGet() > queueCapacity) {
+      pending.decrementAndGet();
+      dropped.incrementAndGet();
+      return;
+    }
+
+    ByteBuf line = allocator.buffer(INITIAL_LINE_CAPACITY);
+    try {
+      if (format == Format.JSON) {
+        writeJson(line, outcome);
+      } else {
+        writeCommon(line, outcome);
+      }
+    } catch (Throwable t) {
+      line.release();
+      pending.decrementAndGet();
+      dropped.incrementAndGet();
+      LOGGER.warn("Failed to format access log line", t);
+      return;
+    }
+    queue.add(line);
+
+    if (writerIdle) {
+      Thread thread = writer;
+      if (thread != null) {
+        LockSupport.unpark(thread);
+      }
+    }
+    if (writerStopped) {
+      // the log stopped while this line was being formatted, and the writer will not see it
+      discardQueued();
+    }
+  }
+
+  private void discardQueued() {
+    ByteBuf line;
+    while ((line = queue.poll()) != null) {
+      line.release();
+      pending.decrementAndGet();
+      dropped.incrementAndGet();
+    }
+  }
+
+  private void writeCommon(ByteBuf line, RequestOutcome outcome) {
+    Request request = outcome.getRequest();
+    writeAscii(line, request.getRemoteAddress().getHostText());
+    writeAscii(line, " - - [");
+    line.writeBytes(formattedTime(outcome.getClosedAt()));
+    writeAscii(line, "] \"");
+    writeAscii(line, request.getMethod().getName());
+    line.writeByte(' ');
+    writeAscii(line, request.getRawUri());
+    writeAscii(line, " HTTP/1.1\" ");
+    writeDecimal(line, outcome.getResponse().getStatus().getCode());
+    line.writeByte(' ');
+    String contentLength = outcome.getResponse().getHeaders().get(HttpHeaderConstants.CONTENT_LENGTH);
+    writeAscii(line, contentLength == null ? "-" : contentLength);
+    line.writeByte('\n');
+  }
+
+  private void writeJson(ByteBuf line, RequestOutcome outcome) {
+    Request request = outcome.getRequest();
+    writeAscii(line, "{\"time\":\"");
+    line.writeBytes(formattedTime(outcome.getClosedAt()));
+    writeAscii(line, "\",\"remoteAddress\":");
+    writeJsonString(line, request.getRemoteAddress().getHostText());
+    writeAscii(line, ",\"method\":");
+    writeJsonString(line, request.getMethod().getName());
+    writeAscii(line, ",\"uri\":");
+    writeJsonString(line, request.getRawUri());
+    writeAscii(line, ",\"status\":");
+    writeDecimal(line, outcome.getResponse().getStatus().getCode());
+    writeAscii(line, ",\"size\":");
+    String contentLength = outcome.getResponse().getHeaders().get(HttpHeaderConstants.CONTENT_LENGTH);
+    writeAscii(line, contentLength == null ? "null" : contentLength);
+    writeAscii(line, "}\n");
+  }
+
+  private byte[] formattedTime(long epochMillis) {
+    long second = Math.floorDiv(epochMillis, 1000);
+    FormattedTime current = formattedTime;
+    if (current.second != second) {
+      Instant instant = Instant.ofEpochSecond(second);
+      String formatted = format == Format.JSON ? ISO_TIME_FORMAT.format(instant) : COMMON_TIME_FORMAT.format(instant);
+      current = new FormattedTime(second, formatted.getBytes(US_ASCII));
+      formattedTime = current;
+    }
+    return current.bytes;
+  }
+
+  private static void writeAscii(ByteBuf line, CharSequence value) {
+    for (int i = 0; i < value.length(); ++i) {
+      char c = value.charAt(i);
+      line.writeByte(c >= 0x20 && c < 0x7f ? c : '?');
+    }
+  }
+
+  private static void writeJsonString(ByteBuf line, CharSequence value) {
+    line.writeByte('"');
+    for (int i = 0; i < value.length(); ++i) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        line.writeByte('\\');
+        line.writeByte(c);
+      } else if (c >= 0x20 && c < 0x7f) {
+        line.writeByte(c);
+      } else {
+        writeAscii(line, "\\u");
+        for (int shift = 12; shift >= 0; shift -= 4) {
+          line.writeByte(Character.forDigit((c >> shift) & 0xf, 16));
+        }
+      }
+    }
+    line.writeByte('"');
+  }
+
+  private static void writeDecimal(ByteBuf line, long value) {
+    if (value < 0) {
+      line.writeByte('-');
+      value = -value;
+    }
+    int start = line.writerIndex();
+    do {
+      line.writeByte((int) ('0' + value % 10));
+      value /= 10;
+    } while (value > 0);
+    for (int i = start, j = line.writerIndex() - 1; i < j; ++i, --j) {
+      byte b = line.getByte(i);
+      line.setByte(i, line.getByte(j));
+      line.setByte(j, b);
+    }
+  }
+
+  private FileChannel open() throws IOException {
+    if (file == null) {
+      return new FileOutputStream(FileDescriptor.out).getChannel();
+    } else {
+      Path parent = file.toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+  }
+
+  private class Writer implements Runnable {
+
+    private final ByteBuf[] batch = new ByteBuf[BATCH_SIZE];
+    private final ByteBuffer[] buffers = new ByteBuffer[BATCH_SIZE];
+
+    private FileChannel channel;
+    private long size;
+    private long openedAt;
+
+    Writer(FileChannel channel) throws IOException {
+      opened(channel);
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (running || !queue.isEmpty()) {
+          int count = poll();
+          if (count == 0) {
+            writerIdle = true;
+            if (running && queue.isEmpty()) {
+              LockSupport.park(this);
+            }
+            writerIdle = false;
+          } else {
+            write(count);
+          }
+        }
+      } finally {
+        writerStopped = true;
+        discardQueued();
+        close();
+      }
+    }
+
+    private int poll() {
+      int count = 0;
+      while (count < BATCH_SIZE) {
+        ByteBuf line = queue.poll();
+        if (line == null) {
+          break;
+        }
+        batch[count++] = line;
+      }
+      return count;
+    }
+
+    private void write(int count) {
+      long bytes = 0;
+      for (int i = 0; i < count; ++i) {
+        buffers[i] = batch[i].nioBuffer();
+        bytes += buffers[i].remaining();
+      }
+
+      try {
+        maybeRotate();
+        long remaining = bytes;
+        while (remaining > 0) {
+          remaining -= channel.write(buffers, 0, count);
+        }
+        size += bytes;
+        written.addAndGet(count);
+      } catch (IOException e) {
+        dropped.addAndGet(count);
+        LOGGER.warn("Failed to write access log", e);
+      } finally {
+        for (int i = 0; i < count; ++i) {
+          batch[i].release();
+          batch[i] = null;
+          buffers[i] = null;
+        }
+        pending.addAndGet(-count);
+      }
+    }
+
+    private void maybeRotate() throws IOException {
+      if (file != null && (size >= rotateAfterBytes || System.nanoTime() - openedAt >= rotateAfterNanos) && size > 0) {
+        channel.close();
+        try {
+          String rotatedName = file.getFileName() + "." + ROTATION_SUFFIX_FORMAT.format(Instant.now());
+          Path rotated = file.resolveSibling(rotatedName);
+          for (int i = 1; Files.exists(rotated); ++i) {
+            rotated = file.resolveSibling(rotatedName + "-" + i);
+          }
+          Files.move(file, rotated);
+        } catch (IOException e) {
+          LOGGER.warn("Failed to rotate access log " + file, e);
+        }
+        opened(open());
+      }
+    }
+
+    private void opened(FileChannel channel) throws IOException {
+      this.channel = channel;
+      this.size = file == null ? 0 : channel.size();
+      this.openedAt = System.nanoTime();
+    }
+
+    private void close() {
+      if (file != null) {
+        try {
+          channel.close();
+        } catch (IOException e) {
+          LOGGER.warn("Failed to close access log", e);
+        }
+      }
+    }
+  }
+
+}
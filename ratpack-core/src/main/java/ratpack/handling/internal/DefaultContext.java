@@ -16,6 +16,7 @@
 
 package ratpack.handling.internal;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.reflect.TypeToken;
 import io.netty.channel.EventLoop;
@@ -46,6 +47,7 @@ import ratpack.path.PathTokens;
 import ratpack.path.internal.DefaultPathTokens;
 import ratpack.registry.NotInRegistryException;
 import ratpack.registry.Registry;
+import ratpack.registry.internal.RegistryDispatchCache;
 import ratpack.render.NoSuchRendererException;
 import ratpack.render.internal.RenderController;
 import ratpack.server.ServerConfig;
@@ -67,6 +69,16 @@ public class DefaultContext implements Context {
   private static final TypeToken<Parser<?>> PARSER_TYPE_TOKEN = new TypeToken<Parser<?>>() {
   };
 
+  private static final RegistryDispatchCache<ParserKey, Parser<?>> PARSERS = new RegistryDispatchCache<>((registry, key) -> {
+    ImmutableList.Builder<Parser<?>> builder = ImmutableList.builder();
+    for (Parser<?> parser : registry.getAll(PARSER_TYPE_TOKEN)) {
+      if (parser.getContentType().equalsIgnoreCase(key.contentType) && parser.getOptsType().isAssignableFrom(key.optsType)) {
+        builder.add(parser);
+      }
+    }
+    return builder.build();
+  });
+
   private final static Logger LOGGER = LoggerFactory.getLogger(DefaultContext.class);
 
   public static class ApplicationConstants {
@@ -132,6 +144,7 @@ public class DefaultContext implements Context {
   }
 
   private final RequestConstants requestConstants;
+  private Object adapter;
 
   public static void start(EventLoop eventLoop, ExecControl execControl, final RequestConstants requestConstants, Registry registry, Handler[] handlers, Action<? super Execution> onComplete) {
     ChainIndex index = new ChainIndex(handlers, registry, true);
@@ -156,6 +169,27 @@ public class DefaultContext implements Context {
     this.requestConstants = requestConstants;
   }
 
+  /**
+   * Returns a view of this context of the given type, created by the given factory the first time it is requested.
+   * <p>
+   * Only the most recently created view is retained.
+   * This allows a language specific context (e.g. a Groovy context) to be created once per request instead of once per handler.
+   *
+   * @param type the type of view
+   * @param factory the factory for the view
+   * @param <T> the type of view
+   * @return the view
+   */
+  public <T> T adapt(Class<T> type, Function<? super Context, ? extends T> factory) {
+    if (type.isInstance(adapter)) {
+      return type.cast(adapter);
+    } else {
+      T adapted = Exceptions.uncheck(() -> factory.apply(this));
+      adapter = adapted;
+      return adapted;
+    }
+  }
+
   private Registry getRegistry() {
     return requestConstants.indexes.peek().registry;
   }
@@ -289,7 +323,7 @@ public class DefaultContext implements Context {
 
   public void render(Object object) throws NoSuchRendererException {
     try {
-      requestConstants.applicationConstants.renderController.render(object, this);
+      requestConstants.applicationConstants.renderController.render(object, this, getRegistry());
     } catch (NoSuchRendererException e) {
       throw e;
     } catch (Exception e) {
@@ -303,17 +337,51 @@ public class DefaultContext implements Context {
     if (requestContentType == null) {
       requestContentType = "text/plain";
     }
-    final String finalRequestContentType = requestContentType;
 
-    return getRegistry()
-      .first(PARSER_TYPE_TOKEN, parser -> {
-        if (parser.getContentType().equalsIgnoreCase(finalRequestContentType) && parser.getOptsType().isInstance(parse.getOpts())) {
-          Parser<O> cast = Types.cast(parser);
-          return cast.parse(DefaultContext.this, getRequest().getBody(), parse);
+    O opts = parse.getOpts();
+    if (opts != null) {
+      List<Parser<?>> parsers = PARSERS.getIfResolvable(getRegistry(), new ParserKey(requestContentType, opts.getClass()));
+      for (Parser<?> parser : parsers) {
+        Parser<O> cast = Types.cast(parser);
+        T parsed = cast.parse(this, getRequest().getBody(), parse);
+        if (parsed != null) {
+          return parsed;
         }
-        return null;
-      })
-      .orElseThrow(() -> new NoSuchParserException(parse.getType(), parse.getOpts(), finalRequestContentType));
+      }
+    }
+
+    throw new NoSuchParserException(parse.getType(), opts, requestContentType);
+  }
+
+  private static class ParserKey {
+    private final String contentType;
+    private final Class<?> optsType;
+
+    private ParserKey(String contentType, Class<?> optsType) {
+      this.contentType = contentType.toLowerCase(Locale.ENGLISH);
+      this.optsType = optsType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+
+      ParserKey that = (ParserKey) o;
+
+      return contentType.equals(that.contentType) && optsType.equals(that.optsType);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = contentType.hashCode();
+      result = 31 * result + optsType.hashCode();
+      return result;
+    }
   }
 
   @Override
@@ -440,11 +508,21 @@ public class DefaultContext implements Context {
     return getRegistry().get(type);
   }
 
+  @Override
+  public <O> Optional<O> maybeGet(Class<O> type) {
+    return getRegistry().maybeGet(type);
+  }
+
   @Override
   public <O> Optional<O> maybeGet(TypeToken<O> type) {
     return getRegistry().maybeGet(type);
   }
 
+  @Override
+  public <O> Iterable<? extends O> getAll(Class<O> type) {
+    return getRegistry().getAll(type);
+  }
+
   @Override
   public <O> Iterable<? extends O> getAll(TypeToken<O> type) {
     return getRegistry().getAll(type);
@@ -92,6 +92,8 @@ import java.util.concurrent.atomic.AtomicInteger;
  * Ratpack provides a default renderer for {@link HealthCheckResults} objects, that renders results as plain text one per line with the format:
  * <pre>{@code name : HEALTHY|UNHEALTHY [message] [exception]}</pre>
  * <p>
+ * If the result is {@link HealthCheckResults#getStale() stale}, {@code [STALE]} is appended.
+ * <p>
  * To change the output format, simply add your own renderer for this type to the registry.
  *
  * <h3>Concurrency</h3>
@@ -100,6 +102,12 @@ import java.util.concurrent.atomic.AtomicInteger;
  * By default, an {@link Throttle#unlimited() unlimited throttle} is used.
  * A sized throttle can be exlicit given to the constructor.
  *
+ * <h3>Scheduled health checks</h3>
+ * <p>
+ * If a {@link ScheduledHealthChecks} is present in the context registry, the checks are not executed by this handler.
+ * Instead, the most recent results of the scheduled checks are rendered (immediately).
+ * This is recommended when health is requested frequently, such as by load balancers.
+ *
  * <h3>Rendering single health checks</h3>
  * <p>
  * The handler checks for the presence of a {@link Context#getPathTokens() path token} to indicate the name of an individual check to execute.
@@ -205,7 +213,17 @@ public class HealthCheckHandler implements Handler {
 
     try {
       String checkName = ctx.getPathTokens().get(name);
-      if (checkName != null) {
+      Optional<ScheduledHealthChecks> scheduledHealthChecks = ctx.maybeGet(ScheduledHealthChecks.class);
+      if (scheduledHealthChecks.isPresent()) {
+        HealthCheckResults results = scheduledHealthChecks.get().getResults();
+        if (checkName == null) {
+          ctx.render(results);
+        } else if (results.getResults().containsKey(checkName)) {
+          ctx.render(only(results, checkName));
+        } else {
+          ctx.clientError(404);
+        }
+      } else if (checkName != null) {
         Optional<HealthCheck> first = ctx.first(HEALTH_CHECK_TYPE_TOKEN, healthCheck -> healthCheck.getName().equals(checkName) ? healthCheck : null);
         if (first.isPresent()) {
           ctx.render(execute(ctx, ctx, Collections.singleton(first.get())));
@@ -220,6 +238,14 @@ public class HealthCheckHandler implements Handler {
     }
   }
 
+  private static HealthCheckResults only(HealthCheckResults results, String checkName) {
+    return new HealthCheckResults(
+      results.getResults().subMap(checkName, true, checkName, true),
+      results.getCheckedAt().subMap(checkName, true, checkName, true),
+      results.getStale().subSet(checkName, true, checkName, true)
+    );
+  }
+
   private Promise<HealthCheck.Result> execute(ExecControl execControl, Registry registry, HealthCheck healthCheck) {
     return execControl.wrap(() -> healthCheck.check(execControl, registry)).mapError(HealthCheck.Result::unhealthy);
   }
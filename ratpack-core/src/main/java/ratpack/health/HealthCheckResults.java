@@ -17,6 +17,9 @@
 package ratpack.health;
 
 import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.ImmutableSortedSet;
+
+import java.time.Instant;
 
 /**
  * A value type representing the result of running multiple health checks.
@@ -26,14 +29,30 @@ import com.google.common.collect.ImmutableSortedMap;
 public class HealthCheckResults {
 
   private final ImmutableSortedMap<String, HealthCheck.Result> results;
+  private final ImmutableSortedMap<String, Instant> checkedAt;
+  private final ImmutableSortedSet<String> stale;
 
   /**
-   * Constructor.
+   * Constructor, for results that were just checked.
    *
    * @param results the results
    */
   public HealthCheckResults(ImmutableSortedMap<String, HealthCheck.Result> results) {
+    this(results, ImmutableSortedMap.of(), ImmutableSortedSet.of());
+  }
+
+  /**
+   * Constructor, for results that were checked previously.
+   *
+   * @param results the results
+   * @param checkedAt when each result was produced
+   * @param stale the names of the checks whose results are stale
+   * @see ScheduledHealthChecks
+   */
+  public HealthCheckResults(ImmutableSortedMap<String, HealthCheck.Result> results, ImmutableSortedMap<String, Instant> checkedAt, ImmutableSortedSet<String> stale) {
     this.results = results;
+    this.checkedAt = checkedAt;
+    this.stale = stale;
   }
 
   /**
@@ -44,4 +63,25 @@ public class HealthCheckResults {
   public ImmutableSortedMap<String, HealthCheck.Result> getResults() {
     return results;
   }
+
+  /**
+   * When each result was produced, for results that were not checked as part of producing this object.
+   * <p>
+   * Empty when the checks were run in order to produce these results.
+   *
+   * @return when each result was produced
+   */
+  public ImmutableSortedMap<String, Instant> getCheckedAt() {
+    return checkedAt;
+  }
+
+  /**
+   * The names of the checks whose results are out of date, because the check has not completed recently enough.
+   *
+   * @return the names of the checks whose results are stale
+   * @see ScheduledHealthChecks
+   */
+  public ImmutableSortedSet<String> getStale() {
+    return stale;
+  }
 }
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ratpack.health;
+
+import ratpack.func.Action;
+import ratpack.health.internal.DefaultScheduledHealthChecks;
+import ratpack.server.Service;
+
+import java.time.Duration;
+
+/**
+ * Runs the {@link HealthCheck health checks} of the server registry periodically in the background, caching the results.
+ * <p>
+ * When added to the server registry, the {@link HealthCheckHandler} serves the cached results instead of running the checks for each request.
+ * This decouples the load placed on the checked components from how often health is requested (e.g. by load balancers),
+ * and prevents a slow or hanging check from slowing down or hanging health requests.
+ * <pre class="java">{@code
+ * import ratpack.exec.ExecControl;
+ * import ratpack.health.HealthCheck;
+ * import ratpack.health.HealthCheckHandler;
+ * import ratpack.health.ScheduledHealthChecks;
+ * import ratpack.test.embed.EmbeddedApp;
+ *
+ * import java.time.Duration;
+ *
+ * import static org.junit.Assert.*;
+ *
+ * public class Example {
+ *   public static void main(String... args) throws Exception {
+ *     EmbeddedApp.of(s -> s
+ *       .registryOf(r -> r
+ *         .add(HealthCheck.of("example", (execControl, registry) -> execControl.promiseOf(HealthCheck.Result.healthy())))
+ *         .add(ScheduledHealthChecks.of(c -> c.interval(Duration.ofSeconds(5)).timeout(Duration.ofSeconds(1))))
+ *       )
+ *       .handlers(c -> c
+ *         .get("health/:name?", new HealthCheckHandler())
+ *       )
+ *     ).test(httpClient -> {
+ *       assertEquals("example : HEALTHY", httpClient.getText("health"));
+ *     });
+ *   }
+ * }
+ * }</pre>
+ * <p>
+ * All checks are run once when the server starts, before it starts accepting requests, and then every {@link Spec#interval(Duration) interval}.
+ * A check that does not complete within its {@link Spec#timeout(Duration) timeout} is recorded as unhealthy, with a {@link java.util.concurrent.TimeoutException}.
+ * A check is not started again while a previous run of it is still in progress.
+ * <p>
+ * A result is reported as {@link HealthCheckResults#getStale() stale} if the check has not produced a result for longer than its interval plus its timeout,
+ * which happens when a check hangs.
+ */
+public interface ScheduledHealthChecks extends Service {
+
+  /**
+   * Creates scheduled health checks, using the default interval and timeout.
+   *
+   * @return scheduled health checks
+   */
+  static ScheduledHealthChecks of() {
+    return new DefaultScheduledHealthChecks();
+  }
+
+  /**
+   * Creates scheduled health checks, configured by the given action.
+   *
+   * @param spec the configuration
+   * @return scheduled health checks
+   * @throws Exception any thrown by {@code spec}
+   */
+  static ScheduledHealthChecks of(Action<? super Spec> spec) throws Exception {
+    return new DefaultScheduledHealthChecks(spec);
+  }
+
+  /**
+   * The most recent result of each health check.
+   * <p>
+   * Checks that have not produced a result yet are reported as unhealthy and stale.
+   *
+   * @return the most recent result of each health check
+   */
+  HealthCheckResults getResults();
+
+  /**
+   * The scheduling configuration.
+   */
+  interface Spec {
+
+    /**
+     * The default time between the start of successive runs of a check.
+     * <p>
+     * Defaults to 10 seconds.
+     *
+     * @param interval the interval
+     * @return this
+     */
+    Spec interval(Duration interval);
+
+    /**
+     * The default time a check is allowed to take.
+     * <p>
+     * Defaults to 5 seconds.
+     *
+     * @param timeout the timeout
+     * @return this
+     */
+    Spec timeout(Duration timeout);
+
+    /**
+     * The time between the start of successive runs of the named check.
+     *
+     * @param name the name of the health check
+     * @param interval the interval
+     * @return this
+     */
+    Spec interval(String name, Duration interval);
+
+    /**
+     * The time the named check is allowed to take.
+     *
+     * @param name the name of the health check
+     * @param timeout the timeout
+     * @return this
+     */
+    Spec timeout(String name, Duration timeout);
+
+  }
+
+}
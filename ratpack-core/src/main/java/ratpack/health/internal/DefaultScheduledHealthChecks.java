@@ -0,0 +1,231 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ratpack.health.internal;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Maps;
+import ratpack.exec.ExecControl;
+import ratpack.exec.ExecController;
+import ratpack.func.Action;
+import ratpack.health.HealthCheck;
+import ratpack.health.HealthCheckResults;
+import ratpack.health.ScheduledHealthChecks;
+import ratpack.registry.Registry;
+import ratpack.server.StartEvent;
+import ratpack.server.StopEvent;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+public class DefaultScheduledHealthChecks implements ScheduledHealthChecks {
+
+  private static final HealthCheck.Result NOT_YET_CHECKED = HealthCheck.Result.unhealthy("Not yet checked");
+
+  private final Duration interval;
+  private final Duration timeout;
+  private final Map<String, Duration> intervals;
+  private final Map<String, Duration> timeouts;
+
+  private volatile ImmutableMap<String, ScheduledCheck> checks = ImmutableMap.of();
+  private volatile ImmutableList<ScheduledFuture<?>> schedules = ImmutableList.of();
+
+  private static class SpecImpl implements Spec {
+    private Duration interval = Duration.ofSeconds(10);
+    private Duration timeout = Duration.ofSeconds(5);
+    private final Map<String, Duration> intervals = Maps.newHashMap();
+    private final Map<String, Duration> timeouts = Maps.newHashMap();
+
+    @Override
+    public Spec interval(Duration interval) {
+      this.interval = interval;
+      return this;
+    }
+
+    @Override
+    public Spec timeout(Duration timeout) {
+      this.timeout = timeout;
+      return this;
+    }
+
+    @Override
+    public Spec interval(String name, Duration interval) {
+      intervals.put(name, interval);
+      return this;
+    }
+
+    @Override
+    public Spec timeout(String name, Duration timeout) {
+      timeouts.put(name, timeout);
+      return this;
+    }
+  }
+
+  private static class CachedResult {
+    final HealthCheck.Result result;
+    final Instant checkedAt;
+    final long checkedAtNanos;
+
+    CachedResult(HealthCheck.Result result) {
+      this.result = result;
+      this.checkedAt = Instant.now();
+      this.checkedAtNanos = System.nanoTime();
+    }
+  }
+
+  private static class ScheduledCheck {
+    final HealthCheck healthCheck;
+    final Duration interval;
+    final Duration timeout;
+    final AtomicBoolean running = new AtomicBoolean();
+    volatile CachedResult latest;
+
+    ScheduledCheck(HealthCheck healthCheck, Duration interval, Duration timeout) {
+      this.healthCheck = healthCheck;
+      this.interval = interval;
+      this.timeout = timeout;
+    }
+
+    boolean isStale(long now) {
+      return now - latest.checkedAtNanos > interval.plus(timeout).toNanos();
+    }
+  }
+
+  public DefaultScheduledHealthChecks() {
+    this(new SpecImpl());
+  }
+
+  public DefaultScheduledHealthChecks(Action<? super Spec> action) throws Exception {
+    this(Action.with(new SpecImpl(), action));
+  }
+
+  private DefaultScheduledHealthChecks(SpecImpl spec) {
+    this.interval = spec.interval;
+    this.timeout = spec.timeout;
+    this.intervals = ImmutableMap.copyOf(spec.intervals);
+    this.timeouts = ImmutableMap.copyOf(spec.timeouts);
+  }
+
+  @Override
+  public HealthCheckResults getResults() {
+    long now = System.nanoTime();
+    ImmutableSortedMap.Builder<String, HealthCheck.Result> results = ImmutableSortedMap.naturalOrder();
+    ImmutableSortedMap.Builder<String, Instant> checkedAt = ImmutableSortedMap.naturalOrder();
+    ImmutableSortedSet.Builder<String> stale = ImmutableSortedSet.naturalOrder();
+    checks.forEach((name, check) -> {
+      CachedResult latest = check.latest;
+      if (latest == null) {
+        results.put(name, NOT_YET_CHECKED);
+        stale.add(name);
+      } else {
+        results.put(name, latest.result);
+        checkedAt.put(name, latest.checkedAt);
+        if (check.isStale(now)) {
+          stale.add(name);
+        }
+      }
+    });
+    return new HealthCheckResults(results.build(), checkedAt.build(), stale.build());
+  }
+
+  @Override
+  public synchronized void onStart(StartEvent event) throws Exception {
+    Registry registry = event.getRegistry();
+    ExecControl execControl = event.getExecControl();
+    ExecController execController = execControl.getController();
+
+    Map<String, ScheduledCheck> checks = Maps.newLinkedHashMap();
+    for (HealthCheck healthCheck : registry.getAll(HealthCheck.class)) {
+      String name = healthCheck.getName();
+      if (!checks.containsKey(name)) {
+        checks.put(name, new ScheduledCheck(healthCheck, intervals.getOrDefault(name, interval), timeouts.getOrDefault(name, timeout)));
+      }
+    }
+    this.checks = ImmutableMap.copyOf(checks);
+
+    ImmutableList.Builder<ScheduledFuture<?>> schedules = ImmutableList.builder();
+    for (ScheduledCheck check : checks.values()) {
+      long intervalNanos = check.interval.toNanos();
+      schedules.add(execController.getExecutor().scheduleAtFixedRate(() -> run(execController, registry, check, () -> {}), intervalNanos, intervalNanos, TimeUnit.NANOSECONDS));
+    }
+    this.schedules = schedules.build();
+
+    if (!checks.isEmpty()) {
+      execControl.<Void>promise(f -> {
+        AtomicInteger remaining = new AtomicInteger(checks.size());
+        for (ScheduledCheck check : checks.values()) {
+          run(execController, registry, check, () -> {
+            if (remaining.decrementAndGet() == 0) {
+              f.success(null);
+            }
+          });
+        }
+      }).then(Action.noop());
+    }
+  }
+
+  @Override
+  public synchronized void onStop(StopEvent event) throws Exception {
+    schedules.forEach(schedule -> schedule.cancel(false));
+    schedules = ImmutableList.of();
+  }
+
+  private void run(ExecController execController, Registry registry, ScheduledCheck check, Runnable onResult) {
+    if (!check.running.compareAndSet(false, true)) {
+      onResult.run();
+      return;
+    }
+
+    AtomicBoolean recorded = new AtomicBoolean();
+    Consumer<HealthCheck.Result> record = result -> {
+      if (recorded.compareAndSet(false, true)) {
+        check.latest = new CachedResult(result);
+        onResult.run();
+      }
+    };
+
+    ScheduledFuture<?> timeout = execController.getExecutor().schedule(() ->
+        record.accept(HealthCheck.Result.unhealthy(new TimeoutException("Health check did not complete within " + check.timeout))),
+      check.timeout.toNanos(), TimeUnit.NANOSECONDS
+    );
+
+    execController.getControl().fork()
+      .onError(error -> record.accept(HealthCheck.Result.unhealthy(error)))
+      .onComplete(execution -> {
+        if (recorded.get()) {
+          timeout.cancel(false);
+        }
+        check.running.set(false);
+      })
+      .start(execution ->
+          execution.wrap(() -> check.healthCheck.check(execution, registry))
+            .mapError(HealthCheck.Result::unhealthy)
+            .then(record::accept)
+      );
+  }
+
+}
@@ -37,6 +37,9 @@ public class HealthCheckResultsRenderer extends RendererSupport<HealthCheckResul
           builder.append(" [").append(result.getError().toString()).append("]");
         }
       }
+      if (healthCheckResults.getStale().contains(name)) {
+        builder.append(" [STALE]");
+      }
     });
 
     context.getResponse().send(builder.toString());
@@ -17,13 +17,17 @@
 package ratpack.http.client;
 
 import io.netty.buffer.ByteBufAllocator;
+import ratpack.api.Nullable;
 import ratpack.exec.ExecController;
 import ratpack.exec.Promise;
 import ratpack.func.Action;
 import ratpack.http.client.internal.DefaultHttpClient;
+import ratpack.http.client.internal.SSLEngineFactory;
 import ratpack.registry.Registry;
 import ratpack.server.ServerConfig;
 
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
 import java.net.URI;
 
 /**
@@ -108,6 +112,22 @@ public interface HttpClient {
     return new DefaultHttpClient(execController, byteBufAllocator, maxContentLengthBytes);
   }
 
+  /**
+   * A method to create an instance of the default implementation of HttpClient, that uses the given SSL configuration for HTTPS requests.
+   * <p>
+   * A new engine is created for each connection from the shared SSL context, keyed by the peer host and port so that TLS sessions can be resumed by later connections to the same server.
+   *
+   * @param execController The ExecController used while making the requests.
+   * @param byteBufAllocator What ByteBufAllocator to use with the underlying Netty request.
+   * @param maxContentLengthBytes The max content length of a response to support.
+   * @param sslContext The SSL context to use for HTTPS requests, or {@code null} to use {@link SSLContext#getDefault()}.
+   * @param sslParameters The SSL parameters (e.g. enabled protocols and cipher suites) to apply to each connection, or {@code null} to use the context's defaults.
+   * @return An instance of a HttpClient
+   */
+  public static HttpClient httpClient(ExecController execController, ByteBufAllocator byteBufAllocator, int maxContentLengthBytes, @Nullable SSLContext sslContext, @Nullable SSLParameters sslParameters) {
+    return new DefaultHttpClient(execController, byteBufAllocator, maxContentLengthBytes, new SSLEngineFactory(sslContext, sslParameters));
+  }
+
   /**
    * An asynchronous method to do a GET HTTP request, the URL and all details of the request are configured by the Action acting on the RequestSpec, but the method will be defaulted to a GET.
    *
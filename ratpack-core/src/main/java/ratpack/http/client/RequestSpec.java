@@ -17,6 +17,7 @@
 package ratpack.http.client;
 
 import io.netty.buffer.ByteBuf;
+import org.reactivestreams.Publisher;
 import ratpack.func.Action;
 import ratpack.http.MutableHeaders;
 
@@ -65,6 +66,54 @@ public interface RequestSpec {
 
   RequestSpec readTimeout(Duration duration);
 
+  default RequestSpec connectTimeoutSeconds(int seconds) {
+    return connectTimeout(Duration.of(seconds, SECONDS));
+  }
+
+  /**
+   * The time allowed to establish the connection to the server.
+   * <p>
+   * Defaults to 30 seconds.
+   * Host name resolution is not included; it is performed without blocking the event loop, and cached.
+   *
+   * @param duration the connect timeout
+   * @return this
+   */
+  RequestSpec connectTimeout(Duration duration);
+
+  default RequestSpec totalTimeoutSeconds(int seconds) {
+    return totalTimeout(Duration.of(seconds, SECONDS));
+  }
+
+  /**
+   * The overall time allowed for the request, including resolving, connecting and following any redirects.
+   * <p>
+   * If the response has not been received by the deadline, the connection is closed and the request fails with a {@link java.util.concurrent.TimeoutException}.
+   * For a {@link HttpClient#requestStream streamed} response, the deadline applies until the response status and headers have been received.
+   * <p>
+   * By default, there is no overall timeout.
+   *
+   * @param duration the overall timeout
+   * @return this
+   */
+  RequestSpec totalTimeout(Duration duration);
+
+  /**
+   * Whether compressed responses should be transparently decompressed.
+   * <p>
+   * Defaults to {@code true}.
+   * When enabled, an {@code "Accept-Encoding: gzip,deflate"} header is sent unless the request already specifies an {@code "Accept-Encoding"} header,
+   * and response bodies encoded with either scheme are decoded before being made available.
+   * The {@code "Content-Encoding"} header is removed from decoded responses.
+   * <p>
+   * Disable this when the response is to be forwarded as is (e.g. when proxying),
+   * so that the compressed content is not decoded only to be sent uncompressed.
+   *
+   * @param decompressResponse whether to decompress compressed responses
+   * @return this
+   */
+  RequestSpec decompressResponse(boolean decompressResponse);
+
   /**
    * The body of the request, used for specifying the body content.
    *
@@ -119,6 +168,25 @@ public interface RequestSpec {
      */
     Body stream(Action<? super OutputStream> action) throws Exception;
 
+    /**
+     * Specifies the request body as a stream of byte buffers.
+     * <p>
+     * Unlike the other methods of this interface, the body content is streamed to the server as it is produced,
+     * using {@code "Transfer-Encoding: chunked"} unless a {@code "Content-Length"} header has been explicitly set.
+     * The publisher is subscribed to once the connection has been established,
+     * and more content is only requested while the connection is able to accept more writes.
+     * This allows large bodies (e.g. an upload being proxied) to be sent without holding the whole body in memory.
+     * <p>
+     * The publisher is subscribed to once per request, including any requests that result from following redirects.
+     * If the publisher cannot be subscribed to more than once, {@link RequestSpec#redirects(int) disable redirects}.
+     * <p>
+     * The emitted byte buffers are released after being written.
+     *
+     * @param publisher the publisher of the request body content
+     * @return this
+     */
+    Body publisher(Publisher<? extends ByteBuf> publisher);
+
     /**
      * Specifies the request body as a byte buffer.
      * <p>
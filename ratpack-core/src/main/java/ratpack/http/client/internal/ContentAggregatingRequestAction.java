@@ -38,8 +38,8 @@ class ContentAggregatingRequestAction extends RequestActionSupport<ReceivedRespo
 
   private final int maxContentLengthBytes;
 
-  public ContentAggregatingRequestAction(Action<? super RequestSpec> requestConfigurer, URI uri, Execution execution, ByteBufAllocator byteBufAllocator, int maxContentLengthBytes) {
-    super(requestConfigurer, uri, execution, byteBufAllocator);
+  public ContentAggregatingRequestAction(Action<? super RequestSpec> requestConfigurer, URI uri, Execution execution, ByteBufAllocator byteBufAllocator, SSLEngineFactory sslEngineFactory, HostResolver hostResolver, int maxContentLengthBytes) {
+    super(requestConfigurer, uri, execution, byteBufAllocator, sslEngineFactory, hostResolver);
     this.maxContentLengthBytes = maxContentLengthBytes;
   }
 
@@ -68,7 +68,7 @@ class ContentAggregatingRequestAction extends RequestActionSupport<ReceivedRespo
 
   @Override
   protected RequestActionSupport<ReceivedResponse> buildRedirectRequestAction(Action<? super RequestSpec> redirectRequestConfig, URI locationUrl) {
-    return new ContentAggregatingRequestAction(redirectRequestConfig, locationUrl, execution, byteBufAllocator, maxContentLengthBytes);
+    return new ContentAggregatingRequestAction(redirectRequestConfig, locationUrl, execution, byteBufAllocator, sslEngineFactory, hostResolver, maxContentLengthBytes);
   }
 
   private static ByteBuf initBufferReleaseOnExecutionClose(final ByteBuf responseBuffer, Execution execution) {
@@ -20,8 +20,10 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoop;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpObject;
 import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.LastHttpContent;
 import org.reactivestreams.Publisher;
@@ -43,6 +45,8 @@ import ratpack.stream.Streams;
 import ratpack.stream.TransformablePublisher;
 
 import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static ratpack.util.Exceptions.uncheck;
@@ -50,30 +54,44 @@ import static ratpack.util.Exceptions.uncheck;
 class ContentStreamingRequestAction extends RequestActionSupport<StreamedResponse> {
   private final AtomicBoolean subscribedTo = new AtomicBoolean();
 
-  public ContentStreamingRequestAction(Action<? super RequestSpec> requestConfigurer, URI uri, Execution execution, ByteBufAllocator byteBufAllocator) {
-    super(requestConfigurer, uri, execution, byteBufAllocator);
+  // content read from the channel but not yet emitted, confined to the channel's event loop
+  private final Deque<HttpContent> received = new ArrayDeque<>();
+
+  public ContentStreamingRequestAction(Action<? super RequestSpec> requestConfigurer, URI uri, Execution execution, ByteBufAllocator byteBufAllocator, SSLEngineFactory sslEngineFactory, HostResolver hostResolver) {
+    super(requestConfigurer, uri, execution, byteBufAllocator, sslEngineFactory, hostResolver);
   }
 
   @Override
   protected RequestActionSupport<StreamedResponse> buildRedirectRequestAction(Action<? super RequestSpec> redirectRequestConfig, URI locationUrl) {
-    return new ContentStreamingRequestAction(redirectRequestConfig, locationUrl, execution, byteBufAllocator);
+    return new ContentStreamingRequestAction(redirectRequestConfig, locationUrl, execution, byteBufAllocator, sslEngineFactory, hostResolver);
   }
 
   @Override
   protected void addResponseHandlers(ChannelPipeline p, Fulfiller<? super StreamedResponse> fulfiller) {
-    p.addLast("httpResponseHandler", new SimpleChannelInboundHandler<HttpResponse>(false) {
+    p.addLast("httpResponseHandler", new SimpleChannelInboundHandler<HttpObject>(false) {
       @Override
-      public void channelRead0(ChannelHandlerContext ctx, HttpResponse msg) throws Exception {
+      public void channelRead0(ChannelHandlerContext ctx, HttpObject msg) throws Exception {
+        if (msg instanceof HttpContent) {
+          // Content decoded in the same read as the response, before the body has been subscribed to
+          received.add((HttpContent) msg);
+          return;
+        }
+
+        HttpResponse response = (HttpResponse) msg;
+
         // Switch auto reading off so we can control the flow of response content
         p.channel().config().setAutoRead(false);
         execution.onCleanup(() -> {
-          if (!subscribedTo.get() && ctx.channel().isOpen()) {
-            ctx.close();
+          if (!subscribedTo.get()) {
+            ctx.channel().eventLoop().execute(ContentStreamingRequestAction.this::releaseReceived);
+            if (ctx.channel().isOpen()) {
+              ctx.close();
+            }
           }
         });
 
-        final Headers headers = new NettyHeadersBackedHeaders(msg.headers());
-        final Status status = new DefaultStatus(msg.status());
+        final Headers headers = new NettyHeadersBackedHeaders(response.headers());
+        final Status status = new DefaultStatus(response.status());
 
         success(fulfiller, new DefaultStreamedResponse(p, status, headers));
       }
@@ -86,6 +104,14 @@ class ContentStreamingRequestAction extends RequestActionSupport<StreamedRespons
     });
   }
 
+  private void releaseReceived() {
+    HttpContent content = received.poll();
+    while (content != null) {
+      content.release();
+      content = received.poll();
+    }
+  }
+
   private class DefaultStreamedResponse implements StreamedResponse {
     private final ChannelPipeline channelPipeline;
     private final Status status;
@@ -137,11 +163,23 @@ class ContentStreamingRequestAction extends RequestActionSupport<StreamedRespons
     }
   }
 
+  /**
+   * Publishes the response content as it is read from the channel.
+   * <p>
+   * The channel is only read from when there is outstanding demand, so a slow consumer holds back the server.
+   * The content buffers are emitted as read from the channel, without copying.
+   * A single read may produce more content than was requested, in which case the excess is held until requested.
+   * All state is confined to the channel's event loop.
+   */
   private class HttpContentPublisher implements Publisher<ByteBuf> {
     private Subscriber<? super ByteBuf> subscriber;
     private final ChannelPipeline channelPipeline;
     private final AtomicBoolean stopped = new AtomicBoolean();
 
+    private long demand;
+    private boolean reading;
+    private boolean draining;
+
     public HttpContentPublisher(ChannelPipeline p) {
       this.channelPipeline = p;
     }
@@ -155,16 +193,25 @@ class ContentStreamingRequestAction extends RequestActionSupport<StreamedRespons
       channelPipeline.addLast("httpContentHandler", new SimpleChannelInboundHandler<HttpContent>(false) {
         @Override
         public void channelRead0(ChannelHandlerContext ctx, HttpContent msg) throws Exception {
-          subscriber.onNext(msg.content());
-
-          if (msg instanceof LastHttpContent && stopped.compareAndSet(false, true)) {
-            subscriber.onComplete();
+          if (stopped.get()) {
+            msg.release();
+          } else {
+            received.add(msg);
+            drain();
           }
         }
 
+        @Override
+        public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+          reading = false;
+          readIfDemanded();
+          ctx.fireChannelReadComplete();
+        }
+
         @Override
         public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
           if (stopped.compareAndSet(false, true)) {
+            releaseReceived();
             subscriber.onError(cause);
           }
 
@@ -181,24 +228,68 @@ class ContentStreamingRequestAction extends RequestActionSupport<StreamedRespons
             throw new IllegalArgumentException("3.9 While the Subscription is not cancelled, Subscription.request(long n) MUST throw a java.lang.IllegalArgumentException if the argument is <= 0.");
           }
 
-          if (!stopped.get()) {
-            if (n == Long.MAX_VALUE) {
-              channelPipeline.channel().config().setAutoRead(true);
-            } else {
-              for (int i = 0; i < n; i++) {
-                channelPipeline.channel().read();
-              }
-            }
-          }
+          onEventLoop(() -> {
+            demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            drain();
+            readIfDemanded();
+          });
         }
 
         @Override
         public void cancel() {
           stopped.set(true);
+          onEventLoop(ContentStreamingRequestAction.this::releaseReceived);
           channelPipeline.channel().close();
         }
       });
     }
+
+    private void drain() {
+      if (draining) {
+        return;
+      }
+      draining = true;
+      try {
+        while (!stopped.get() && !received.isEmpty()) {
+          HttpContent next = received.peek();
+          boolean last = next instanceof LastHttpContent;
+          boolean empty = !next.content().isReadable();
+          if (demand == 0 && !(last && empty)) {
+            return;
+          }
+
+          received.poll();
+          if (empty) {
+            next.release();
+          } else {
+            --demand;
+            subscriber.onNext(next.content());
+          }
+
+          if (last && stopped.compareAndSet(false, true)) {
+            subscriber.onComplete();
+          }
+        }
+      } finally {
+        draining = false;
+      }
+    }
+
+    private void readIfDemanded() {
+      if (!stopped.get() && !reading && demand > 0 && received.isEmpty()) {
+        reading = true;
+        channelPipeline.channel().read();
+      }
+    }
+
+    private void onEventLoop(Runnable runnable) {
+      EventLoop eventLoop = channelPipeline.channel().eventLoop();
+      if (eventLoop.inEventLoop()) {
+        runnable.run();
+      } else {
+        eventLoop.execute(runnable);
+      }
+    }
   }
 
 }
@@ -36,11 +36,19 @@ public class DefaultHttpClient implements HttpClient {
   private final ExecController execController;
   private final ByteBufAllocator byteBufAllocator;
   private final int maxContentLengthBytes;
+  private final SSLEngineFactory sslEngineFactory;
+  private final HostResolver hostResolver;
 
   public DefaultHttpClient(ExecController execController, ByteBufAllocator byteBufAllocator, int maxContentLengthBytes) {
+    this(execController, byteBufAllocator, maxContentLengthBytes, SSLEngineFactory.DEFAULT);
+  }
+
+  public DefaultHttpClient(ExecController execController, ByteBufAllocator byteBufAllocator, int maxContentLengthBytes, SSLEngineFactory sslEngineFactory) {
     this.execController = execController;
     this.byteBufAllocator = byteBufAllocator;
     this.maxContentLengthBytes = maxContentLengthBytes;
+    this.sslEngineFactory = sslEngineFactory;
+    this.hostResolver = new HostResolver(execController.getBlockingExecutor());
   }
 
   @Override
@@ -66,7 +74,7 @@ public class DefaultHttpClient implements HttpClient {
     final Execution execution = execControl.getExecution();
 
     try {
-      ContentAggregatingRequestAction requestAction = new ContentAggregatingRequestAction(requestConfigurer, uri, execution, byteBufAllocator, maxContentLengthBytes);
+      ContentAggregatingRequestAction requestAction = new ContentAggregatingRequestAction(requestConfigurer, uri, execution, byteBufAllocator, sslEngineFactory, hostResolver, maxContentLengthBytes);
       return execController.getControl().promise(requestAction);
     } catch (Exception e) {
       throw uncheck(e);
@@ -79,7 +87,7 @@ public class DefaultHttpClient implements HttpClient {
     final Execution execution = execControl.getExecution();
 
     try {
-      ContentStreamingRequestAction requestAction = new ContentStreamingRequestAction(requestConfigurer, uri, execution, byteBufAllocator);
+      ContentStreamingRequestAction requestAction = new ContentStreamingRequestAction(requestConfigurer, uri, execution, byteBufAllocator, sslEngineFactory, hostResolver);
       return execController.getControl().promise(requestAction);
     } catch (Exception e) {
       throw uncheck(e);
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ratpack.http.client.internal;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.net.InetAddresses;
+
+import java.net.InetAddress;
+import java.security.Security;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Resolves host names without blocking the calling thread, caching the results.
+ * <p>
+ * Lookups are performed by the JDK resolver on the given (blocking) executor.
+ * Concurrent lookups of the same host share a single lookup.
+ * Successful lookups are cached for the JVM's configured DNS cache TTL (the {@code networkaddress.cache.ttl} security property),
+ * or 30 seconds if it is not set. Failed lookups are not cached.
+ */
+class HostResolver {
+
+  private static final String TTL_PROPERTY = "networkaddress.cache.ttl";
+  private static final Duration DEFAULT_TTL = Duration.ofSeconds(30);
+  private static final int MAX_HOSTS = 1024;
+
+  private final Executor executor;
+  private final long ttlNanos;
+  private final ConcurrentMap<String, Entry> cache = CacheBuilder.newBuilder().maximumSize(MAX_HOSTS).<String, Entry>build().asMap();
+
+  private static class Entry {
+    final long resolvedAt;
+    final CompletableFuture<InetAddress> address = new CompletableFuture<>();
+
+    Entry(long resolvedAt) {
+      this.resolvedAt = resolvedAt;
+    }
+  }
+
+  HostResolver(Executor executor) {
+    this(executor, defaultTtl());
+  }
+
+  HostResolver(Executor executor, Duration ttl) {
+    this.executor = executor;
+    this.ttlNanos = ttl.isNegative() ? Long.MAX_VALUE : ttl.toNanos();
+  }
+
+  CompletableFuture<InetAddress> resolve(String host) {
+    if (host.startsWith("[") && host.endsWith("]")) {
+      host = host.substring(1, host.length() - 1);
+    }
+    if (InetAddresses.isInetAddress(host)) {
+      return CompletableFuture.completedFuture(InetAddresses.forString(host));
+    }
+
+    while (true) {
+      long now = System.nanoTime();
+      Entry existing = cache.get(host);
+      if (existing != null && now - existing.resolvedAt < ttlNanos) {
+        return existing.address;
+      }
+
+      Entry entry = new Entry(now);
+      boolean won = existing == null ? cache.putIfAbsent(host, entry) == null : cache.replace(host, existing, entry);
+      if (won) {
+        lookup(host, entry);
+        return entry.address;
+      }
+    }
+  }
+
+  private void lookup(String host, Entry entry) {
+    executor.execute(() -> {
+      try {
+        entry.address.complete(InetAddress.getByName(host));
+      } catch (Throwable t) {
+        cache.remove(host, entry);
+        entry.address.completeExceptionally(t);
+      }
+    });
+  }
+
+  private static Duration defaultTtl() {
+    String value = Security.getProperty(TTL_PROPERTY);
+    if (value != null) {
+      try {
+        return Duration.ofSeconds(Long.parseLong(value.trim()));
+      } catch (NumberFormatException ignore) {
+        // fall through to the default
+      }
+    }
+    return DEFAULT_TTL;
+  }
+
+}
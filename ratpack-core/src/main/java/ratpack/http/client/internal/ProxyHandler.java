@@ -0,0 +1,108 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ratpack.http.client.internal;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableSet;
+import io.netty.buffer.ByteBuf;
+import ratpack.handling.Context;
+import ratpack.handling.Handler;
+import ratpack.http.Headers;
+import ratpack.http.MutableHeaders;
+import ratpack.http.Request;
+import ratpack.http.client.HttpClient;
+
+import java.net.URI;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Forwards requests to an upstream server, streaming the upstream response back.
+ * <p>
+ * The upstream connection is made on the event loop of the request being proxied,
+ * so response content is handed from the upstream channel to the downstream channel without crossing threads or being copied.
+ * The upstream channel is only read from as the downstream channel is able to accept writes.
+ * The request body is not streamed; it is read in full before the upstream request is made, so there is no back-pressure on the request side.
+ * Compressed upstream responses are forwarded as is.
+ * <p>
+ * Hop-by-hop headers, including any named by the {@code Connection} header, are not forwarded in either direction.
+ */
+public class ProxyHandler implements Handler {
+
+  // Headers that only apply to a single connection, and must not be forwarded (RFC 7230, section 6.1)
+  private static final Set<String> HOP_BY_HOP_HEADERS = ImmutableSet.of(
+    "connection", "keep-alive", "proxy-authenticate", "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade"
+  );
+
+  private static final Splitter CONNECTION_OPTIONS_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+
+  private final String upstream;
+
+  public ProxyHandler(URI upstream) {
+    String uri = upstream.toString();
+    this.upstream = uri.endsWith("/") ? uri.substring(0, uri.length() - 1) : uri;
+  }
+
+  @Override
+  public void handle(Context context) throws Exception {
+    Request request = context.getRequest();
+    URI target = URI.create(upstream + request.getUri());
+    ByteBuf body = request.getBody().getBuffer();
+
+    context.get(HttpClient.class).requestStream(target, spec -> {
+      spec.method(request.getMethod().getName());
+      spec.redirects(0);
+      spec.decompressResponse(false);
+      copyHeaders(request.getHeaders(), spec.getHeaders());
+      if (body.isReadable()) {
+        spec.getBody().buffer(body);
+      }
+    }).then(response -> response.send(context.getResponse(), ProxyHandler::removeHopByHopHeaders));
+  }
+
+  private static void copyHeaders(Headers from, MutableHeaders to) {
+    Set<String> hopByHopHeaders = hopByHopHeaders(from);
+    for (String name : from.getNames()) {
+      String lowerCaseName = name.toLowerCase();
+      if (!hopByHopHeaders.contains(lowerCaseName) && !lowerCaseName.equals("host") && !lowerCaseName.equals("content-length")) {
+        to.set(name, from.getAll(name));
+      }
+    }
+  }
+
+  private static void removeHopByHopHeaders(MutableHeaders headers) {
+    hopByHopHeaders(headers).forEach(headers::remove);
+  }
+
+  // The fixed hop-by-hop headers, plus those listed as connection options by the Connection header
+  private static Set<String> hopByHopHeaders(Headers headers) {
+    List<String> connectionHeaders = headers.getAll("connection");
+    if (connectionHeaders.isEmpty()) {
+      return HOP_BY_HOP_HEADERS;
+    }
+    Set<String> names = new HashSet<>(HOP_BY_HOP_HEADERS);
+    for (String connectionHeader : connectionHeaders) {
+      for (String option : CONNECTION_OPTIONS_SPLITTER.split(connectionHeader)) {
+        names.add(option.toLowerCase());
+      }
+    }
+    return names;
+  }
+
+}
@@ -17,12 +17,14 @@
 package ratpack.http.client.internal;
 
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.*;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.*;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.timeout.ReadTimeoutHandler;
+import org.reactivestreams.Publisher;
 import ratpack.exec.Execution;
 import ratpack.exec.Fulfiller;
 import ratpack.func.Action;
@@ -36,10 +38,13 @@ import ratpack.http.internal.NettyHeadersBackedHeaders;
 import ratpack.http.internal.NettyHeadersBackedMutableHeaders;
 import ratpack.util.internal.ChannelImplDetector;
 
-import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLEngine;
+import java.net.InetSocketAddress;
 import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
 
@@ -59,11 +64,19 @@ abstract class RequestActionSupport<T> implements RequestAction<T> {
   private final RequestParams requestParams;
   private final AtomicBoolean fired = new AtomicBoolean();
 
+  private Long deadline;
+  private volatile ScheduledFuture<?> timeout;
+  private volatile Channel requestChannel;
+
   protected final Execution execution;
   protected final ByteBufAllocator byteBufAllocator;
+  protected final SSLEngineFactory sslEngineFactory;
+  protected final HostResolver hostResolver;
 
-  public RequestActionSupport(Action<? super RequestSpec> requestConfigurer, URI uri, Execution execution, ByteBufAllocator byteBufAllocator) {
+  public RequestActionSupport(Action<? super RequestSpec> requestConfigurer, URI uri, Execution execution, ByteBufAllocator byteBufAllocator, SSLEngineFactory sslEngineFactory, HostResolver hostResolver) {
     this.execution = execution;
+    this.hostResolver = hostResolver;
+    this.sslEngineFactory = sslEngineFactory;
     this.requestConfigurer = requestConfigurer;
     this.byteBufAllocator = byteBufAllocator;
     this.uri = uri;
@@ -93,21 +106,26 @@ abstract class RequestActionSupport<T> implements RequestAction<T> {
   public void execute(final Fulfiller<? super T> fulfiller) throws Exception {
     final AtomicBoolean redirecting = new AtomicBoolean();
 
+    scheduleTimeout(fulfiller);
+
     final Bootstrap b = new Bootstrap();
     b.group(this.execution.getEventLoop())
       .channel(ChannelImplDetector.getSocketChannelImpl())
+      .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) Math.min(Integer.MAX_VALUE, TimeUnit.NANOSECONDS.toMillis(requestParams.connectTimeoutNanos)))
       .handler(new ChannelInitializer<SocketChannel>() {
         @Override
         protected void initChannel(SocketChannel ch) throws Exception {
           ChannelPipeline p = ch.pipeline();
 
           if (finalUseSsl) {
-            SSLEngine engine = SSLContext.getDefault().createSSLEngine();
-            engine.setUseClientMode(true);
+            SSLEngine engine = sslEngineFactory.clientEngine(host, port);
             p.addLast("ssl", new SslHandler(engine));
           }
 
           p.addLast("codec", new HttpClientCodec());
+          if (requestParams.decompressResponse) {
+            p.addLast("decompressor", new HttpContentDecompressor());
+          }
           p.addLast("readTimeout", new ReadTimeoutHandler(requestParams.readTimeoutNanos, TimeUnit.NANOSECONDS));
 
           p.addLast("redirectHandler", new SimpleChannelInboundHandler<HttpObject>(false) {
@@ -140,7 +158,10 @@ abstract class RequestActionSupport<T> implements RequestAction<T> {
                     locationUrl = new URI(uri.getScheme(), null, uri.getHost(), uri.getPort(), locationValue, null, null);
                   }
 
-                  buildRedirectRequestAction(redirectRequestConfig, locationUrl).execute(fulfiller);
+                  RequestActionSupport<T> redirectAction = buildRedirectRequestAction(redirectRequestConfig, locationUrl);
+                  redirectAction.deadline = deadline;
+                  cancelTimeout();
+                  redirectAction.execute(fulfiller);
                 } else {
                   p.remove(this);
                 }
@@ -162,56 +183,116 @@ abstract class RequestActionSupport<T> implements RequestAction<T> {
         }
       });
 
-    ChannelFuture connectFuture = b.connect(host, port);
-    connectFuture.addListener(f1 -> {
-      if (connectFuture.isSuccess()) {
-        String fullPath = getFullPath(uri);
-        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.valueOf(requestSpecBacking.getMethod()), fullPath, requestSpecBacking.getBody());
-        if (headers.get(HttpHeaderConstants.HOST) == null) {
-          headers.set(HttpHeaderConstants.HOST, host);
-        }
-        headers.set(HttpHeaderConstants.CONNECTION, HttpHeaderValues.CLOSE);
-        int contentLength = request.content().readableBytes();
-        if (contentLength > 0) {
-          headers.set(HttpHeaderConstants.CONTENT_LENGTH, Integer.toString(contentLength, 10));
-        }
+    hostResolver.resolve(host).whenComplete((address, resolveFailure) -> {
+      if (fired.get()) {
+        return;
+      }
+      if (resolveFailure != null) {
+        error(fulfiller, resolveFailure);
+        return;
+      }
 
-        HttpHeaders requestHeaders = request.headers();
+      ChannelFuture connectFuture = b.connect(new InetSocketAddress(address, port));
+      requestChannel = connectFuture.channel();
+      connectFuture.addListener(f1 -> {
+        if (connectFuture.isSuccess()) {
+          Channel channel = connectFuture.channel();
+          String fullPath = getFullPath(uri);
+          HttpMethod method = HttpMethod.valueOf(requestSpecBacking.getMethod());
+          Publisher<? extends ByteBuf> bodyPublisher = requestSpecBacking.getBodyPublisher();
+
+          if (headers.get(HttpHeaderConstants.HOST) == null) {
+            headers.set(HttpHeaderConstants.HOST, host);
+          }
+          headers.set(HttpHeaderConstants.CONNECTION, HttpHeaderValues.CLOSE);
+          if (requestParams.decompressResponse && !headers.contains(HttpHeaderConstants.ACCEPT_ENCODING)) {
+            headers.set(HttpHeaderConstants.ACCEPT_ENCODING, HttpHeaderConstants.GZIP_DEFLATE);
+          }
 
-        for (String name : headers.getNames()) {
-          requestHeaders.set(name, headers.getAll(name));
-        }
+          HttpRequest request;
+          if (bodyPublisher == null) {
+            request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, method, fullPath, requestSpecBacking.getBody());
+            int contentLength = ((FullHttpRequest) request).content().readableBytes();
+            if (contentLength > 0) {
+              headers.set(HttpHeaderConstants.CONTENT_LENGTH, Integer.toString(contentLength, 10));
+            }
+          } else {
+            request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, method, fullPath);
+            if (!headers.contains(HttpHeaderConstants.CONTENT_LENGTH)) {
+              headers.set(HttpHeaderConstants.TRANSFER_ENCODING, HttpHeaderConstants.CHUNKED);
+            }
+          }
+
+          HttpHeaders requestHeaders = request.headers();
 
-        ChannelFuture writeFuture = connectFuture.channel().writeAndFlush(request);
-        writeFuture.addListener(f2 -> {
-          if (!writeFuture.isSuccess()) {
-            writeFuture.channel().close();
-            error(fulfiller, writeFuture.cause());
+          for (String name : headers.getNames()) {
+            requestHeaders.set(name, headers.getAll(name));
           }
-        });
-      } else {
-        connectFuture.channel().close();
-        error(fulfiller, connectFuture.cause());
-      }
+
+          ChannelFuture writeFuture = channel.writeAndFlush(request);
+          writeFuture.addListener(f2 -> {
+            if (!writeFuture.isSuccess()) {
+              writeFuture.channel().close();
+              error(fulfiller, writeFuture.cause());
+            }
+          });
+
+          if (bodyPublisher != null) {
+            RequestBodyWriter bodyWriter = new RequestBodyWriter(channel, t -> error(fulfiller, t));
+            channel.pipeline().addFirst("requestBodyWriter", bodyWriter);
+            bodyPublisher.subscribe(bodyWriter);
+          }
+        } else {
+          connectFuture.channel().close();
+          error(fulfiller, connectFuture.cause());
+        }
+      });
     });
   }
 
-  protected abstract RequestAction<T> buildRedirectRequestAction(Action<? super RequestSpec> redirectRequestConfig, URI locationUrl);
+  protected abstract RequestActionSupport<T> buildRedirectRequestAction(Action<? super RequestSpec> redirectRequestConfig, URI locationUrl);
 
   protected abstract void addResponseHandlers(ChannelPipeline p, Fulfiller<? super T> fulfiller);
 
   protected void success(Fulfiller<? super T> fulfiller, T value) {
     if (fired.compareAndSet(false, true)) {
+      cancelTimeout();
       fulfiller.success(value);
     }
   }
 
   protected void error(Fulfiller<?> fulfiller, Throwable error) {
     if (fired.compareAndSet(false, true)) {
+      cancelTimeout();
       fulfiller.error(error);
     }
   }
 
+  private void scheduleTimeout(Fulfiller<?> fulfiller) {
+    long totalTimeoutNanos = requestParams.totalTimeoutNanos;
+    if (totalTimeoutNanos <= 0) {
+      return;
+    }
+    if (deadline == null) {
+      deadline = System.nanoTime() + totalTimeoutNanos;
+    }
+    long remaining = deadline - System.nanoTime();
+    timeout = execution.getEventLoop().schedule(() -> {
+      Channel timedOutChannel = requestChannel;
+      if (timedOutChannel != null) {
+        timedOutChannel.close();
+      }
+      error(fulfiller, new TimeoutException("HTTP request did not complete within " + Duration.ofNanos(totalTimeoutNanos)));
+    }, Math.max(0, remaining), TimeUnit.NANOSECONDS);
+  }
+
+  private void cancelTimeout() {
+    ScheduledFuture<?> scheduledTimeout = timeout;
+    if (scheduledTimeout != null) {
+      scheduledTimeout.cancel(false);
+    }
+  }
+
   private static boolean shouldRedirect(Status status) {
     int code = status.getCode();
     return code == 301 || code == 302 || code == 303 || code == 307;
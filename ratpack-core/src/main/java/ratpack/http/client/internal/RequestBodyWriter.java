@@ -0,0 +1,134 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ratpack.http.client.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.ReferenceCountUtil;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import ratpack.func.Action;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes a streamed request body to the channel as HTTP chunks.
+ * <p>
+ * Demand is only signalled to the publisher while the channel is writable, so a slow server holds back the producer.
+ * The handler must be in the channel pipeline in order to be notified when the channel becomes writable again.
+ */
+class RequestBodyWriter extends ChannelInboundHandlerAdapter implements Subscriber<ByteBuf> {
+
+  private final Channel channel;
+  private final Action<? super Throwable> onError;
+  private final AtomicBoolean done = new AtomicBoolean();
+
+  private volatile Subscription subscription;
+
+  RequestBodyWriter(Channel channel, Action<? super Throwable> onError) {
+    this.channel = channel;
+    this.onError = onError;
+  }
+
+  @Override
+  public void onSubscribe(Subscription s) {
+    if (subscription != null) {
+      s.cancel();
+      return;
+    }
+    subscription = s;
+    if (done.get()) {
+      s.cancel();
+    } else {
+      requestIfWritable();
+    }
+  }
+
+  @Override
+  public void onNext(ByteBuf byteBuf) {
+    if (done.get()) {
+      ReferenceCountUtil.release(byteBuf);
+      return;
+    }
+    channel.writeAndFlush(new DefaultHttpContent(byteBuf)).addListener(writeFailureListener());
+    requestIfWritable();
+  }
+
+  @Override
+  public void onError(Throwable t) {
+    if (done.compareAndSet(false, true)) {
+      channel.close();
+      fail(t);
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    if (done.compareAndSet(false, true)) {
+      channel.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT).addListener(writeFailureListener());
+    }
+  }
+
+  @Override
+  public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+    requestIfWritable();
+    ctx.fireChannelWritabilityChanged();
+  }
+
+  @Override
+  public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+    cancel();
+    ctx.fireChannelInactive();
+  }
+
+  private void requestIfWritable() {
+    Subscription s = subscription;
+    if (s != null && !done.get() && channel.isWritable()) {
+      s.request(1);
+    }
+  }
+
+  private void cancel() {
+    if (done.compareAndSet(false, true)) {
+      Subscription s = subscription;
+      if (s != null) {
+        s.cancel();
+      }
+    }
+  }
+
+  private ChannelFutureListener writeFailureListener() {
+    return future -> {
+      if (!future.isSuccess()) {
+        cancel();
+        future.channel().close();
+        fail(future.cause());
+      }
+    };
+  }
+
+  private void fail(Throwable t) {
+    Action.uncheckedWith(t, onError);
+  }
+
+}
@@ -21,5 +21,8 @@ import java.time.Duration;
 class RequestParams {
 
   long readTimeoutNanos = Duration.ofSeconds(30).toNanos();
+  long connectTimeoutNanos = Duration.ofSeconds(30).toNanos();
+  long totalTimeoutNanos;
+  boolean decompressResponse = true;
 
 }
@@ -22,6 +22,7 @@ import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.ByteBufOutputStream;
 import io.netty.buffer.Unpooled;
 import io.netty.util.CharsetUtil;
+import org.reactivestreams.Publisher;
 import ratpack.api.Nullable;
 import ratpack.func.Action;
 import ratpack.http.MutableHeaders;
@@ -41,6 +42,7 @@ class RequestSpecBacking {
   private final RequestParams requestParams;
 
   private ByteBuf bodyByteBuf;
+  private Publisher<? extends ByteBuf> bodyPublisher;
 
   private String method = "GET";
   private int maxRedirects = 10;
@@ -66,6 +68,11 @@ class RequestSpecBacking {
     return bodyByteBuf;
   }
 
+  @Nullable
+  public Publisher<? extends ByteBuf> getBodyPublisher() {
+    return bodyPublisher;
+  }
+
   public RequestSpec asSpec() {
     return new Spec();
   }
@@ -109,11 +116,30 @@ class RequestSpecBacking {
       return this;
     }
 
+    @Override
+    public RequestSpec connectTimeout(Duration duration) {
+      requestParams.connectTimeoutNanos = duration.toNanos();
+      return this;
+    }
+
+    @Override
+    public RequestSpec totalTimeout(Duration duration) {
+      requestParams.totalTimeoutNanos = duration.toNanos();
+      return this;
+    }
+
+    @Override
+    public RequestSpec decompressResponse(boolean decompressResponse) {
+      requestParams.decompressResponse = decompressResponse;
+      return this;
+    }
+
     private void setBodyByteBuf(ByteBuf byteBuf) {
       if (bodyByteBuf != null) {
         bodyByteBuf.release();
       }
       bodyByteBuf = byteBuf;
+      bodyPublisher = null;
     }
 
 
@@ -138,6 +164,13 @@ class RequestSpecBacking {
         return this;
       }
 
+      @Override
+      public Body publisher(Publisher<? extends ByteBuf> publisher) {
+        setBodyByteBuf(null);
+        bodyPublisher = publisher;
+        return this;
+      }
+
       @Override
       public Body buffer(ByteBuf byteBuf) {
         setBodyByteBuf(byteBuf.retain());
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.http.client.internal;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import java.security.NoSuchAlgorithmException;
+
+public class SSLEngineFactory {
+
+  public static final SSLEngineFactory DEFAULT = new SSLEngineFactory(null, null);
+
+  private final SSLContext sslContext;
+  private final SSLParameters sslParameters;
+
+  public SSLEngineFactory(SSLContext sslContext, SSLParameters sslParameters) {
+    this.sslContext = sslContext;
+    this.sslParameters = sslParameters;
+  }
+
+  // The peer host and port key the context's client session cache, allowing sessions to be resumed across connections
+  public SSLEngine clientEngine(String host, int port) throws NoSuchAlgorithmException {
+    SSLContext context = sslContext == null ? SSLContext.getDefault() : sslContext;
+    SSLEngine engine = context.createSSLEngine(host, port);
+    engine.setUseClientMode(true);
+    if (sslParameters != null) {
+      engine.setSSLParameters(sslParameters);
+    }
+    return engine;
+  }
+
+}
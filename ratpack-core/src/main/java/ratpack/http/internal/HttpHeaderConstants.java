@@ -28,11 +28,14 @@ public abstract class HttpHeaderConstants {
   public static final CharSequence CONTENT_LENGTH = HttpHeaderNames.CONTENT_LENGTH;
   public static final CharSequence CONTENT_TYPE = HttpHeaderNames.CONTENT_TYPE;
   public static final CharSequence ACCEPT = HttpHeaderNames.ACCEPT;
+  public static final CharSequence ACCEPT_ENCODING = HttpHeaderNames.ACCEPT_ENCODING;
   public static final CharSequence LAST_MODIFIED = HttpHeaderNames.LAST_MODIFIED;
   public static final CharSequence CONNECTION = HttpHeaderNames.CONNECTION;
   public static final CharSequence KEEP_ALIVE = HttpHeaderValues.KEEP_ALIVE;
+  public static final CharSequence CLOSE = HttpHeaderValues.CLOSE;
   public static final CharSequence CONTENT_ENCODING = HttpHeaderNames.CONTENT_ENCODING;
   public static final CharSequence IDENTITY = HttpHeaderValues.IDENTITY;
+  public static final CharSequence GZIP_DEFLATE = new AsciiString(HttpHeaderValues.GZIP + "," + HttpHeaderValues.DEFLATE);
   public static final CharSequence TRANSFER_ENCODING = HttpHeaderNames.TRANSFER_ENCODING;
   public static final CharSequence CHUNKED = HttpHeaderValues.CHUNKED;
   public static final CharSequence CACHE_CONTROL = HttpHeaderNames.CACHE_CONTROL;
@@ -52,6 +55,7 @@ public abstract class HttpHeaderConstants {
   public static final CharSequence X_FORWARDED_PROTO = new AsciiString("X-Forwarded-Proto");
   public static final CharSequence X_FORWARDED_SSL = new AsciiString("X-Forwarded-Ssl");
   public static final CharSequence X_REQUESTED_WITH = new AsciiString("X-Requested-With");
+  public static final CharSequence LAST_EVENT_ID = new AsciiString("Last-Event-ID");
 
   public static final CharSequence PLAIN_TEXT_UTF8 = new AsciiString("text/plain;charset=UTF-8");
   public static final CharSequence OCTET_STREAM = new AsciiString("application/octet-stream");
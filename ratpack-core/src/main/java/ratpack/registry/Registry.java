@@ -88,7 +88,7 @@ public interface Registry {
    * @throws NotInRegistryException If no object of this type can be returned
    */
   default <O> O get(Class<O> type) throws NotInRegistryException {
-    return get(TypeToken.of(type));
+    return maybeGet(type).orElseThrow(() -> new NotInRegistryException(TypeToken.of(type)));
   }
 
   /**
@@ -32,6 +32,8 @@ public class CachingRegistry implements Registry {
 
   private final ConcurrentMap<TypeToken<?>, Optional<?>> cache = new ConcurrentHashMap<>();
   private final ConcurrentMap<TypeToken<?>, Iterable<?>> allCache = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Class<?>, Optional<?>> classCache = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Class<?>, Iterable<?>> classAllCache = new ConcurrentHashMap<>();
 
   public static Registry of(Registry registry) {
     if (registry instanceof CachingRegistry) {
@@ -45,6 +47,10 @@ public class CachingRegistry implements Registry {
     this.delegate = delegate;
   }
 
+  public Registry getDelegate() {
+    return delegate;
+  }
+
   private static <K, V> V compute(Map<K, V> map, K key, Function<? super K, ? extends V> supplier) {
     V value = map.get(key);
     if (value == null) {
@@ -54,11 +60,21 @@ public class CachingRegistry implements Registry {
     return value;
   }
 
+  @Override
+  public <O> Optional<O> maybeGet(Class<O> type) {
+    return Types.cast(compute(classCache, type, delegate::maybeGet));
+  }
+
   @Override
   public <O> Optional<O> maybeGet(TypeToken<O> type) {
     return Types.cast(compute(cache, type, delegate::maybeGet));
   }
 
+  @Override
+  public <O> Iterable<O> getAll(Class<O> type) {
+    return Types.cast(compute(classAllCache, type, delegate::getAll));
+  }
+
   @Override
   public <O> Iterable<O> getAll(TypeToken<O> type) {
     return Types.cast(compute(allCache, type, delegate::getAll));
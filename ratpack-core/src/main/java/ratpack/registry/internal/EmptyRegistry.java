@@ -30,6 +30,11 @@ public final class EmptyRegistry implements Registry {
   private EmptyRegistry() {
   }
 
+  @Override
+  public <O> Optional<O> maybeGet(Class<O> type) {
+    return Optional.empty();
+  }
+
   @Override
   public <O> Optional<O> maybeGet(TypeToken<O> type) {
     return Optional.empty();
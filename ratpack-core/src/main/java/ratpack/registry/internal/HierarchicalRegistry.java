@@ -33,6 +33,24 @@ public class HierarchicalRegistry implements Registry {
     this.child = child;
   }
 
+  public Registry getParent() {
+    return parent;
+  }
+
+  public Registry getChild() {
+    return child;
+  }
+
+  @Override
+  public <O> Optional<O> maybeGet(Class<O> type) {
+    Optional<O> object = child.maybeGet(type);
+    if (!object.isPresent()) {
+      object = parent.maybeGet(type);
+    }
+
+    return object;
+  }
+
   @Override
   public <O> Optional<O> maybeGet(TypeToken<O> type) {
     Optional<O> object = child.maybeGet(type);
@@ -43,6 +61,13 @@ public class HierarchicalRegistry implements Registry {
     return object;
   }
 
+  @Override
+  public <O> Iterable<? extends O> getAll(Class<O> type) {
+    Iterable<? extends O> childAll = child.getAll(type);
+    Iterable<? extends O> parentAll = parent.getAll(type);
+    return Iterables.concat(childAll, parentAll);
+  }
+
   @Override
   public <O> Iterable<? extends O> getAll(TypeToken<O> type) {
     Iterable<? extends O> childAll = child.getAll(type);
@@ -50,6 +75,15 @@ public class HierarchicalRegistry implements Registry {
     return Iterables.concat(childAll, parentAll);
   }
 
+  @Override
+  public <T, O> Optional<O> first(Class<T> type, Function<? super T, ? extends O> function) throws Exception {
+    Optional<O> first = child.first(type, function);
+    if (!first.isPresent()) {
+      first = parent.first(type, function);
+    }
+    return first;
+  }
+
   @Override
   public <T, O> Optional<O> first(TypeToken<T> type, Function<? super T, ? extends O> function) throws Exception {
     Optional<O> first = child.first(type, function);
@@ -16,21 +16,142 @@
 
 package ratpack.registry.internal;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.common.reflect.TypeToken;
 import ratpack.func.Function;
 import ratpack.registry.Registry;
 import ratpack.util.Types;
 
+import java.lang.reflect.Type;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+/**
+ * A registry of a fixed list of entries.
+ * <p>
+ * Lookups scan the entries, matching non generic types (i.e. a plain {@link Class}) by class assignability and parameterized types with {@link TypeToken#isAssignableFrom(TypeToken)}.
+ * Long lived registries can be {@link #indexed(List) indexed}, in which case class lookups are answered from an index of the entries assignable to each class,
+ * built from the supertypes of each entry when the registry is created.
+ */
 public class MultiEntryRegistry implements Registry {
 
   private final List<? extends RegistryEntry<?>> entries;
+  private final Map<Class<?>, List<RegistryEntry<?>>> index;
 
   public MultiEntryRegistry(List<? extends RegistryEntry<?>> entries) {
+    this(entries, null);
+  }
+
+  private MultiEntryRegistry(List<? extends RegistryEntry<?>> entries, Map<Class<?>, List<RegistryEntry<?>>> index) {
     this.entries = entries;
+    this.index = index;
+  }
+
+  /**
+   * Creates a registry of the given entries, with an index of the entries assignable to each of their supertypes.
+   * <p>
+   * Building the index visits every supertype of every entry, so this should only be used for long lived registries (e.g. the server registry).
+   *
+   * @param entries the entries, in lookup order
+   * @return a registry of the given entries
+   */
+  public static Registry indexed(List<? extends RegistryEntry<?>> entries) {
+    ImmutableList<? extends RegistryEntry<?>> entriesCopy = ImmutableList.copyOf(entries);
+    Map<Class<?>, ImmutableList.Builder<RegistryEntry<?>>> builders = Maps.newHashMap();
+    for (RegistryEntry<?> entry : entriesCopy) {
+      Set<Class<?>> supertypes = Sets.newHashSet();
+      supertypes.add(Object.class);
+      addSupertypes(supertypes, entry.getType().getRawType());
+      for (Class<?> supertype : supertypes) {
+        builders.computeIfAbsent(supertype, c -> ImmutableList.builder()).add(entry);
+      }
+    }
+
+    ImmutableMap.Builder<Class<?>, List<RegistryEntry<?>>> index = ImmutableMap.builder();
+    for (Map.Entry<Class<?>, ImmutableList.Builder<RegistryEntry<?>>> builder : builders.entrySet()) {
+      index.put(builder.getKey(), builder.getValue().build());
+    }
+
+    return CachingRegistry.of(new MultiEntryRegistry(entriesCopy, index.build()));
+  }
+
+  private static void addSupertypes(Set<Class<?>> supertypes, Class<?> type) {
+    if (type != null && supertypes.add(type)) {
+      addSupertypes(supertypes, type.getSuperclass());
+      for (Class<?> interfaceType : type.getInterfaces()) {
+        addSupertypes(supertypes, interfaceType);
+      }
+    }
+  }
+
+  /**
+   * Whether class lookups against this registry are answered from a prebuilt index.
+   *
+   * @return whether this registry is indexed
+   */
+  public boolean isIndexed() {
+    return index != null;
+  }
+
+  /**
+   * Joins the given registries into a single registry over the entries of both, if both are backed by a fixed list of entries.
+   * <p>
+   * The returned registry behaves as {@code parent.join(child)} would, but lookups are answered by a single index instead of a chain of them.
+   * If either registry is not backed by a fixed list of entries (e.g. it is mutable, or backed by Guice), the registries are joined and whichever is backed by a fixed list of entries is indexed.
+   * <p>
+   * This should only be used for long lived registries, as the index is built eagerly.
+   *
+   * @param parent the parent registry
+   * @param child the child registry
+   * @return a registry which is the combination of the parent and child
+   */
+  public static Registry flatten(Registry parent, Registry child) {
+    List<? extends RegistryEntry<?>> childEntries = entriesOf(child);
+    List<? extends RegistryEntry<?>> parentEntries = entriesOf(parent);
+    if (childEntries == null || parentEntries == null) {
+      return indexedOrSelf(parent, parentEntries).join(indexedOrSelf(child, childEntries));
+    } else {
+      return indexed(ImmutableList.<RegistryEntry<?>>builder().addAll(childEntries).addAll(parentEntries).build());
+    }
+  }
+
+  private static Registry indexedOrSelf(Registry registry, List<? extends RegistryEntry<?>> entries) {
+    return entries == null || entries.isEmpty() ? registry : indexed(entries);
+  }
+
+  private static List<? extends RegistryEntry<?>> entriesOf(Registry registry) {
+    if (registry == EmptyRegistry.INSTANCE) {
+      return ImmutableList.of();
+    } else if (registry instanceof SingleEntryRegistry) {
+      return ImmutableList.of(((SingleEntryRegistry) registry).getEntry());
+    } else if (registry instanceof MultiEntryRegistry) {
+      return ((MultiEntryRegistry) registry).entries;
+    } else if (registry instanceof CachingRegistry) {
+      return entriesOf(((CachingRegistry) registry).getDelegate());
+    } else if (registry instanceof HierarchicalRegistry) {
+      HierarchicalRegistry hierarchicalRegistry = (HierarchicalRegistry) registry;
+      List<? extends RegistryEntry<?>> childEntries = entriesOf(hierarchicalRegistry.getChild());
+      List<? extends RegistryEntry<?>> parentEntries = childEntries == null ? null : entriesOf(hierarchicalRegistry.getParent());
+      return parentEntries == null ? null : ImmutableList.<RegistryEntry<?>>builder().addAll(childEntries).addAll(parentEntries).build();
+    } else {
+      return null;
+    }
+  }
+
+  private Iterable<? extends RegistryEntry<?>> assignableTo(Class<?> type) {
+    if (index != null && !type.isArray()) {
+      List<RegistryEntry<?>> indexed = index.get(type);
+      return indexed == null ? ImmutableList.of() : indexed;
+    } else {
+      return Iterables.filter(entries, entry -> type.isAssignableFrom(entry.getType().getRawType()));
+    }
   }
 
   @Override
@@ -38,7 +159,23 @@ public class MultiEntryRegistry implements Registry {
     return "Registry{" + entries + '}';
   }
 
+  @Override
+  public <O> Optional<O> maybeGet(Class<O> type) {
+    Iterator<? extends RegistryEntry<?>> assignable = assignableTo(type).iterator();
+    if (assignable.hasNext()) {
+      @SuppressWarnings("unchecked") O cast = (O) assignable.next().get();
+      return Optional.of(cast);
+    } else {
+      return Optional.empty();
+    }
+  }
+
   public <O> Optional<O> maybeGet(TypeToken<O> type) {
+    Type runtimeType = type.getType();
+    if (runtimeType instanceof Class) {
+      return maybeGet(Types.<Class<O>>cast(runtimeType));
+    }
+
     for (RegistryEntry<?> entry : entries) {
       if (type.isAssignableFrom(entry.getType())) {
         @SuppressWarnings("unchecked") O cast = (O) entry.get();
@@ -49,7 +186,17 @@ public class MultiEntryRegistry implements Registry {
     return Optional.empty();
   }
 
+  @Override
+  public <O> Iterable<? extends O> getAll(Class<O> type) {
+    return Iterables.transform(assignableTo(type), e -> Types.<O>cast(e.get()));
+  }
+
   public <O> Iterable<? extends O> getAll(final TypeToken<O> type) {
+    Type runtimeType = type.getType();
+    if (runtimeType instanceof Class) {
+      return getAll(Types.<Class<O>>cast(runtimeType));
+    }
+
     //noinspection Convert2Lambda
     return new Iterable<O>() {
       @Override
@@ -93,8 +240,25 @@ public class MultiEntryRegistry implements Registry {
     };
   }
 
+  @Override
+  public <T, O> Optional<O> first(Class<T> type, Function<? super T, ? extends O> function) throws Exception {
+    for (RegistryEntry<?> entry : assignableTo(type)) {
+      RegistryEntry<? extends T> cast = Types.cast(entry);
+      O result = function.apply(cast.get());
+      if (result != null) {
+        return Optional.of(result);
+      }
+    }
+    return Optional.empty();
+  }
+
   @Override
   public <T, O> Optional<O> first(TypeToken<T> type, Function<? super T, ? extends O> function) throws Exception {
+    Type runtimeType = type.getType();
+    if (runtimeType instanceof Class) {
+      return first(Types.<Class<T>>cast(runtimeType), function);
+    }
+
     for (RegistryEntry<?> entry : entries) {
       if (type.isAssignableFrom(entry.getType())) {
         RegistryEntry<? extends T> cast = Types.cast(entry);
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.registry.internal;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import ratpack.registry.Registry;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+
+/**
+ * Memoizes the result of resolving a key (e.g. a type to render) against a registry.
+ * <p>
+ * Tables are held per registry instance (by identity, weakly), so a changed registry (i.e. a new join) gets a fresh table.
+ * Hierarchical registries are decomposed so that the usually stable parent's table is reused when a small child registry is joined per request.
+ * Only registries known to be long lived and immutable, and to always return the same objects (i.e. {@link MultiEntryRegistry#indexed(List) indexed} registries), are cached.
+ * All other registries (e.g. mutable, user defined or per request registries) are resolved on each call.
+ * This includes {@link CachingBackedRegistry backed} registries, as their backing may supply a new object on each lookup.
+ *
+ * @param <K> the type of the dispatch key
+ * @param <V> the type of the resolved values
+ */
+public class RegistryDispatchCache<K, V> {
+
+  private final BiFunction<? super Registry, ? super K, ? extends List<V>> resolver;
+
+  private final LoadingCache<Registry, ConcurrentMap<K, List<V>>> tables = CacheBuilder.newBuilder()
+    .weakKeys()
+    .build(CacheLoader.from(r -> new ConcurrentHashMap<>()));
+
+  /**
+   * Constructor.
+   *
+   * @param resolver the function that resolves the values for a key against a non hierarchical registry, in registry order
+   */
+  public RegistryDispatchCache(BiFunction<? super Registry, ? super K, ? extends List<V>> resolver) {
+    this.resolver = resolver;
+  }
+
+  /**
+   * Resolves the values for the given key against the given registry.
+   * <p>
+   * Values are returned in the same order as they would be returned by {@link Registry#getAll(com.google.common.reflect.TypeToken)}.
+   *
+   * @param registry the registry to resolve against
+   * @param key the key
+   * @return the resolved values, never null
+   */
+  public List<V> get(Registry registry, K key) {
+    return get(registry, key, true);
+  }
+
+  /**
+   * Resolves the values for the given key, without remembering that nothing was resolved.
+   * <p>
+   * Used when the key space is not bounded by the registry contents (e.g. request supplied content types).
+   *
+   * @param registry the registry to resolve against
+   * @param key the key
+   * @return the resolved values, never null
+   */
+  public List<V> getIfResolvable(Registry registry, K key) {
+    return get(registry, key, false);
+  }
+
+  private List<V> get(Registry registry, K key, boolean cacheEmpty) {
+    if (registry instanceof HierarchicalRegistry) {
+      HierarchicalRegistry hierarchicalRegistry = (HierarchicalRegistry) registry;
+      List<V> child = get(hierarchicalRegistry.getChild(), key, cacheEmpty);
+      List<V> parent = get(hierarchicalRegistry.getParent(), key, cacheEmpty);
+      if (child.isEmpty()) {
+        return parent;
+      } else if (parent.isEmpty()) {
+        return child;
+      } else {
+        return ImmutableList.<V>builder().addAll(child).addAll(parent).build();
+      }
+    } else if (registry == EmptyRegistry.INSTANCE) {
+      return ImmutableList.of();
+    } else if (isCacheable(registry)) {
+      ConcurrentMap<K, List<V>> table = tables.getUnchecked(registry);
+      List<V> values = table.get(key);
+      if (values == null) {
+        values = resolver.apply(registry, key);
+        if (cacheEmpty || !values.isEmpty()) {
+          table.putIfAbsent(key, values);
+        }
+      }
+      return values;
+    } else {
+      return resolver.apply(registry, key);
+    }
+  }
+
+  private static boolean isCacheable(Registry registry) {
+    if (registry instanceof CachingRegistry) {
+      return isCacheable(((CachingRegistry) registry).getDelegate());
+    } else {
+      return registry instanceof MultiEntryRegistry && ((MultiEntryRegistry) registry).isIndexed();
+    }
+  }
+
+}
@@ -19,6 +19,7 @@ package ratpack.registry.internal;
 import com.google.common.reflect.TypeToken;
 import ratpack.func.Function;
 import ratpack.registry.Registry;
+import ratpack.util.Types;
 
 import java.util.Collections;
 import java.util.Optional;
@@ -31,9 +32,25 @@ public class SingleEntryRegistry implements Registry {
     this.entry = entry;
   }
 
+  public RegistryEntry<?> getEntry() {
+    return entry;
+  }
+
+  @Override
+  public <O> Optional<O> maybeGet(Class<O> type) {
+    if (type.isAssignableFrom(entry.getType().getRawType())) {
+      @SuppressWarnings("unchecked") O cast = (O) entry.get();
+      return Optional.of(cast);
+    } else {
+      return Optional.empty();
+    }
+  }
+
   @Override
   public <O> Optional<O> maybeGet(TypeToken<O> type) {
-    if (type.isAssignableFrom(entry.getType())) {
+    if (type.getType() instanceof Class) {
+      return maybeGet(Types.<Class<O>>cast(type.getType()));
+    } else if (type.isAssignableFrom(entry.getType())) {
       @SuppressWarnings("unchecked") O cast = (O) entry.get();
       return Optional.of(cast);
     } else {
@@ -41,6 +58,12 @@ public class SingleEntryRegistry implements Registry {
     }
   }
 
+  @Override
+  public <O> Iterable<? extends O> getAll(Class<O> type) {
+    //noinspection Convert2MethodRef
+    return maybeGet(type).map((o) -> Collections.singleton(o)).orElse(Collections.emptySet());
+  }
+
   @Override
   public <O> Iterable<? extends O> getAll(TypeToken<O> type) {
     //noinspection Convert2MethodRef
@@ -16,60 +16,81 @@
 
 package ratpack.render.internal;
 
-import com.google.common.collect.Iterables;
+import com.google.common.collect.ImmutableList;
 import com.google.common.reflect.TypeToken;
 import ratpack.exec.Promise;
 import ratpack.handling.Context;
+import ratpack.registry.Registry;
+import ratpack.registry.internal.RegistryDispatchCache;
 import ratpack.render.NoSuchRendererException;
 import ratpack.render.RenderableDecorator;
 import ratpack.render.Renderer;
 import ratpack.render.RendererException;
 import ratpack.util.Types;
 
-import java.util.Iterator;
+import java.util.List;
 
 public class DefaultRenderController implements RenderController {
 
   private static final TypeToken<Renderer<?>> RENDERER_TYPE = new TypeToken<Renderer<?>>() {};
   private static final TypeToken<RenderableDecorator<?>> RENDERABLE_DECORATOR_TYPE = new TypeToken<RenderableDecorator<?>>() {};
 
+  private final RegistryDispatchCache<Class<?>, Renderer<?>> renderers = new RegistryDispatchCache<>((registry, type) -> {
+    ImmutableList.Builder<Renderer<?>> builder = ImmutableList.builder();
+    for (Renderer<?> renderer : registry.getAll(RENDERER_TYPE)) {
+      if (renderer.getType().isAssignableFrom(type)) {
+        builder.add(renderer);
+      }
+    }
+    return builder.build();
+  });
+
+  private final RegistryDispatchCache<Class<?>, RenderableDecorator<?>> decorators = new RegistryDispatchCache<>((registry, type) -> {
+    ImmutableList.Builder<RenderableDecorator<?>> builder = ImmutableList.builder();
+    for (RenderableDecorator<?> decorator : registry.getAll(RENDERABLE_DECORATOR_TYPE)) {
+      if (decorator.getType().isAssignableFrom(type)) {
+        builder.add(decorator);
+      }
+    }
+    return builder.build();
+  });
+
   @Override
-  public void render(final Object toRender, final Context context) throws Exception {
+  public void render(final Object toRender, final Context context, final Registry registry) throws Exception {
     if (toRender == null) {
       context.clientError(404);
       return;
     }
 
-    doRender(toRender, context);
+    doRender(toRender, context, registry);
   }
 
-  private <T> void doRender(T toRender, Context context) throws Exception {
+  private <T> void doRender(T toRender, Context context, Registry registry) throws Exception {
     Class<T> type = Types.cast(toRender.getClass());
 
-    Iterator<? extends RenderableDecorator<?>> decorators = Iterables.filter(context.getAll(RENDERABLE_DECORATOR_TYPE), d -> d.getType().isAssignableFrom(type)).iterator();
-    if (decorators.hasNext()) {
+    List<RenderableDecorator<?>> decorators = this.decorators.get(registry, type);
+    if (decorators.isEmpty()) {
+      doRender(context, registry, type, toRender);
+    } else {
       Promise<T> promise = context.promiseOf(toRender);
-      while (decorators.hasNext()) {
-        RenderableDecorator<T> cast = Types.cast(decorators.next());
+      for (RenderableDecorator<?> decorator : decorators) {
+        RenderableDecorator<T> cast = Types.cast(decorator);
         promise = promise.flatMap(r -> cast.decorate(context, r));
       }
-      promise.then(r -> doRender(context, type, r));
-    } else {
-      doRender(context, type, toRender);
+      promise.then(r -> doRender(context, registry, type, r));
     }
   }
 
-  private <T> void doRender(Context context, Class<T> type, T decorated) {
-    Iterable<? extends Renderer<?>> renderers = context.getAll(RENDERER_TYPE);
-    for (Renderer<?> renderer : renderers) {
-      if (renderer.getType().isAssignableFrom(type)) {
-        Renderer<T> cast = Types.cast(renderer);
-        try {
-          cast.render(context, decorated);
-          return;
-        } catch (Exception e) {
-          throw new RendererException(renderer, decorated, e);
-        }
+  private <T> void doRender(Context context, Registry registry, Class<T> type, T decorated) {
+    List<Renderer<?>> renderers = this.renderers.get(registry, type);
+    if (!renderers.isEmpty()) {
+      Renderer<?> renderer = renderers.get(0);
+      Renderer<T> cast = Types.cast(renderer);
+      try {
+        cast.render(context, decorated);
+        return;
+      } catch (Exception e) {
+        throw new RendererException(renderer, decorated, e);
       }
     }
 
@@ -17,9 +17,10 @@
 package ratpack.render.internal;
 
 import ratpack.handling.Context;
+import ratpack.registry.Registry;
 
 public interface RenderController {
 
-  void render(Object object, Context context) throws Exception;
+  void render(Object object, Context context, Registry registry) throws Exception;
 
 }
@@ -129,9 +129,15 @@ public interface RatpackServer {
   void start() throws Exception;
 
   /**
-   * Stops the server, returning as soon as the server has stopped receiving requests.
+   * Stops the server, returning once the requests in progress have completed and the server's threads have been terminated.
    * <p>
-   * This method will terminate all threads started by the server.
+   * The server first stops accepting connections.
+   * Requests in progress (and requests arriving on already open connections) continue to be served, with their responses sent with {@code Connection: close}.
+   * Once they have completed, connections are closed as soon as the response being sent on them has been written (idle connections straight away).
+   * Once all connections are closed, or the {@link ServerConfig#getShutdownTimeout() shutdown timeout} has elapsed,
+   * the {@link Service services} are stopped and all threads started by the server terminated.
+   * <p>
+   * If called from within a request, the server does not wait for requests in progress.
    *
    * @throws Exception if the server could not be stopped cleanly
    */
@@ -177,8 +183,13 @@ public interface RatpackServer {
    * }
    * }</pre>
    * <p>
-   * If the server is running, it will be {@link #stop() stopped} and then {@link #start() started}.
-   * If it is not running, the definition function will still be executed straight away and the new definition used next time the server is started.
+   * If the server is running, the new application is built and its {@link Service services} started while the current application continues to serve requests.
+   * New requests are then handled by the new application, on the existing connections and the existing listening socket.
+   * Once the requests in progress on the previous application have completed (waiting at most the {@link ServerConfig#getShutdownTimeout() shutdown timeout}), its services are stopped.
+   * If the definition function fails, the current application is left running.
+   * <p>
+   * If the new definition changes the port, address or number of threads, or either definition is in development mode,
+   * the server is instead {@link #stop() stopped} and then {@link #start() started}.
    *
    * @return this
    * @throws Exception any thrown from the definition function, {@link #stop()} or {@link #start()} methods.
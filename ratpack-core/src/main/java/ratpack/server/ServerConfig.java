@@ -32,11 +32,13 @@ import ratpack.server.internal.DefaultServerConfigBuilder;
 import ratpack.server.internal.ServerEnvironment;
 
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
 import java.io.File;
 import java.net.InetAddress;
 import java.net.URI;
 import java.net.URL;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Properties;
 
@@ -63,6 +65,16 @@ public interface ServerConfig extends ConfigData {
    */
   int DEFAULT_MAX_CONTENT_LENGTH = 1048576;
 
+  /**
+   * The default number of items requested at a time from a publisher whose items are streamed as the response body, {@value}.
+   */
+  int DEFAULT_RESPONSE_STREAM_WINDOW = 16;
+
+  /**
+   * The default maximum time to wait for requests in progress to complete when stopping or reloading, 30 seconds.
+   */
+  Duration DEFAULT_SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
   /**
    * The default number of threads an application should use.
    *
@@ -217,6 +229,14 @@ public interface ServerConfig extends ConfigData {
   @Nullable
   SSLContext getSSLContext();
 
+  /**
+   * The SSL parameters (e.g. enabled protocols and cipher suites) to apply to the engine of each HTTPS connection.
+   *
+   * @return The SSL parameters or <code>null</code> if the defaults of the {@link #getSSLContext() SSL context} should be used.
+   */
+  @Nullable
+  SSLParameters getSSLParameters();
+
   /**
    * The max content length to use for the HttpObjectAggregator.
    *
@@ -224,6 +244,30 @@ public interface ServerConfig extends ConfigData {
    */
   int getMaxContentLength();
 
+  /**
+   * The maximum number of items requested at a time from a publisher whose items are streamed as the response body.
+   * <p>
+   * Items received within a window are written to the connection together,
+   * instead of being flushed individually.
+   *
+   * @return the maximum number of items requested at a time when streaming a response
+   * @see ratpack.http.Response#sendStream(org.reactivestreams.Publisher)
+   */
+  int getResponseStreamWindow();
+
+  /**
+   * The maximum time to wait for requests in progress to complete when the server is stopped or reloaded.
+   * <p>
+   * When the server is stopped, it first stops accepting connections and sends {@code Connection: close} on subsequent responses.
+   * The {@link Service services} are stopped once all requests in progress have completed and their responses have been written
+   * (including streamed responses that are still being sent after their request completed), or this timeout has elapsed.
+   * Idle connections are closed once the requests in progress have completed.
+   *
+   * @return the maximum time to wait for requests in progress to complete
+   * @see RatpackServer#stop()
+   */
+  Duration getShutdownTimeout();
+
   /**
    * Whether or not the base dir of the application has been set.
    *
@@ -319,6 +363,28 @@ public interface ServerConfig extends ConfigData {
      */
     Builder maxContentLength(int maxContentLength);
 
+    /**
+     * The maximum number of items requested at a time from a publisher whose items are streamed as the response body.
+     *
+     * Default value is {@value ServerConfig#DEFAULT_RESPONSE_STREAM_WINDOW}.
+     *
+     * @param responseStreamWindow the maximum number of items to request at a time
+     * @return {@code this}
+     * @see ServerConfig#getResponseStreamWindow()
+     */
+    Builder responseStreamWindow(int responseStreamWindow);
+
+    /**
+     * The maximum time to wait for requests in progress to complete when the server is stopped or reloaded.
+     *
+     * Default value is 30 seconds.
+     *
+     * @param shutdownTimeout the maximum time to wait for requests in progress to complete
+     * @return {@code this}
+     * @see ServerConfig#getShutdownTimeout()
+     */
+    Builder shutdownTimeout(Duration shutdownTimeout);
+
     /**
      * The SSL context to use if the application serves content over HTTPS.
      *
@@ -329,6 +395,18 @@ public interface ServerConfig extends ConfigData {
      */
     Builder ssl(SSLContext sslContext);
 
+    /**
+     * The SSL context to use if the application serves content over HTTPS, and the parameters to apply to each connection.
+     * <p>
+     * The context is shared by all connections, so its server session cache (see {@link SSLContext#getServerSessionContext()}) allows clients to resume sessions.
+     *
+     * @param sslContext the SSL context
+     * @param sslParameters the SSL parameters, such as the enabled protocols and cipher suites
+     * @return {@code this}
+     * @see ServerConfig#getSSLParameters()
+     */
+    Builder ssl(SSLContext sslContext, SSLParameters sslParameters);
+
     /**
      * {@inheritDoc}
      */
@@ -61,9 +61,9 @@ import ratpack.api.NonBlocking;
  *     server.start();
  *     assertEquals("[start]", service.events.toString());
  *     server.reload();
- *     assertEquals("[start, stop, start]", service.events.toString());
+ *     assertEquals("[start, start, stop]", service.events.toString());
  *     server.stop();
- *     assertEquals("[start, stop, start, stop]", service.events.toString());
+ *     assertEquals("[start, start, stop, stop]", service.events.toString());
  *   }
  * }
  * }</pre>
@@ -74,6 +74,9 @@ import ratpack.api.NonBlocking;
  * They are notified in reverse order for stop events.
  * The order in that services are returned from the server registry is dependent on the registry implementation.
  * Generally, most implementations return objects in the order in which they are added to the registry.
+ * <p>
+ * When the server is {@link RatpackServer#reload() reloaded}, the services of the new server registry are started before those of the previous registry are stopped,
+ * as the previous application keeps serving requests until the new one is ready.
  *
  * <h3>Async services</h3>
  * <p>
@@ -21,6 +21,8 @@ import com.google.common.reflect.TypeToken;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.*;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.HttpObjectAggregator;
@@ -29,10 +31,10 @@ import io.netty.handler.codec.http.HttpResponseEncoder;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.stream.ChunkedWriteHandler;
 import io.netty.util.ResourceLeakDetector;
+import io.netty.util.concurrent.GlobalEventExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import ratpack.exec.ExecControl;
-import ratpack.exec.ExecController;
 import ratpack.exec.Throttle;
 import ratpack.exec.internal.DefaultExecController;
 import ratpack.func.Action;
@@ -52,11 +54,15 @@ import ratpack.util.internal.ChannelImplDetector;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
 import java.io.File;
 import java.net.InetSocketAddress;
+import java.time.Duration;
 import java.util.Iterator;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -73,17 +79,25 @@ public class DefaultRatpackServer implements RatpackServer {
   public static final TypeToken<HandlerDecorator> HANDLER_DECORATOR_TYPE_TOKEN = TypeToken.of(HandlerDecorator.class);
   private static final Logger LOGGER = LoggerFactory.getLogger(RatpackServer.class);
 
+  // how long the event loops must be free of new tasks before they stop, so that the last writes and their listeners complete
+  private static final Duration SHUTDOWN_QUIET_PERIOD = Duration.ofMillis(100);
+
   protected final Action<? super RatpackServerSpec> definitionFactory;
 
   protected InetSocketAddress boundAddress;
   protected Channel channel;
   protected DefaultExecController execController;
   protected Registry serverRegistry = Registries.empty();
+  protected SwitchingChannelHandler channelHandler;
+
+  // the open connections, which are closed gracefully when stopping
+  private final ChannelGroup connections = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+  protected volatile ServerConfig serverConfig;
 
   protected boolean reloading;
   protected final AtomicBoolean needsReload = new AtomicBoolean();
 
-  protected SSLEngine sslEngine;
+  protected boolean useSsl;
   private final ServerCapturer.Overrides overrides;
 
   public DefaultRatpackServer(Action<? super RatpackServerSpec> definitionFactory) throws Exception {
@@ -97,9 +111,10 @@ public class DefaultRatpackServer implements RatpackServer {
       return;
     }
 
-    ServerConfig serverConfig;
+    start(buildUserDefinition());
+  }
 
-    DefinitionBuild definitionBuild = buildUserDefinition();
+  private void start(DefinitionBuild definitionBuild) throws Exception {
     if (definitionBuild.error != null) {
       if (definitionBuild.getServerConfig().isDevelopment()) {
         LOGGER.warn("Exception raised getting server config (will use default config until reload):", definitionBuild.error);
@@ -111,8 +126,8 @@ public class DefaultRatpackServer implements RatpackServer {
 
     serverConfig = definitionBuild.getServerConfig();
     execController = new DefaultExecController(serverConfig.getThreads());
-    ChannelHandler channelHandler = buildHandler(definitionBuild);
-    channel = buildChannel(serverConfig, channelHandler);
+    channelHandler = new SwitchingChannelHandler(buildHandler(definitionBuild));
+    channel = buildChannel(channelHandler);
 
     boundAddress = (InetSocketAddress) channel.localAddress();
 
@@ -178,7 +193,7 @@ public class DefaultRatpackServer implements RatpackServer {
     }
   }
 
-  private ChannelHandler buildHandler(DefinitionBuild definitionBuild) throws Exception {
+  private ChannelInboundHandler buildHandler(DefinitionBuild definitionBuild) throws Exception {
     if (definitionBuild.getServerConfig().isDevelopment()) {
       return new ReloadHandler(definitionBuild);
     } else {
@@ -186,13 +201,8 @@ public class DefaultRatpackServer implements RatpackServer {
     }
   }
 
-  protected Channel buildChannel(final ServerConfig serverConfig, final ChannelHandler handlerAdapter) throws InterruptedException {
-
-    SSLContext sslContext = serverConfig.getSSLContext();
-    if (sslContext != null) {
-      this.sslEngine = sslContext.createSSLEngine();
-      sslEngine.setUseClientMode(false);
-    }
+  protected Channel buildChannel(final ChannelHandler handlerAdapter) throws InterruptedException {
+    this.useSsl = serverConfig.getSSLContext() != null;
 
     return new ServerBootstrap()
       .group(execController.getEventLoopGroup())
@@ -202,8 +212,21 @@ public class DefaultRatpackServer implements RatpackServer {
       .childHandler(new ChannelInitializer<SocketChannel>() {
         @Override
         protected void initChannel(SocketChannel ch) throws Exception {
+          // read per connection, as a reload may change these without rebinding
+          ServerConfig serverConfig = DefaultRatpackServer.this.serverConfig;
+          SSLContext sslContext = serverConfig.getSSLContext();
+          SSLParameters sslParameters = serverConfig.getSSLParameters();
+
+          connections.add(ch);
+
           ChannelPipeline pipeline = ch.pipeline();
           if (sslContext != null) {
+            // engines are per connection, sessions are cached by the shared context
+            SSLEngine sslEngine = sslContext.createSSLEngine();
+            sslEngine.setUseClientMode(false);
+            if (sslParameters != null) {
+              sslEngine.setSSLParameters(sslParameters);
+            }
             pipeline.addLast("ssl", new SslHandler(sslEngine));
           }
 
@@ -221,27 +244,29 @@ public class DefaultRatpackServer implements RatpackServer {
   }
 
   protected NettyHandlerAdapter buildAdapter(DefinitionBuild definition) throws Exception {
-    serverRegistry = buildServerRegistry(definition.getServerConfig(), definition.getUserRegistryFactory());
+    Registry registry = buildServerRegistry(definition.getServerConfig(), definition.getUserRegistryFactory());
 
-    Handler ratpackHandler = buildRatpackHandler(definition.getServerConfig(), serverRegistry, definition.getHandlerFactory());
-    ratpackHandler = decorateHandler(ratpackHandler, serverRegistry);
+    Handler ratpackHandler = buildRatpackHandler(definition.getServerConfig(), registry, definition.getHandlerFactory());
+    ratpackHandler = decorateHandler(ratpackHandler, registry);
 
     ExecControl execControl = execController.getControl();
-    Iterator<? extends Service> services = serverRegistry.getAll(Service.class).iterator();
+    Iterator<? extends Service> services = registry.getAll(Service.class).iterator();
     try {
-      executeEvents(services, new DefaultEvent(serverRegistry, execControl, reloading), execControl, Service::onStart, (service, error) -> {
+      executeEvents(services, new DefaultEvent(registry, execControl, reloading), execControl, Service::onStart, (service, error) -> {
         throw new StartupFailureException("Service '" + service.getName() + "' failed startup", error);
       });
     } catch (StartupFailureException e) {
       try {
-        shutdownServices();
+        shutdownServices(registry);
       } catch (Exception e1) {
         e.addSuppressed(e1);
       }
       throw e;
     }
 
-    return new NettyHandlerAdapter(serverRegistry, ratpackHandler);
+    // only replace the current registry once the new one is fully started, as it may still be serving requests
+    serverRegistry = registry;
+    return new NettyHandlerAdapter(registry, ratpackHandler);
   }
 
   private Registry buildServerRegistry(ServerConfig serverConfig, Function<? super Registry, ? extends Registry> userRegistryFactory) {
@@ -273,21 +298,33 @@ public class DefaultRatpackServer implements RatpackServer {
       if (!isRunning()) {
         return;
       }
-      shutdownServices();
+
+      // stop accepting connections, but let the requests in progress complete before stopping services
+      long deadline = System.nanoTime() + serverConfig.getShutdownTimeout().toNanos();
+      channel.close();
+      Optional<NettyHandlerAdapter> adapter = currentAdapter();
+      if (adapter.isPresent()) {
+        adapter.get().disableKeepAlive();
+        drain(adapter.get());
+        closeConnections(deadline);
+      }
+
+      shutdownServices(serverRegistry);
     } finally {
       Optional.ofNullable(channel).ifPresent(Channel::close);
-      Optional.ofNullable(execController).ifPresent(ExecController::close);
+      Optional.ofNullable(execController).ifPresent(e -> e.close(SHUTDOWN_QUIET_PERIOD, serverConfig.getShutdownTimeout()));
       channel = null;
+      channelHandler = null;
       execController = null;
     }
   }
 
-  private void shutdownServices() throws Exception {
-    if (serverRegistry != null) {
-      Iterable<? extends Service> services = serverRegistry.getAll(Service.class);
+  private void shutdownServices(Registry registry) throws Exception {
+    if (registry != null) {
+      Iterable<? extends Service> services = registry.getAll(Service.class);
       Iterator<Service> reverseServices = ImmutableList.copyOf(services).reverse().iterator();
       ExecControl execControl = execController.getControl();
-      executeEvents(reverseServices, new DefaultEvent(serverRegistry, execControl, reloading), execControl, Service::onStop, (service, error) ->
+      executeEvents(reverseServices, new DefaultEvent(registry, execControl, reloading), execControl, Service::onStop, (service, error) ->
           LOGGER.warn("Service '" + service.getName() + "' thrown an exception while stopping.", error)
       );
     }
@@ -295,20 +332,89 @@ public class DefaultRatpackServer implements RatpackServer {
 
   @Override
   public synchronized RatpackServer reload() throws Exception {
+    if (!isRunning()) {
+      return this;
+    }
+
     reloading = true;
-    boolean start = false;
+    try {
+      DefinitionBuild definitionBuild = buildUserDefinition();
+      if (definitionBuild.error != null && !definitionBuild.getServerConfig().isDevelopment()) {
+        // fail without disturbing the running application
+        throw Exceptions.toException(definitionBuild.error);
+      }
 
-    if (this.isRunning()) {
-      start = true;
-      this.stop();
+      if (canSwap(definitionBuild.getServerConfig())) {
+        swap(definitionBuild);
+      } else {
+        stop();
+        start(definitionBuild);
+      }
+    } finally {
+      reloading = false;
     }
+    return this;
+  }
 
-    if (start) {
-      start();
+  private boolean canSwap(ServerConfig newServerConfig) {
+    if (serverConfig.isDevelopment() || newServerConfig.isDevelopment()) {
+      // development mode reloads within the ReloadHandler, and renders definition errors on requests
+      return false;
     }
 
-    reloading = false;
-    return this;
+    // anything else that is read when building the channel is read per connection
+    return newServerConfig.getPort() == serverConfig.getPort()
+      && Objects.equals(newServerConfig.getAddress(), serverConfig.getAddress())
+      && newServerConfig.getThreads() == serverConfig.getThreads();
+  }
+
+  private void swap(DefinitionBuild definitionBuild) throws Exception {
+    Registry previousRegistry = serverRegistry;
+
+    // the current application keeps serving while the new one is built and its services started
+    NettyHandlerAdapter adapter = buildAdapter(definitionBuild);
+
+    serverConfig = definitionBuild.getServerConfig();
+    useSsl = serverConfig.getSSLContext() != null;
+    ChannelInboundHandler previous = channelHandler.swap(adapter);
+
+    if (previous instanceof NettyHandlerAdapter) {
+      drain((NettyHandlerAdapter) previous);
+    }
+    shutdownServices(previousRegistry);
+  }
+
+  private Optional<NettyHandlerAdapter> currentAdapter() {
+    ChannelInboundHandler handler = channelHandler.get();
+    ChannelHandler adapter = handler instanceof ReloadHandler ? ((ReloadHandler) handler).inner : handler;
+    return adapter instanceof NettyHandlerAdapter ? Optional.of((NettyHandlerAdapter) adapter) : Optional.empty();
+  }
+
+  private void drain(NettyHandlerAdapter adapter) throws InterruptedException {
+    if (execController.isManagedThread()) {
+      // called from within a request, which would be waiting for itself to complete
+      return;
+    }
+
+    Duration timeout = serverConfig.getShutdownTimeout();
+    if (!adapter.awaitIdle(timeout)) {
+      LOGGER.warn("{} requests still in progress after waiting {}, continuing regardless", adapter.getActiveCount(), timeout);
+    }
+  }
+
+  // executions completing does not mean their responses have been written, as responses may be streamed or still be being flushed
+  private void closeConnections(long deadline) throws InterruptedException {
+    if (execController.isManagedThread()) {
+      // called from within a request, whose response would never be written while waiting
+      return;
+    }
+
+    connections.forEach(NettyHandlerAdapter::closeWhenIdle);
+    long remaining = Math.max(0, deadline - System.nanoTime());
+    if (!connections.newCloseFuture().await(remaining, TimeUnit.NANOSECONDS)) {
+      LOGGER.warn("{} connections still sending responses after waiting {}, closing regardless", connections.size(), serverConfig.getShutdownTimeout());
+      connections.close();
+    }
   }
 
   @Override
@@ -318,7 +424,7 @@ public class DefaultRatpackServer implements RatpackServer {
 
   @Override
   public synchronized String getScheme() {
-    return isRunning() ? sslEngine == null ? "http" : "https" : null;
+    return isRunning() ? useSsl ? "https" : "http" : null;
   }
 
   public synchronized int getBindPort() {
@@ -17,6 +17,7 @@
 package ratpack.server.internal;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.channel.*;
 import io.netty.handler.codec.http.*;
 import io.netty.handler.ssl.SslHandler;
@@ -40,6 +41,8 @@ import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 
 public class DefaultResponseTransmitter implements ResponseTransmitter {
 
@@ -47,6 +50,10 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
   private static final Runnable NOOP_RUNNABLE = () -> {
   };
 
+  // Streamed items are written without flushing until this many bytes are pending
+  private static final int FLUSH_THRESHOLD = 8192;
+  private static final int DEFAULT_MAX_COMPONENTS = 16;
+
   private final AtomicBoolean transmitted;
   private final ExecControl execControl;
   private final Channel channel;
@@ -54,14 +61,18 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
   private final Request ratpackRequest;
   private final HttpHeaders responseHeaders;
   private final DefaultEventController<RequestOutcome> requestOutcomeEventController;
-  private final boolean isKeepAlive;
+  private final BooleanSupplier keepAliveDisabled;
+  // written when the response starts, and read when it ends, which may be on a different thread for streamed responses
+  private volatile boolean isKeepAlive;
+  private volatile ChannelFuture lastContentFuture;
   private final boolean isSsl;
+  private final int responseStreamWindow;
 
   private long stopTime;
 
   private Runnable onWritabilityChanged = NOOP_RUNNABLE;
 
-  public DefaultResponseTransmitter(AtomicBoolean transmitted, ExecControl execControl, Channel channel, FullHttpRequest nettyRequest, Request ratpackRequest, HttpHeaders responseHeaders, DefaultEventController<RequestOutcome> requestOutcomeEventController) {
+  public DefaultResponseTransmitter(AtomicBoolean transmitted, ExecControl execControl, Channel channel, FullHttpRequest nettyRequest, Request ratpackRequest, HttpHeaders responseHeaders, DefaultEventController<RequestOutcome> requestOutcomeEventController, int responseStreamWindow, BooleanSupplier keepAliveDisabled) {
     this.transmitted = transmitted;
     this.execControl = execControl;
     this.channel = channel;
@@ -71,6 +82,8 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
     this.requestOutcomeEventController = requestOutcomeEventController;
     this.isKeepAlive = HttpHeaderUtil.isKeepAlive(nettyRequest);
     this.isSsl = channel.pipeline().get(SslHandler.class) != null;
+    this.responseStreamWindow = Math.max(1, responseStreamWindow);
+    this.keepAliveDisabled = keepAliveDisabled;
   }
 
   private ChannelFuture pre(HttpResponseStatus responseStatus) {
@@ -80,7 +93,11 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
       HttpResponse headersResponse = new CustomHttpResponse(responseStatus, responseHeaders);
       nettyRequest.release();
 
-      if (isKeepAlive) {
+      if (isKeepAlive && keepAliveDisabled.getAsBoolean()) {
+        // the server is stopping, tell the client not to send further requests on this connection
+        isKeepAlive = false;
+        headersResponse.headers().set(HttpHeaderConstants.CONNECTION, HttpHeaderConstants.CLOSE);
+      } else if (isKeepAlive) {
         headersResponse.headers().set(HttpHeaderConstants.CONNECTION, HttpHeaderConstants.KEEP_ALIVE);
       }
 
@@ -142,6 +159,21 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
       private Subscription subscription;
       private final AtomicBoolean done = new AtomicBoolean();
 
+      // items requested but not yet received
+      private final AtomicInteger outstanding = new AtomicInteger();
+
+      // items received but not yet written, guarded by this
+      private ByteBuf pending;
+      private boolean pendingComposite;
+      private boolean flushScheduled;
+
+      private final Runnable flushPending = () -> {
+        synchronized (this) {
+          flushScheduled = false;
+          writePending(true);
+        }
+      };
+
       private final ChannelFutureListener cancelOnFailure = future -> {
         if (!done.get()) {
           if (!future.isSuccess()) {
@@ -153,10 +185,53 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
       private void cancel() {
         if (done.compareAndSet(false, true)) {
           subscription.cancel();
+          synchronized (this) {
+            if (pending != null) {
+              pending.release();
+              pending = null;
+            }
+          }
           post(responseStatus);
         }
       }
 
+      private void requestMore() {
+        while (channel.isWritable() && !done.get()) {
+          int current = outstanding.get();
+          if (current > responseStreamWindow / 2) {
+            return;
+          }
+          if (outstanding.compareAndSet(current, responseStreamWindow)) {
+            subscription.request(responseStreamWindow - current);
+            return;
+          }
+        }
+      }
+
+      private void addPending(ByteBuf byteBuf) {
+        if (pending == null) {
+          pending = byteBuf;
+        } else if (pendingComposite) {
+          ((CompositeByteBuf) pending).addComponent(true, byteBuf);
+        } else {
+          CompositeByteBuf composite = channel.alloc().compositeBuffer(Math.max(responseStreamWindow, DEFAULT_MAX_COMPONENTS));
+          composite.addComponent(true, pending);
+          composite.addComponent(true, byteBuf);
+          pending = composite;
+          pendingComposite = true;
+        }
+      }
+
+      private void writePending(boolean flush) {
+        if (pending != null) {
+          HttpContent content = new DefaultHttpContent(pending);
+          pending = null;
+          pendingComposite = false;
+          ChannelFuture future = flush ? channel.writeAndFlush(content) : channel.write(content);
+          future.addListener(cancelOnFailure);
+        }
+      }
+
       @Override
       public void onSubscribe(Subscription subscription) {
         if (subscription == null) {
@@ -169,11 +244,7 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
 
         this.subscription = subscription;
 
-        onWritabilityChanged = () -> {
-          if (channel.isWritable() && !done.get()) {
-            this.subscription.request(1);
-          }
-        };
+        onWritabilityChanged = this::requestMore;
 
         ChannelFuture channelFuture = pre(responseStatus);
         if (channelFuture == null) {
@@ -181,22 +252,37 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
           notifyListeners(responseStatus, channel.close());
         } else {
           channelFuture.addListener(cancelOnFailure);
-          if (channel.isWritable()) {
-            this.subscription.request(1);
-          }
+          requestMore();
         }
       }
 
       @Override
       public void onNext(ByteBuf o) {
-        if (channel.isOpen()) {
-          channel.writeAndFlush(new DefaultHttpContent(o)).addListener(cancelOnFailure);
-          if (channel.isWritable()) {
-            subscription.request(1);
-          }
-        } else {
+        if (!channel.isOpen()) {
+          o.release();
           cancel();
+          return;
+        }
+
+        synchronized (this) {
+          if (done.get()) {
+            o.release();
+            return;
+          }
+          addPending(o);
+          // Write immediately once there is enough to fill a packet, otherwise after whatever else is produced in this event loop tick.
+          // Off the event loop, a write would be queued behind an already scheduled flush, which could then write later items first,
+          // so items are only ever written by the scheduled flush.
+          if (pending.readableBytes() >= FLUSH_THRESHOLD && channel.eventLoop().inEventLoop()) {
+            writePending(true);
+          } else if (!flushScheduled) {
+            flushScheduled = true;
+            channel.eventLoop().execute(flushPending);
+          }
         }
+
+        outstanding.decrementAndGet();
+        requestMore();
       }
 
       @Override
@@ -206,6 +292,9 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
         }
         LOGGER.warn("Exception thrown transmitting stream", t);
         if (done.compareAndSet(false, true)) {
+          synchronized (this) {
+            writePending(false);
+          }
           post(responseStatus);
         }
       }
@@ -213,6 +302,9 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
       @Override
       public void onComplete() {
         if (done.compareAndSet(false, true)) {
+          synchronized (this) {
+            writePending(false);
+          }
           post(responseStatus);
         }
       }
@@ -222,9 +314,11 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
   private void post(HttpResponseStatus responseStatus) {
     if (channel.isOpen()) {
       ChannelFuture lastContentFuture = channel.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
-      if (!isKeepAlive) {
+      // keep alive may have been disabled by the server stopping since the response started
+      if (!isKeepAlive || keepAliveDisabled.getAsBoolean()) {
         lastContentFuture.addListener(ChannelFutureListener.CLOSE);
       }
+      this.lastContentFuture = lastContentFuture;
       notifyListeners(responseStatus, lastContentFuture);
     } else {
       notifyListeners(responseStatus, channel.newSucceededFuture());
@@ -241,6 +335,15 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
     }
   }
 
+  /**
+   * The future for the write of the end of the response, or {@code null} if the response has not been completely handed to the channel yet.
+   *
+   * @return the future for the write of the end of the response
+   */
+  public ChannelFuture getLastContentFuture() {
+    return lastContentFuture;
+  }
+
   public void writabilityChanged() {
     onWritabilityChanged.run();
   }
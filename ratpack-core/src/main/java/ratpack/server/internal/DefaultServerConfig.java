@@ -27,8 +27,10 @@ import ratpack.server.NoBaseDirException;
 import ratpack.server.ServerConfig;
 
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
 import java.net.InetAddress;
 import java.net.URI;
+import java.time.Duration;
 import java.util.Optional;
 
 public class DefaultServerConfig extends DelegatingConfigData implements ServerConfig {
@@ -81,11 +83,27 @@ public class DefaultServerConfig extends DelegatingConfigData implements ServerC
     return serverConfigData.getSslContext();
   }
 
+  @Nullable
+  @Override
+  public SSLParameters getSSLParameters() {
+    return serverConfigData.getSslParameters();
+  }
+
   @Override
   public int getMaxContentLength() {
     return serverConfigData.getMaxContentLength();
   }
 
+  @Override
+  public int getResponseStreamWindow() {
+    return serverConfigData.getResponseStreamWindow();
+  }
+
+  @Override
+  public Duration getShutdownTimeout() {
+    return serverConfigData.getShutdownTimeout();
+  }
+
   @Override
   public boolean isHasBaseDir() {
     return serverConfigData.getBaseDir() != null;
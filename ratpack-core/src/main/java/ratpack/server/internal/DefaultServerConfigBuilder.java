@@ -31,10 +31,12 @@ import ratpack.func.Action;
 import ratpack.server.ServerConfig;
 
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
 import java.net.InetAddress;
 import java.net.URI;
 import java.net.URL;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -92,12 +94,31 @@ public class DefaultServerConfigBuilder extends DefaultConfigDataSpec implements
     return this;
   }
 
+  @Override
+  public ServerConfig.Builder responseStreamWindow(int responseStreamWindow) {
+    serverConfigData.put("responseStreamWindow", responseStreamWindow);
+    return this;
+  }
+
+  @Override
+  public ServerConfig.Builder shutdownTimeout(Duration shutdownTimeout) {
+    serverConfigData.putPOJO("shutdownTimeout", shutdownTimeout);
+    return this;
+  }
+
   @Override
   public ServerConfig.Builder ssl(SSLContext sslContext) {
     serverConfigData.putPOJO("ssl", sslContext);
     return this;
   }
 
+  @Override
+  public ServerConfig.Builder ssl(SSLContext sslContext, SSLParameters sslParameters) {
+    ssl(sslContext);
+    serverConfigData.putPOJO("sslParameters", sslParameters);
+    return this;
+  }
+
   @Override
   public ServerConfig.Builder configureObjectMapper(Action<ObjectMapper> action) {
     super.configureObjectMapper(action);
@@ -25,8 +25,10 @@ import ratpack.server.NoBaseDirException;
 import ratpack.server.ServerConfig;
 
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
 import java.net.InetAddress;
 import java.net.URI;
+import java.time.Duration;
 
 public class DelegatingServerConfig extends DelegatingConfigData implements ServerConfig {
 
@@ -74,11 +76,27 @@ public class DelegatingServerConfig extends DelegatingConfigData implements Serv
     return delegate.getSSLContext();
   }
 
+  @Override
+  @Nullable
+  public SSLParameters getSSLParameters() {
+    return delegate.getSSLParameters();
+  }
+
   @Override
   public int getMaxContentLength() {
     return delegate.getMaxContentLength();
   }
 
+  @Override
+  public int getResponseStreamWindow() {
+    return delegate.getResponseStreamWindow();
+  }
+
+  @Override
+  public Duration getShutdownTimeout() {
+    return delegate.getShutdownTimeout();
+  }
+
   @Override
   public boolean isHasBaseDir() {
     return delegate.isHasBaseDir();
@@ -49,7 +49,10 @@ import ratpack.server.ServerConfig;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.CharBuffer;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @ChannelHandler.Sharable
 public class NettyHandlerAdapter extends SimpleChannelInboundHandler<FullHttpRequest> {
@@ -66,8 +69,13 @@ public class NettyHandlerAdapter extends SimpleChannelInboundHandler<FullHttpReq
 
   private final Registry serverRegistry;
   private final boolean development;
+  private final int responseStreamWindow;
   private final ExecControl execControl;
 
+  private final AtomicInteger activeCount = new AtomicInteger();
+  private volatile boolean draining;
+  private volatile boolean keepAliveDisabled;
+
   public NettyHandlerAdapter(Registry serverRegistry, Handler handler) throws Exception {
     super(false);
 
@@ -76,7 +84,9 @@ public class NettyHandlerAdapter extends SimpleChannelInboundHandler<FullHttpReq
     this.applicationConstants = new DefaultContext.ApplicationConstants(this.serverRegistry, new DefaultRenderController(), Handlers.notFound());
     this.execController = serverRegistry.get(ExecController.class);
     this.execControl = execController.getControl();
-    this.development = serverRegistry.get(ServerConfig.class).isDevelopment();
+    ServerConfig serverConfig = serverRegistry.get(ServerConfig.class);
+    this.development = serverConfig.isDevelopment();
+    this.responseStreamWindow = serverConfig.getResponseStreamWindow();
   }
 
   @Override
@@ -108,9 +118,9 @@ public class NettyHandlerAdapter extends SimpleChannelInboundHandler<FullHttpReq
     final DefaultEventController<RequestOutcome> requestOutcomeEventController = new DefaultEventController<>();
     final AtomicBoolean transmitted = new AtomicBoolean(false);
 
-    final DefaultResponseTransmitter responseTransmitter = new DefaultResponseTransmitter(transmitted, execControl, channel, nettyRequest, request, nettyHeaders, requestOutcomeEventController);
+    final DefaultResponseTransmitter responseTransmitter = new DefaultResponseTransmitter(transmitted, execControl, channel, nettyRequest, request, nettyHeaders, requestOutcomeEventController, responseStreamWindow, () -> keepAliveDisabled);
 
-    ctx.attr(RESPONSE_TRANSMITTER_ATTRIBUTE_KEY).set(responseTransmitter);
+    channel.attr(RESPONSE_TRANSMITTER_ATTRIBUTE_KEY).set(responseTransmitter);
 
     Action<Action<Object>> subscribeHandler = thing -> {
       transmitted.set(true);
@@ -126,42 +136,113 @@ public class NettyHandlerAdapter extends SimpleChannelInboundHandler<FullHttpReq
     final Response response = new DefaultResponse(responseHeaders, ctx.alloc(), responseTransmitter);
     requestConstants.response = response;
 
+    activeCount.incrementAndGet();
     DefaultContext.start(channel.eventLoop(), execController.getControl(), requestConstants, serverRegistry, handlers, execution -> {
-      if (!transmitted.get()) {
-        Handler lastHandler = requestConstants.handler;
-        StringBuilder description = new StringBuilder();
-        description
-          .append("No response sent for ")
-          .append(request.getMethod().getName())
-          .append(" request to ")
-          .append(request.getUri())
-          .append(" (last handler: ");
-
-        if (lastHandler instanceof DescribingHandler) {
-          ((DescribingHandler) lastHandler).describeTo(description);
-        } else {
-          DescribingHandlers.describeTo(lastHandler, description);
+      try {
+        onExecutionComplete(ctx, transmitted, requestConstants, request, response, responseTransmitter);
+      } finally {
+        if (activeCount.decrementAndGet() == 0 && draining) {
+          synchronized (activeCount) {
+            activeCount.notifyAll();
+          }
         }
+      }
+    });
+  }
 
-        description.append(")");
-        String message = description.toString();
-        LOGGER.warn(message);
+  private void onExecutionComplete(ChannelHandlerContext ctx, AtomicBoolean transmitted, DefaultContext.RequestConstants requestConstants, Request request, Response response, DefaultResponseTransmitter responseTransmitter) {
+    if (!transmitted.get()) {
+      Handler lastHandler = requestConstants.handler;
+      StringBuilder description = new StringBuilder();
+      description
+        .append("No response sent for ")
+        .append(request.getMethod().getName())
+        .append(" request to ")
+        .append(request.getUri())
+        .append(" (last handler: ");
+
+      if (lastHandler instanceof DescribingHandler) {
+        ((DescribingHandler) lastHandler).describeTo(description);
+      } else {
+        DescribingHandlers.describeTo(lastHandler, description);
+      }
 
-        response.getHeaders().clear();
+      description.append(")");
+      String message = description.toString();
+      LOGGER.warn(message);
 
-        ByteBuf body;
-        if (development) {
-          CharBuffer charBuffer = CharBuffer.wrap(message);
-          body = ByteBufUtil.encodeString(ctx.alloc(), charBuffer, CharsetUtil.UTF_8);
-          response.contentType(HttpHeaderConstants.PLAIN_TEXT_UTF8);
-        } else {
-          body = ctx.alloc().buffer(0, 0);
-        }
+      response.getHeaders().clear();
 
-        response.getHeaders().set(HttpHeaderConstants.CONTENT_LENGTH, body.readableBytes());
-        responseTransmitter.transmit(HttpResponseStatus.INTERNAL_SERVER_ERROR, body);
+      ByteBuf body;
+      if (development) {
+        CharBuffer charBuffer = CharBuffer.wrap(message);
+        body = ByteBufUtil.encodeString(ctx.alloc(), charBuffer, CharsetUtil.UTF_8);
+        response.contentType(HttpHeaderConstants.PLAIN_TEXT_UTF8);
+      } else {
+        body = ctx.alloc().buffer(0, 0);
       }
-    });
+
+      response.getHeaders().set(HttpHeaderConstants.CONTENT_LENGTH, body.readableBytes());
+      responseTransmitter.transmit(HttpResponseStatus.INTERNAL_SERVER_ERROR, body);
+    }
+  }
+
+  /**
+   * The number of request executions started by this adapter that have not yet completed.
+   *
+   * @return the number of in-flight request executions
+   */
+  public int getActiveCount() {
+    return activeCount.get();
+  }
+
+  /**
+   * Causes subsequent responses to close their connection, instead of keeping it alive for further requests.
+   */
+  public void disableKeepAlive() {
+    keepAliveDisabled = true;
+  }
+
+  /**
+   * Closes the given connection once the response being sent on it has been written, or straight away if it is idle.
+   * <p>
+   * Keep alive must have been {@link #disableKeepAlive() disabled} first,
+   * so that responses that are not yet complete close their connection when they are.
+   *
+   * @param channel the connection to close
+   */
+  public static void closeWhenIdle(Channel channel) {
+    DefaultResponseTransmitter responseTransmitter = channel.attr(RESPONSE_TRANSMITTER_ATTRIBUTE_KEY).get();
+    if (responseTransmitter == null) {
+      channel.close();
+    } else {
+      ChannelFuture lastContentFuture = responseTransmitter.getLastContentFuture();
+      if (lastContentFuture != null) {
+        lastContentFuture.addListener(ChannelFutureListener.CLOSE);
+      }
+    }
+  }
+
+  /**
+   * Blocks until all request executions started by this adapter have completed, or the timeout elapses.
+   *
+   * @param timeout the maximum time to wait
+   * @return whether all executions completed in time
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public boolean awaitIdle(Duration timeout) throws InterruptedException {
+    draining = true;
+    long deadline = System.nanoTime() + timeout.toNanos();
+    synchronized (activeCount) {
+      while (activeCount.get() > 0) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          return false;
+        }
+        TimeUnit.NANOSECONDS.timedWait(activeCount, remaining);
+      }
+    }
+    return true;
   }
 
   @Override
@@ -176,7 +257,7 @@ public class NettyHandlerAdapter extends SimpleChannelInboundHandler<FullHttpReq
 
   @Override
   public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
-    ctx.attr(RESPONSE_TRANSMITTER_ATTRIBUTE_KEY).get().writabilityChanged();
+    ctx.channel().attr(RESPONSE_TRANSMITTER_ATTRIBUTE_KEY).get().writabilityChanged();
   }
 
   private boolean isIgnorableException(Throwable throwable) {
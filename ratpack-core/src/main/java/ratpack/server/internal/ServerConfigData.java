@@ -19,12 +19,14 @@ package ratpack.server.internal;
 import ratpack.server.ServerConfig;
 
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
 import java.net.InetAddress;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.UnknownHostException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 
 public class ServerConfigData {
 
@@ -35,7 +37,10 @@ public class ServerConfigData {
   private int threads = ServerConfig.DEFAULT_THREADS;
   private URI publicAddress;
   private SSLContext sslContext;
+  private SSLParameters sslParameters;
   private int maxContentLength = ServerConfig.DEFAULT_MAX_CONTENT_LENGTH;
+  private int responseStreamWindow = ServerConfig.DEFAULT_RESPONSE_STREAM_WINDOW;
+  private Duration shutdownTimeout = ServerConfig.DEFAULT_SHUTDOWN_TIMEOUT;
 
   public ServerConfigData(ServerEnvironment serverEnvironment) {
     this.port = serverEnvironment.getPort();
@@ -67,6 +72,14 @@ public class ServerConfigData {
     return maxContentLength;
   }
 
+  public int getResponseStreamWindow() {
+    return responseStreamWindow;
+  }
+
+  public Duration getShutdownTimeout() {
+    return shutdownTimeout;
+  }
+
   public void setBaseDir(String baseDir) {
     setBaseDir(Paths.get(baseDir));
   }
@@ -111,10 +124,26 @@ public class ServerConfigData {
     this.sslContext = sslContext;
   }
 
+  public SSLParameters getSslParameters() {
+    return sslParameters;
+  }
+
+  public void setSslParameters(SSLParameters sslParameters) {
+    this.sslParameters = sslParameters;
+  }
+
   public void setMaxContentLength(int maxContentLength) {
     this.maxContentLength = maxContentLength;
   }
 
+  public void setResponseStreamWindow(int responseStreamWindow) {
+    this.responseStreamWindow = responseStreamWindow;
+  }
+
+  public void setShutdownTimeout(Duration shutdownTimeout) {
+    this.shutdownTimeout = shutdownTimeout;
+  }
+
   public Path getBaseDir() {
     return baseDir;
   }
@@ -44,6 +44,7 @@ import ratpack.http.client.HttpClient;
 import ratpack.registry.Registries;
 import ratpack.registry.Registry;
 import ratpack.registry.RegistryBuilder;
+import ratpack.registry.internal.MultiEntryRegistry;
 import ratpack.render.internal.CharSequenceRenderer;
 import ratpack.render.internal.PromiseRenderer;
 import ratpack.render.internal.PublisherRenderer;
@@ -63,7 +64,7 @@ public abstract class ServerRegistry {
     ImmutableList<? extends ExecInterceptor> interceptors = ImmutableList.copyOf(userRegistry.getAll(ExecInterceptor.class));
     execController.getControl().setDefaultInterceptors(interceptors);
 
-    return baseRegistry.join(userRegistry);
+    return MultiEntryRegistry.flatten(baseRegistry, userRegistry);
   }
 
   private static Registry buildUserRegistry(Function<? super Registry, ? extends Registry> userRegistryFactory, Registry baseRegistry) {
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ratpack.server.internal;
+
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandler;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+
+/**
+ * The channel handler installed in every connection's pipeline, forwarding to the current application handler.
+ * <p>
+ * Swapping the delegate changes the handler used for all subsequent requests, on new and existing connections,
+ * without touching the pipelines or the listening channel.
+ * Requests already dispatched keep running against the handler (and registry) they were dispatched to.
+ */
+@ChannelHandler.Sharable
+public class SwitchingChannelHandler extends ChannelInboundHandlerAdapter {
+
+  private volatile ChannelInboundHandler delegate;
+
+  public SwitchingChannelHandler(ChannelInboundHandler delegate) {
+    this.delegate = delegate;
+  }
+
+  public ChannelInboundHandler get() {
+    return delegate;
+  }
+
+  /**
+   * Replaces the delegate.
+   *
+   * @param delegate the new delegate
+   * @return the previous delegate
+   */
+  public ChannelInboundHandler swap(ChannelInboundHandler delegate) {
+    ChannelInboundHandler previous = this.delegate;
+    this.delegate = delegate;
+    return previous;
+  }
+
+  @Override
+  public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+    delegate.channelRead(ctx, msg);
+  }
+
+  @Override
+  public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+    delegate.channelReadComplete(ctx);
+  }
+
+  @Override
+  public void channelActive(ChannelHandlerContext ctx) throws Exception {
+    delegate.channelActive(ctx);
+  }
+
+  @Override
+  public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+    delegate.channelInactive(ctx);
+  }
+
+  @Override
+  public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+    delegate.channelWritabilityChanged(ctx);
+  }
+
+  @Override
+  public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+    delegate.userEventTriggered(ctx, evt);
+  }
+
+  @Override
+  public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+    delegate.exceptionCaught(ctx, cause);
+  }
+
+}
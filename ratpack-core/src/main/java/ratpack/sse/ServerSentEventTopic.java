@@ -0,0 +1,168 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.sse;
+
+import ratpack.func.Action;
+import ratpack.render.Renderable;
+import ratpack.sse.internal.DefaultServerSentEventTopic;
+import ratpack.stream.OverflowStrategy;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * A source of server sent events that many clients can subscribe to, and that clients can resume after reconnecting.
+ * <p>
+ * The most recently published events are retained in a buffer bounded by both {@link Spec#maxEvents(int) event count} and {@link Spec#maxBytes(long) encoded size}.
+ * When a client reconnects with a {@code Last-Event-ID} header, the retained events published after that event are sent before any new events.
+ * If the event with that id is no longer retained, all retained events are sent.
+ * <p>
+ * Events published without an id are assigned one, as resumption requires each event to be identifiable.
+ * <pre class="java">{@code
+ * import ratpack.sse.ServerSentEventTopic;
+ * import ratpack.test.embed.EmbeddedApp;
+ *
+ * import java.util.concurrent.Executors;
+ *
+ * import static org.junit.Assert.assertEquals;
+ *
+ * public class Example {
+ *   public static void main(String[] args) throws Exception {
+ *     ServerSentEventTopic topic = ServerSentEventTopic.of(Executors.newSingleThreadScheduledExecutor(), s -> s.maxEvents(10));
+ *     topic.publish("a", e -> e.data(e.getItem()));
+ *     topic.publish("b", e -> e.data(e.getItem()));
+ *     topic.close();
+ *
+ *     EmbeddedApp.fromHandler(ctx -> ctx.render(topic.stream())).test(httpClient -> {
+ *       httpClient.requestSpec(r -> r.headers(h -> h.add("Last-Event-ID", "1")));
+ *       assertEquals("data: b\nid: 2\n\n", httpClient.getText());
+ *     });
+ *   }
+ * }
+ * }</pre>
+ */
+public interface ServerSentEventTopic extends AutoCloseable {
+
+  /**
+   * Creates a new topic.
+   *
+   * @param executor the executor used to send heartbeats
+   * @param spec the configuration of the topic
+   * @return a new topic
+   * @throws Exception any thrown by {@code spec}
+   */
+  static ServerSentEventTopic of(ScheduledExecutorService executor, Action<? super Spec> spec) throws Exception {
+    return DefaultServerSentEventTopic.of(executor, spec);
+  }
+
+  /**
+   * The configuration of a topic.
+   */
+  interface Spec {
+
+    /**
+     * The maximum number of events to retain for replay.
+     * <p>
+     * Defaults to 1000.
+     *
+     * @param maxEvents the maximum number of events to retain
+     * @return {@code this}
+     */
+    Spec maxEvents(int maxEvents);
+
+    /**
+     * The maximum total encoded size of the events retained for replay.
+     * <p>
+     * Defaults to 1MB.
+     *
+     * @param maxBytes the maximum number of bytes to retain
+     * @return {@code this}
+     */
+    Spec maxBytes(long maxBytes);
+
+    /**
+     * How often to send a comment line to every subscriber, to keep idle connections from being closed by intermediaries.
+     * <p>
+     * Heartbeats are not sent by default.
+     *
+     * @param interval the heartbeat interval
+     * @return {@code this}
+     */
+    Spec heartbeat(Duration interval);
+
+    /**
+     * The reconnection delay to advise clients to use, sent at the start of each stream.
+     * <p>
+     * No hint is sent by default.
+     *
+     * @param retry the reconnection delay
+     * @return {@code this}
+     */
+    Spec retry(Duration retry);
+
+    /**
+     * How many events to buffer for each subscriber that is not keeping up, and what to do when that buffer is full.
+     * <p>
+     * Defaults to 1000 events and {@link OverflowStrategy#ERROR}, which ends the stream of a subscriber that falls too far behind.
+     * Such a client can then reconnect and resume from its last received event, if that event is still retained.
+     * {@link OverflowStrategy#BLOCK} is not supported, as publishing does not wait for subscribers.
+     *
+     * @param capacity the maximum number of events to buffer for each subscriber
+     * @param overflowStrategy what to do when an event is published and a subscriber's buffer is full
+     * @return {@code this}
+     */
+    Spec buffer(int capacity, OverflowStrategy overflowStrategy);
+  }
+
+  /**
+   * Publishes the given event to all current subscribers, and retains it for replay.
+   * <p>
+   * If the event has no id, it is published with an id assigned by this topic, but the given event is not modified.
+   *
+   * @param event the event to publish
+   */
+  void publish(Event<?> event);
+
+  /**
+   * Creates an event for the given item, and publishes it.
+   *
+   * @param item the event item
+   * @param action the conversion of the item to an event
+   * @param <T> the type of item
+   * @throws Exception any thrown by {@code action}
+   * @see ServerSentEvents#serverSentEvents(org.reactivestreams.Publisher, Action)
+   */
+  <T> void publish(T item, Action<? super Event<T>> action) throws Exception;
+
+  /**
+   * Creates a {@link ratpack.handling.Context#render(Object) renderable} subscription to this topic.
+   * <p>
+   * When rendered, the retained events following the request's {@code Last-Event-ID} (if any) are sent, followed by all newly published events.
+   *
+   * @return a renderable subscription to this topic
+   */
+  Renderable stream();
+
+  /**
+   * Stops heartbeats and completes all subscriber streams.
+   * <p>
+   * Streams rendered after the topic is closed send the retained events then complete.
+   */
+  @Override
+  void close();
+
+}
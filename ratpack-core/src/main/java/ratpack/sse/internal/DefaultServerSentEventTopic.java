@@ -0,0 +1,367 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.sse.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import ratpack.func.Action;
+import ratpack.http.Response;
+import ratpack.http.internal.HttpHeaderConstants;
+import ratpack.render.Renderable;
+import ratpack.sse.Event;
+import ratpack.sse.ServerSentEventTopic;
+import ratpack.stream.OverflowStrategy;
+import ratpack.stream.TransformablePublisher;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.netty.util.CharsetUtil.UTF_8;
+
+public class DefaultServerSentEventTopic implements ServerSentEventTopic {
+
+  private static final byte[] HEARTBEAT = ":\n\n".getBytes(UTF_8);
+  private static final TopicSubscriber[] NO_SUBSCRIBERS = new TopicSubscriber[0];
+
+  private final int maxEvents;
+  private final long maxBytes;
+  private final byte[] retry;
+  private final int bufferCapacity;
+  private final OverflowStrategy overflowStrategy;
+  private final ScheduledFuture<?> heartbeat;
+
+  // guards retention, sequencing and the order in which events are queued for subscribers
+  private final Object lock = new Object();
+  private final ArrayDeque<RetainedEvent> retained = new ArrayDeque<>();
+  // replaced (never mutated) under the lock, so that it can be sent to after releasing the lock
+  private TopicSubscriber[] subscribers = NO_SUBSCRIBERS;
+  private long retainedBytes;
+  private long sequence;
+  private boolean closed;
+
+  private static class RetainedEvent {
+    private final String id;
+    private final byte[] bytes;
+
+    private RetainedEvent(String id, byte[] bytes) {
+      this.id = id;
+      this.bytes = bytes;
+    }
+  }
+
+  // Events are queued while holding the topic lock, so every subscriber sees the same order,
+  // and delivered after releasing it, so a slow subscriber only holds up its own delivery.
+  private static class TopicSubscriber {
+    private static final Object COMPLETE = new Object();
+
+    private final Subscriber<? super ByteBuf> subscriber;
+    private final Queue<Object> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile boolean cancelled;
+
+    private TopicSubscriber(Subscriber<? super ByteBuf> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    private void enqueue(byte[] bytes) {
+      pending.add(bytes);
+    }
+
+    private void complete() {
+      pending.add(COMPLETE);
+    }
+
+    private void drain() {
+      if (wip.getAndIncrement() != 0) {
+        return;
+      }
+      do {
+        Object next;
+        while ((next = pending.poll()) != null) {
+          if (cancelled) {
+            pending.clear();
+          } else if (next == COMPLETE) {
+            subscriber.onComplete();
+          } else {
+            subscriber.onNext(Unpooled.wrappedBuffer((byte[]) next));
+          }
+        }
+      } while (wip.decrementAndGet() != 0);
+    }
+  }
+
+  private static class DefaultSpec implements Spec {
+    private int maxEvents = 1000;
+    private long maxBytes = 1024 * 1024;
+    private Duration heartbeat;
+    private Duration retry;
+    private int bufferCapacity = 1000;
+    private OverflowStrategy overflowStrategy = OverflowStrategy.ERROR;
+
+    @Override
+    public Spec maxEvents(int maxEvents) {
+      if (maxEvents < 0) {
+        throw new IllegalArgumentException("maxEvents must be >= 0");
+      }
+      this.maxEvents = maxEvents;
+      return this;
+    }
+
+    @Override
+    public Spec maxBytes(long maxBytes) {
+      if (maxBytes < 0) {
+        throw new IllegalArgumentException("maxBytes must be >= 0");
+      }
+      this.maxBytes = maxBytes;
+      return this;
+    }
+
+    @Override
+    public Spec heartbeat(Duration interval) {
+      this.heartbeat = interval;
+      return this;
+    }
+
+    @Override
+    public Spec retry(Duration retry) {
+      this.retry = retry;
+      return this;
+    }
+
+    @Override
+    public Spec buffer(int capacity, OverflowStrategy overflowStrategy) {
+      if (capacity < 1) {
+        throw new IllegalArgumentException("capacity must be > 0");
+      }
+      if (overflowStrategy == OverflowStrategy.BLOCK) {
+        throw new IllegalArgumentException("overflowStrategy cannot be BLOCK");
+      }
+      this.bufferCapacity = capacity;
+      this.overflowStrategy = overflowStrategy;
+      return this;
+    }
+  }
+
+  public static ServerSentEventTopic of(ScheduledExecutorService executor, Action<? super Spec> action) throws Exception {
+    DefaultSpec spec = action.with(new DefaultSpec());
+    return new DefaultServerSentEventTopic(executor, spec);
+  }
+
+  private DefaultServerSentEventTopic(ScheduledExecutorService executor, DefaultSpec spec) {
+    this.maxEvents = spec.maxEvents;
+    this.maxBytes = spec.maxBytes;
+    this.retry = spec.retry == null ? null : ("retry: " + spec.retry.toMillis() + "\n\n").getBytes(UTF_8);
+    this.bufferCapacity = spec.bufferCapacity;
+    this.overflowStrategy = spec.overflowStrategy;
+    if (spec.heartbeat == null || spec.heartbeat.isZero()) {
+      this.heartbeat = null;
+    } else {
+      long interval = spec.heartbeat.toMillis();
+      this.heartbeat = executor.scheduleAtFixedRate(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @Override
+  public void publish(Event<?> event) {
+    TopicSubscriber[] recipients;
+    synchronized (lock) {
+      if (closed) {
+        throw new IllegalStateException("topic is closed");
+      }
+
+      String id = event.getId();
+      if (id == null) {
+        // assign the id to a copy, so that the caller's event can be reused or published to other topics
+        id = Long.toString(++sequence);
+        event = new DefaultEvent<>(event.getItem()).id(id).event(event.getEvent()).data(event.getData());
+      }
+
+      byte[] bytes = encode(event);
+      if (maxEvents > 0 && bytes.length <= maxBytes) {
+        retained.addLast(new RetainedEvent(id, bytes));
+        retainedBytes += bytes.length;
+        while (retained.size() > maxEvents || retainedBytes > maxBytes) {
+          retainedBytes -= retained.removeFirst().bytes.length;
+        }
+      }
+
+      recipients = subscribers;
+      for (TopicSubscriber recipient : recipients) {
+        recipient.enqueue(bytes);
+      }
+    }
+
+    drain(recipients);
+  }
+
+  @Override
+  public <T> void publish(T item, Action<? super Event<T>> action) throws Exception {
+    Event<T> event = action.with(new DefaultEvent<>(item));
+    if (event.getId() == null && event.getEvent() == null && event.getData() == null) {
+      throw new IllegalArgumentException("You must supply at least one of data, event, id");
+    }
+    publish(event);
+  }
+
+  @Override
+  public Renderable stream() {
+    return context -> {
+      String lastEventId = context.getRequest().getHeaders().get(HttpHeaderConstants.LAST_EVENT_ID);
+      TransformablePublisher<ByteBuf> publisher = s -> {
+        TopicSubscriber topicSubscriber = new TopicSubscriber(s);
+        s.onSubscribe(new Subscription() {
+          private boolean subscribed;
+
+          @Override
+          public void request(long n) {
+            if (!subscribed) {
+              subscribed = true;
+              subscribe(topicSubscriber, lastEventId);
+            }
+          }
+
+          @Override
+          public void cancel() {
+            topicSubscriber.cancelled = true;
+            unsubscribe(topicSubscriber);
+          }
+        });
+      };
+
+      Response response = context.getResponse();
+      response.getHeaders().add(HttpHeaderConstants.CONTENT_TYPE, HttpHeaderConstants.TEXT_EVENT_STREAM_CHARSET_UTF_8);
+      response.getHeaders().add(HttpHeaderConstants.CACHE_CONTROL, HttpHeaderConstants.NO_CACHE_FULL);
+      response.getHeaders().add(HttpHeaderConstants.PRAGMA, HttpHeaderConstants.NO_CACHE);
+      // the buffer deals with demand, this publisher pushes regardless
+      response.sendStream(publisher.buffer(bufferCapacity, overflowStrategy));
+    };
+  }
+
+  @Override
+  public void close() {
+    TopicSubscriber[] recipients;
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      if (heartbeat != null) {
+        heartbeat.cancel(false);
+      }
+      recipients = subscribers;
+      subscribers = NO_SUBSCRIBERS;
+      for (TopicSubscriber recipient : recipients) {
+        recipient.complete();
+      }
+    }
+
+    drain(recipients);
+  }
+
+  private void subscribe(TopicSubscriber subscriber, String lastEventId) {
+    synchronized (lock) {
+      if (retry != null) {
+        subscriber.enqueue(retry);
+      }
+      if (lastEventId != null) {
+        for (Iterator<RetainedEvent> replay = replayAfter(lastEventId); replay.hasNext();) {
+          subscriber.enqueue(replay.next().bytes);
+        }
+      }
+      if (closed) {
+        subscriber.complete();
+      } else {
+        TopicSubscriber[] added = Arrays.copyOf(subscribers, subscribers.length + 1);
+        added[subscribers.length] = subscriber;
+        subscribers = added;
+      }
+    }
+
+    subscriber.drain();
+  }
+
+  private void unsubscribe(TopicSubscriber subscriber) {
+    synchronized (lock) {
+      for (int i = 0; i < subscribers.length; ++i) {
+        if (subscribers[i] == subscriber) {
+          TopicSubscriber[] removed = new TopicSubscriber[subscribers.length - 1];
+          System.arraycopy(subscribers, 0, removed, 0, i);
+          System.arraycopy(subscribers, i + 1, removed, i, removed.length - i);
+          subscribers = removed;
+          return;
+        }
+      }
+    }
+  }
+
+  private Iterator<RetainedEvent> replayAfter(String lastEventId) {
+    Iterator<RetainedEvent> newestFirst = retained.descendingIterator();
+    int after = 0;
+    while (newestFirst.hasNext()) {
+      if (newestFirst.next().id.equals(lastEventId)) {
+        Iterator<RetainedEvent> replay = retained.iterator();
+        for (int skip = retained.size() - after; skip > 0; --skip) {
+          replay.next();
+        }
+        return replay;
+      }
+      ++after;
+    }
+    return retained.iterator();
+  }
+
+  private void heartbeat() {
+    TopicSubscriber[] recipients;
+    synchronized (lock) {
+      recipients = subscribers;
+      for (TopicSubscriber recipient : recipients) {
+        recipient.enqueue(HEARTBEAT);
+      }
+    }
+
+    drain(recipients);
+  }
+
+  private static void drain(TopicSubscriber[] recipients) {
+    for (TopicSubscriber recipient : recipients) {
+      recipient.drain();
+    }
+  }
+
+  private static byte[] encode(Event<?> event) {
+    ByteBuf buffer = ServerSentEventEncoder.INSTANCE.encode(event, UnpooledByteBufAllocator.DEFAULT);
+    try {
+      byte[] bytes = new byte[buffer.readableBytes()];
+      buffer.readBytes(bytes);
+      return bytes;
+    } finally {
+      buffer.release();
+    }
+  }
+
+}
@@ -16,16 +16,10 @@
 
 package ratpack.sse.internal;
 
-import com.google.common.collect.Lists;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
-import io.netty.buffer.ByteBufOutputStream;
 import ratpack.sse.Event;
 
-import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
-
 import static io.netty.util.CharsetUtil.UTF_8;
 
 public class ServerSentEventEncoder {
@@ -35,46 +29,122 @@ public class ServerSentEventEncoder {
   private static final byte[] EVENT_TYPE_PREFIX = "event: ".getBytes(UTF_8);
   private static final byte[] EVENT_DATA_PREFIX = "data: ".getBytes(UTF_8);
   private static final byte[] EVENT_ID_PREFIX = "id: ".getBytes(UTF_8);
-  private static final byte[] NEWLINE = "\n".getBytes(UTF_8);
+  private static final byte NEWLINE = '\n';
+
+  public ByteBuf encode(Event<?> event, ByteBufAllocator bufferAllocator) {
+    String eventType = event.getEvent();
+    String eventData = event.getData();
+    String eventId = event.getId();
 
-  public ByteBuf encode(Event<?> event, ByteBufAllocator bufferAllocator) throws Exception {
-    ByteBuf buffer = bufferAllocator.buffer();
+    ByteBuf buffer = bufferAllocator.buffer(estimateLength(eventType, eventId) + (eventData == null ? 0 : EVENT_DATA_PREFIX.length + eventData.length() + 1));
 
-    OutputStream outputStream = new ByteBufOutputStream(buffer);
-    Writer writer = new OutputStreamWriter(outputStream, UTF_8);
+    writeField(buffer, EVENT_TYPE_PREFIX, eventType);
 
-    String eventType = event.getEvent();
-    if (eventType != null) {
-      outputStream.write(EVENT_TYPE_PREFIX);
-      writer.append(eventType).flush();
-      outputStream.write(NEWLINE);
+    if (eventData != null) {
+      buffer.writeBytes(EVENT_DATA_PREFIX);
+      writeData(buffer, eventData);
+      buffer.writeByte(NEWLINE);
     }
 
-    String eventData = event.getData();
+    writeField(buffer, EVENT_ID_PREFIX, eventId);
+
+    buffer.writeByte(NEWLINE);
+    return buffer;
+  }
+
+  /**
+   * Encodes an event whose data has already been encoded as UTF-8.
+   * <p>
+   * The data buffer is copied and not released.
+   *
+   * @param eventType the event type, may be null
+   * @param eventData the UTF-8 encoded event data, may be null
+   * @param eventId the event id, may be null
+   * @param bufferAllocator the allocator for the encoded event
+   * @return the encoded event
+   */
+  public ByteBuf encode(String eventType, ByteBuf eventData, String eventId, ByteBufAllocator bufferAllocator) {
+    ByteBuf buffer = bufferAllocator.buffer(estimateLength(eventType, eventId) + (eventData == null ? 0 : EVENT_DATA_PREFIX.length + eventData.readableBytes() + 1));
+
+    writeField(buffer, EVENT_TYPE_PREFIX, eventType);
+
     if (eventData != null) {
-      outputStream.write(EVENT_DATA_PREFIX);
-      for (Character character : Lists.charactersOf(eventData)) {
-        if (character == '\n') {
-          outputStream.write(NEWLINE);
-          outputStream.write(EVENT_DATA_PREFIX);
-        } else {
-          writer.append(character).flush();
-        }
+      buffer.writeBytes(EVENT_DATA_PREFIX);
+      int index = eventData.readerIndex();
+      int end = eventData.writerIndex();
+      int newline = eventData.indexOf(index, end, NEWLINE);
+      while (newline != -1) {
+        buffer.writeBytes(eventData, index, newline - index);
+        buffer.writeByte(NEWLINE);
+        buffer.writeBytes(EVENT_DATA_PREFIX);
+        index = newline + 1;
+        newline = eventData.indexOf(index, end, NEWLINE);
       }
-      outputStream.write(NEWLINE);
+      buffer.writeBytes(eventData, index, end - index);
+      buffer.writeByte(NEWLINE);
     }
 
+    writeField(buffer, EVENT_ID_PREFIX, eventId);
 
-    String eventId = event.getId();
+    buffer.writeByte(NEWLINE);
+    return buffer;
+  }
+
+  // Exact for ASCII content without newlines, the buffer grows otherwise
+  private static int estimateLength(String eventType, String eventId) {
+    int length = 1;
+    if (eventType != null) {
+      length += EVENT_TYPE_PREFIX.length + eventType.length() + 1;
+    }
     if (eventId != null) {
-      outputStream.write(EVENT_ID_PREFIX);
-      writer.append(eventId).flush();
-      outputStream.write(NEWLINE);
+      length += EVENT_ID_PREFIX.length + eventId.length() + 1;
     }
+    return length;
+  }
 
-    outputStream.write(NEWLINE);
-    writer.flush();
-    writer.close();
-    return buffer;
+  private static void writeField(ByteBuf buffer, byte[] prefix, String value) {
+    if (value != null) {
+      buffer.writeBytes(prefix);
+      writeUtf8(buffer, value, 0, value.length());
+      buffer.writeByte(NEWLINE);
+    }
+  }
+
+  private static void writeData(ByteBuf buffer, String data) {
+    int start = 0;
+    int length = data.length();
+    for (int i = 0; i < length; ++i) {
+      if (data.charAt(i) == NEWLINE) {
+        writeUtf8(buffer, data, start, i);
+        buffer.writeByte(NEWLINE);
+        buffer.writeBytes(EVENT_DATA_PREFIX);
+        start = i + 1;
+      }
+    }
+    writeUtf8(buffer, data, start, length);
+  }
+
+  private static void writeUtf8(ByteBuf buffer, String string, int start, int end) {
+    for (int i = start; i < end; ++i) {
+      char c = string.charAt(i);
+      if (c < 0x80) {
+        buffer.writeByte(c);
+      } else if (c < 0x800) {
+        buffer.writeByte(0xc0 | (c >> 6));
+        buffer.writeByte(0x80 | (c & 0x3f));
+      } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(string.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, string.charAt(++i));
+        buffer.writeByte(0xf0 | (codePoint >> 18));
+        buffer.writeByte(0x80 | ((codePoint >> 12) & 0x3f));
+        buffer.writeByte(0x80 | ((codePoint >> 6) & 0x3f));
+        buffer.writeByte(0x80 | (codePoint & 0x3f));
+      } else if (Character.isSurrogate(c)) {
+        buffer.writeByte('?');
+      } else {
+        buffer.writeByte(0xe0 | (c >> 12));
+        buffer.writeByte(0x80 | ((c >> 6) & 0x3f));
+        buffer.writeByte(0x80 | (c & 0x3f));
+      }
+    }
   }
 }
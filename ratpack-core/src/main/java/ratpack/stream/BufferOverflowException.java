@@ -0,0 +1,37 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.stream;
+
+/**
+ * Thrown when a bounded buffer is full and its {@link OverflowStrategy overflow strategy} is {@link OverflowStrategy#ERROR}.
+ *
+ * @see Streams#buffer(org.reactivestreams.Publisher, int, OverflowStrategy)
+ */
+public class BufferOverflowException extends RuntimeException {
+
+  private static final long serialVersionUID = 0;
+
+  /**
+   * Constructor.
+   *
+   * @param capacity the capacity of the buffer that overflowed
+   */
+  public BufferOverflowException(int capacity) {
+    super("stream buffer of capacity " + capacity + " overflowed as downstream did not keep up");
+  }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.stream;
+
+/**
+ * A publisher that holds items in a bounded buffer until they are requested, exposing metrics about the buffer.
+ * <p>
+ * Metrics are aggregated over all subscriptions to the publisher.
+ *
+ * @param <T> the type of item
+ * @see Streams#buffer(org.reactivestreams.Publisher, int, OverflowStrategy)
+ */
+public interface BufferedPublisher<T> extends TransformablePublisher<T> {
+
+  /**
+   * The maximum number of items that are buffered for each subscription.
+   *
+   * @return the maximum number of items that are buffered for each subscription
+   */
+  int getCapacity();
+
+  /**
+   * The strategy applied when an item arrives for a full buffer.
+   *
+   * @return the strategy applied when an item arrives for a full buffer
+   */
+  OverflowStrategy getOverflowStrategy();
+
+  /**
+   * The number of items currently buffered, over all subscriptions.
+   *
+   * @return the number of items currently buffered
+   */
+  int getBufferedCount();
+
+  /**
+   * The largest number of items that have been buffered for a single subscription at any one time.
+   *
+   * @return the largest number of items that have been buffered for a single subscription
+   */
+  int getMaxBufferedCount();
+
+  /**
+   * The number of items that have been dropped due to overflow, over all subscriptions.
+   * <p>
+   * For the {@link OverflowStrategy#ERROR} strategy, this includes the items that were buffered when the overflow occurred.
+   *
+   * @return the number of items that have been dropped
+   */
+  long getDroppedCount();
+
+}
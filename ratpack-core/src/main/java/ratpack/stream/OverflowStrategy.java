@@ -0,0 +1,50 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.stream;
+
+/**
+ * What a {@link Streams#buffer(org.reactivestreams.Publisher, int, OverflowStrategy) bounded buffer} does when an item arrives and the buffer is full.
+ * <p>
+ * Items that are dropped from the buffer are released if they are reference counted (e.g. byte buffers).
+ */
+public enum OverflowStrategy {
+
+  /**
+   * Discard the oldest buffered item to make room for the new item.
+   */
+  DROP_OLDEST,
+
+  /**
+   * Discard the new item, keeping the buffered items.
+   */
+  DROP_NEWEST,
+
+  /**
+   * Cancel the upstream subscription and send a {@link BufferOverflowException} downstream.
+   */
+  ERROR,
+
+  /**
+   * Never request more items from upstream than the buffer can hold.
+   * <p>
+   * The buffer never overflows with a well behaved upstream publisher.
+   * Instead, upstream is asked for more items as the downstream subscriber takes them from the buffer.
+   * No threads are blocked.
+   */
+  BLOCK
+
+}
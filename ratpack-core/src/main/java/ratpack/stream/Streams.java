@@ -16,6 +16,7 @@
 
 package ratpack.stream;
 
+import com.google.common.collect.Iterables;
 import org.reactivestreams.Publisher;
 import ratpack.exec.ExecControl;
 import ratpack.exec.ExecController;
@@ -28,6 +29,7 @@ import ratpack.stream.internal.*;
 import ratpack.util.Types;
 
 import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
 
@@ -182,7 +184,7 @@ public class Streams {
    * @return a publisher that indefinitely streams the given item
    */
   public static <T> TransformablePublisher<T> constant(final T item) {
-    return yield(yieldRequest -> item);
+    return publish(Iterables.cycle(Collections.singleton(item)));
   }
 
   /**
@@ -191,6 +193,9 @@ public class Streams {
    * The returned publisher does not perform any flow control on the data stream.
    * <p>
    * If the given transformation errors, the exception will be forwarded to the subscriber and the subscription to the input stream will be cancelled.
+   * <p>
+   * Consecutive {@code map}, {@link #filter filter} and {@link #wiretap wiretap} transformations are fused,
+   * meaning that they are applied by a single subscriber to the original stream instead of by a subscriber per transformation.
    *
    * @param input the stream of input data
    * @param function the transformation
@@ -199,13 +204,14 @@ public class Streams {
    * @return a publisher that applies the given transformation to each item from the input stream
    */
   public static <I, O> TransformablePublisher<O> map(Publisher<I> input, Function<? super I, ? extends O> function) {
-    return new MapPublisher<>(input, function);
+    return FusedPublisher.map(input, function);
   }
 
   /**
    * Returns a publisher that filters items from the given input stream by applying the given filter predicate.
    * <p>
-   * The returned stream is {@link #buffer buffered}, which means that if the downstream requests, say 5 items, which is filtered into only 3 items
+   * For each item that is filtered out, another item is requested from the input stream.
+   * This means that if the downstream requests, say 5 items, of which only 3 pass the filter,
    * the publisher will ask for more from the upstream to meet the downstream demand.
    * <pre class="java">{@code
    * import org.reactivestreams.Publisher;
@@ -236,28 +242,7 @@ public class Streams {
    * @return the input stream filtered
    */
   public static <T> TransformablePublisher<T> filter(Publisher<T> input, Predicate<T> filter) {
-    return streamMap(input, out -> new WriteStream<T>() {
-      @Override
-      public void item(T item) {
-        try {
-          if (filter.apply(item)) {
-            out.item(item);
-          }
-        } catch (Throwable throwable) {
-          out.error(throwable);
-        }
-      }
-
-      @Override
-      public void error(Throwable throwable) {
-        out.error(throwable);
-      }
-
-      @Override
-      public void complete() {
-        out.complete();
-      }
-    });
+    return FusedPublisher.filter(input, filter);
   }
 
   /**
@@ -361,6 +346,7 @@ public class Streams {
    * This is a simple, naive, flow control mechanism.
    * If the given producer emits far faster than the downstream subscriber requests, the intermediate queue will grow large and consume substantial memory.
    * However, it is useful or adapting non-infinite publishers that cannot meaningfully respect back pressure.
+   * Use {@link #buffer(Publisher, int, OverflowStrategy)} to bound the memory used.
    *
    * @param publisher a data source
    * @param <T> the type of item
@@ -370,6 +356,29 @@ public class Streams {
     return new BufferingPublisher<>(publisher);
   }
 
+  /**
+   * Returns a publisher that holds at most the given number of items from the given publisher until they are requested downstream.
+   * <p>
+   * With the {@link OverflowStrategy#BLOCK} strategy, no more items are requested from the given publisher than can be buffered,
+   * and more are requested as the downstream subscriber takes them.
+   * With any other strategy, the given publisher is allowed to emit as fast as it can, as with {@link #buffer(Publisher)},
+   * and the strategy determines what happens when an item arrives and the buffer is full.
+   * This is useful for sources that cannot respect back pressure (e.g. event broadcasts),
+   * where a slow subscriber should lose items or fail rather than cause unbounded memory use.
+   * <p>
+   * Each subscription has its own buffer.
+   * The returned publisher exposes the number of items buffered and dropped, for monitoring.
+   *
+   * @param publisher a data source
+   * @param capacity the maximum number of items to buffer for each subscription
+   * @param overflowStrategy what to do when an item arrives and the buffer is full
+   * @param <T> the type of item
+   * @return a publisher that respects back pressure, buffering at most {@code capacity} items
+   */
+  public static <T> BufferedPublisher<T> buffer(Publisher<T> publisher, int capacity, OverflowStrategy overflowStrategy) {
+    return new BoundedBufferingPublisher<>(publisher, capacity, overflowStrategy);
+  }
+
   /**
    * Allows requests from the subscriber of the return publisher to be withheld from the given publisher until an externally defined moment.
    * <p>
@@ -438,7 +447,7 @@ public class Streams {
    * @return a publisher that is logically equivalent to the given publisher as far as subscribers are concerned
    */
   public static <T> TransformablePublisher<T> wiretap(Publisher<T> publisher, Action<? super StreamEvent<? super T>> listener) {
-    return new WiretapPublisher<>(publisher, listener);
+    return FusedPublisher.wiretap(publisher, listener);
   }
 
   /**
@@ -473,7 +482,7 @@ public class Streams {
    * @return a publisher that splits collection items into new items per collection element
    */
   public static <T> TransformablePublisher<T> fanOut(Publisher<? extends Iterable<T>> publisher) {
-    return new FanOutPublisher<>(publisher).buffer();
+    return FusedPublisher.fanOut(publisher).buffer();
   }
 
   /**
@@ -65,6 +65,17 @@ public interface TransformablePublisher<T> extends Publisher<T> {
     return Streams.buffer(this);
   }
 
+  /**
+   * See {@link ratpack.stream.Streams#buffer(Publisher, int, OverflowStrategy)}.
+   *
+   * @param capacity the maximum number of items to buffer for each subscription
+   * @param overflowStrategy what to do when an item arrives and the buffer is full
+   * @return a bounded buffering publisher
+   */
+  default BufferedPublisher<T> buffer(int capacity, OverflowStrategy overflowStrategy) {
+    return Streams.buffer(this, capacity, overflowStrategy);
+  }
+
   /**
    * See {@link ratpack.stream.Streams#gate(Publisher, Action)}.
    *
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.stream.internal;
+
+import io.netty.util.ReferenceCountUtil;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import ratpack.stream.BufferOverflowException;
+import ratpack.stream.BufferedPublisher;
+import ratpack.stream.OverflowStrategy;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class BoundedBufferingPublisher<T> implements BufferedPublisher<T> {
+
+  private final Publisher<T> publisher;
+  private final int capacity;
+  private final OverflowStrategy overflowStrategy;
+  private final int replenishThreshold;
+
+  private final AtomicInteger bufferedCount = new AtomicInteger();
+  private final AtomicInteger maxBufferedCount = new AtomicInteger();
+  private final AtomicLong droppedCount = new AtomicLong();
+
+  public BoundedBufferingPublisher(Publisher<T> publisher, int capacity, OverflowStrategy overflowStrategy) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be greater than 0, was " + capacity);
+    }
+    this.publisher = publisher;
+    this.capacity = capacity;
+    this.overflowStrategy = overflowStrategy;
+    this.replenishThreshold = Math.max(1, capacity / 2);
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super T> subscriber) {
+    new Subscription(subscriber);
+  }
+
+  @Override
+  public int getCapacity() {
+    return capacity;
+  }
+
+  @Override
+  public OverflowStrategy getOverflowStrategy() {
+    return overflowStrategy;
+  }
+
+  @Override
+  public int getBufferedCount() {
+    return bufferedCount.get();
+  }
+
+  @Override
+  public int getMaxBufferedCount() {
+    return maxBufferedCount.get();
+  }
+
+  @Override
+  public long getDroppedCount() {
+    return droppedCount.get();
+  }
+
+  private class Subscription extends SubscriptionSupport<T> {
+
+    private final ConcurrentLinkedQueue<T> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong wanted = new AtomicLong();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private final AtomicBoolean upstreamFinished = new AtomicBoolean();
+    private final AtomicReference<org.reactivestreams.Subscription> upstreamSubscription = new AtomicReference<>();
+
+    // only accessed while draining
+    private int consumedSinceRequest;
+
+    public Subscription(Subscriber<? super T> subscriber) {
+      super(subscriber);
+      start();
+    }
+
+    @Override
+    protected void doRequest(long n) {
+      if (isStopped()) {
+        return;
+      }
+      wanted.getAndUpdate(w -> w + n < 0 ? Long.MAX_VALUE : w + n);
+      if (subscribed.compareAndSet(false, true)) {
+        publisher.subscribe(new BufferingSubscriber());
+      } else {
+        tryDrain();
+      }
+    }
+
+    @Override
+    protected void doCancel() {
+      org.reactivestreams.Subscription subscription = upstreamSubscription.get();
+      if (subscription != null) {
+        subscription.cancel();
+      }
+      discardAll();
+    }
+
+    private void add(T item) {
+      buffer.add(item);
+      int newSize = size.incrementAndGet();
+      bufferedCount.incrementAndGet();
+      maxBufferedCount.accumulateAndGet(newSize, Math::max);
+    }
+
+    private T poll() {
+      T item = buffer.poll();
+      if (item != null) {
+        size.decrementAndGet();
+        bufferedCount.decrementAndGet();
+      }
+      return item;
+    }
+
+    private void drop(T item) {
+      droppedCount.incrementAndGet();
+      ReferenceCountUtil.release(item);
+    }
+
+    private int discardAll() {
+      int discarded = 0;
+      T item = poll();
+      while (item != null) {
+        ReferenceCountUtil.release(item);
+        ++discarded;
+        item = poll();
+      }
+      return discarded;
+    }
+
+    private void overflow(T item) {
+      switch (overflowStrategy) {
+        case DROP_NEWEST:
+          drop(item);
+          break;
+        case DROP_OLDEST:
+          T oldest = poll();
+          if (oldest != null) {
+            drop(oldest);
+          }
+          add(item);
+          tryDrain();
+          break;
+        case ERROR:
+          upstreamFinished.set(true);
+          upstreamSubscription.get().cancel();
+          droppedCount.addAndGet(discardAll() + 1);
+          ReferenceCountUtil.release(item);
+          onError(new BufferOverflowException(capacity));
+          break;
+        default:
+          // upstream sent more than was requested
+          add(item);
+          tryDrain();
+      }
+    }
+
+    private void tryDrain() {
+      if (draining.compareAndSet(false, true)) {
+        try {
+          while (!isStopped() && wanted.get() > 0) {
+            T item = poll();
+            if (item == null) {
+              break;
+            }
+            wanted.getAndUpdate(w -> w == Long.MAX_VALUE ? w : w - 1);
+            onNext(item);
+            if (overflowStrategy == OverflowStrategy.BLOCK && ++consumedSinceRequest >= replenishThreshold) {
+              int n = consumedSinceRequest;
+              consumedSinceRequest = 0;
+              if (!upstreamFinished.get()) {
+                upstreamSubscription.get().request(n);
+              }
+            }
+          }
+          if (upstreamFinished.get() && buffer.isEmpty()) {
+            onComplete();
+          }
+        } finally {
+          draining.set(false);
+        }
+        if (!isStopped() && (buffer.isEmpty() ? upstreamFinished.get() : wanted.get() > 0)) {
+          tryDrain();
+        }
+      }
+    }
+
+    private class BufferingSubscriber implements Subscriber<T> {
+
+      @Override
+      public void onSubscribe(org.reactivestreams.Subscription s) {
+        upstreamSubscription.set(s);
+        if (isStopped()) {
+          s.cancel();
+        } else {
+          s.request(overflowStrategy == OverflowStrategy.BLOCK ? capacity : Long.MAX_VALUE);
+        }
+      }
+
+      @Override
+      public void onNext(T item) {
+        if (isStopped()) {
+          ReferenceCountUtil.release(item);
+        } else if (size.get() >= capacity) {
+          overflow(item);
+        } else {
+          add(item);
+          tryDrain();
+        }
+      }
+
+      @Override
+      public void onError(Throwable t) {
+        upstreamFinished.set(true);
+        discardAll();
+        Subscription.this.onError(t);
+      }
+
+      @Override
+      public void onComplete() {
+        upstreamFinished.set(true);
+        tryDrain();
+      }
+    }
+  }
+
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.stream.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import org.reactivestreams.Subscription;
+import ratpack.func.Action;
+import ratpack.stream.TransformablePublisher;
+
+import java.io.OutputStream;
+
+import static ratpack.util.Exceptions.uncheck;
+
+/**
+ * An output stream that writes to byte buffers, handing each buffer off once it holds at least a given number of bytes.
+ * <p>
+ * Used to stream content that is produced by writing (e.g. rendered templates) without first producing it all in one buffer.
+ * This reduces the time to the first byte and avoids growing one large buffer, but does not bound memory use, as producers write synchronously regardless of demand.
+ */
+public class ChunkedByteBufOutputStream extends OutputStream {
+
+  private static final int MAX_INITIAL_CAPACITY = 64 * 1024;
+
+  private final ByteBufAllocator allocator;
+  private final int flushThreshold;
+  private final Action<? super ByteBuf> chunkReceiver;
+
+  private ByteBuf buffer;
+
+  /**
+   * Constructor.
+   *
+   * @param allocator the allocator for buffers
+   * @param flushThreshold the number of bytes at which a buffer is handed off
+   * @param chunkReceiver receives each full buffer, and is responsible for releasing it
+   */
+  public ChunkedByteBufOutputStream(ByteBufAllocator allocator, int flushThreshold, Action<? super ByteBuf> chunkReceiver) {
+    this.allocator = allocator;
+    this.flushThreshold = flushThreshold;
+    this.chunkReceiver = chunkReceiver;
+  }
+
+  /**
+   * Creates a stream that writes everything to a single buffer, which can be obtained via {@link #take()}.
+   *
+   * @param allocator the allocator for the buffer
+   * @return a new stream
+   */
+  public static ChunkedByteBufOutputStream unchunked(ByteBufAllocator allocator) {
+    return new ChunkedByteBufOutputStream(allocator, Integer.MAX_VALUE, null);
+  }
+
+  /**
+   * Creates a publisher of the chunks written by the given producer.
+   * <p>
+   * The producer is run when the first item is requested, and pushes all of its output regardless of demand, which is buffered until requested.
+   * The buffer is unbounded, so the memory used is that of the output the subscriber has not yet taken (up to all of it).
+   * When the producer returns, any partially filled buffer is emitted and the stream completes.
+   * If the producer throws, the stream errors.
+   *
+   * @param allocator the allocator for buffers
+   * @param flushThreshold the number of bytes at which a buffer is emitted
+   * @param producer writes the content
+   * @return a publisher of the written content
+   */
+  public static TransformablePublisher<ByteBuf> publisher(ByteBufAllocator allocator, int flushThreshold, Action<? super ChunkedByteBufOutputStream> producer) {
+    TransformablePublisher<ByteBuf> publisher = subscriber -> subscriber.onSubscribe(new Subscription() {
+      private boolean started;
+      private volatile boolean cancelled;
+
+      @Override
+      public void request(long n) {
+        if (started) {
+          return;
+        }
+        started = true;
+
+        ChunkedByteBufOutputStream output = new ChunkedByteBufOutputStream(allocator, flushThreshold, chunk -> {
+          if (cancelled) {
+            chunk.release();
+          } else {
+            subscriber.onNext(chunk);
+          }
+        });
+
+        try {
+          producer.execute(output);
+          output.close();
+        } catch (Throwable e) {
+          output.release();
+          if (!cancelled) {
+            subscriber.onError(e);
+          }
+          return;
+        }
+
+        if (!cancelled) {
+          subscriber.onComplete();
+        }
+      }
+
+      @Override
+      public void cancel() {
+        cancelled = true;
+      }
+    });
+
+    return publisher.buffer();
+  }
+
+  public ByteBufAllocator alloc() {
+    return allocator;
+  }
+
+  private ByteBuf buffer() {
+    if (buffer == null) {
+      buffer = chunkReceiver == null ? allocator.ioBuffer() : allocator.ioBuffer(Math.min(flushThreshold, MAX_INITIAL_CAPACITY));
+    }
+    return buffer;
+  }
+
+  @Override
+  public void write(int b) {
+    buffer().writeByte(b);
+    emitIfFull();
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) {
+    buffer().writeBytes(b, off, len);
+    emitIfFull();
+  }
+
+  /**
+   * Writes the readable bytes of the given buffer, without releasing it.
+   *
+   * @param bytes the bytes to write
+   */
+  public void write(ByteBuf bytes) {
+    buffer().writeBytes(bytes, bytes.readerIndex(), bytes.readableBytes());
+    emitIfFull();
+  }
+
+  /**
+   * Hands off the current buffer, if it has any content.
+   */
+  @Override
+  public void flush() {
+    if (chunkReceiver != null && buffer != null && buffer.isReadable()) {
+      emit();
+    }
+  }
+
+  /**
+   * Hands off the current buffer if it has any content, or releases it.
+   */
+  @Override
+  public void close() {
+    flush();
+    release();
+  }
+
+  /**
+   * Returns everything written to an {@link #unchunked(ByteBufAllocator) unchunked} stream, transferring ownership to the caller.
+   *
+   * @return everything written
+   */
+  public ByteBuf take() {
+    ByteBuf taken = buffer == null ? allocator.buffer(0) : buffer;
+    buffer = null;
+    return taken;
+  }
+
+  /**
+   * Releases the current buffer, discarding anything written to it.
+   */
+  public void release() {
+    if (buffer != null) {
+      buffer.release();
+      buffer = null;
+    }
+  }
+
+  private void emitIfFull() {
+    if (buffer.readableBytes() >= flushThreshold) {
+      emit();
+    }
+  }
+
+  private void emit() {
+    ByteBuf chunk = buffer;
+    buffer = null;
+    try {
+      chunkReceiver.execute(chunk);
+    } catch (Exception e) {
+      throw uncheck(e);
+    }
+  }
+
+}
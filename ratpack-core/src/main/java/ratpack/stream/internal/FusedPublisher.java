@@ -0,0 +1,575 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.stream.internal;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import ratpack.api.Nullable;
+import ratpack.func.Action;
+import ratpack.func.Function;
+import ratpack.func.Predicate;
+import ratpack.stream.StreamEvent;
+import ratpack.stream.TransformablePublisher;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies a chain of synchronous operators (map, filter, wiretap and fan out) to the items of a source publisher, using a single subscriber.
+ * <p>
+ * Applying one of these operators to a fused publisher extends its chain instead of wrapping it,
+ * so each item passes through the whole chain via plain method calls instead of through a subscriber and subscription per operator.
+ * Wiretap listeners observe the same events (including requests and cancellations) that they would if each operator was a distinct publisher.
+ * <p>
+ * A fan out stage can emit more items than were requested, so is always the last stage and the publisher must be buffered.
+ *
+ * @param <T> the type of item emitted
+ */
+public class FusedPublisher<T> implements TransformablePublisher<T> {
+
+  private static final int MAP = 0;
+  private static final int FILTER = 1;
+  private static final int WIRETAP = 2;
+  private static final int FAN_OUT = 3;
+
+  private final Publisher<?> source;
+  private final Stage[] stages;
+
+  private FusedPublisher(Publisher<?> source, Stage[] stages) {
+    this.source = source;
+    this.stages = stages;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <I, O> TransformablePublisher<O> map(Publisher<I> input, Function<? super I, ? extends O> function) {
+    return append(input, new Stage(MAP, (Function<Object, Object>) function, null, null));
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <T> TransformablePublisher<T> filter(Publisher<T> input, Predicate<? super T> predicate) {
+    return append(input, new Stage(FILTER, null, (Predicate<Object>) predicate, null));
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <T> TransformablePublisher<T> wiretap(Publisher<T> input, Action<? super StreamEvent<? super T>> listener) {
+    return append(input, new Stage(WIRETAP, null, null, (Action<Object>) listener));
+  }
+
+  public static <T> TransformablePublisher<T> fanOut(Publisher<? extends Iterable<T>> input) {
+    return append(input, new Stage(FAN_OUT, null, null, null));
+  }
+
+  private static <T> TransformablePublisher<T> append(Publisher<?> input, Stage stage) {
+    if (input instanceof FusedPublisher) {
+      FusedPublisher<?> fused = (FusedPublisher<?>) input;
+      Stage[] stages = Arrays.copyOf(fused.stages, fused.stages.length + 1);
+      stages[fused.stages.length] = stage;
+      return new FusedPublisher<>(fused.source, stages);
+    } else {
+      return new FusedPublisher<>(input, new Stage[]{stage});
+    }
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super T> subscriber) {
+    source.subscribe(new FusedSubscriber(subscriber));
+  }
+
+  private static class Stage {
+    private final int kind;
+    private final Function<Object, Object> function;
+    private final Predicate<Object> predicate;
+    private final Action<Object> listener;
+    private final AtomicInteger subscriptionIds = new AtomicInteger();
+
+    private Stage(int kind, Function<Object, Object> function, Predicate<Object> predicate, Action<Object> listener) {
+      this.kind = kind;
+      this.function = function;
+      this.predicate = predicate;
+      this.listener = listener;
+    }
+  }
+
+  private class FusedSubscriber implements Subscriber<Object>, Subscription {
+
+    private final Subscriber<? super T> downstream;
+    private final int[] subscriptionIds;
+    private Subscription upstream;
+    private volatile boolean done;
+
+    private FusedSubscriber(Subscriber<? super T> downstream) {
+      this.downstream = downstream;
+      this.subscriptionIds = new int[stages.length];
+      for (int i = 0; i < stages.length; ++i) {
+        if (stages[i].kind == WIRETAP) {
+          subscriptionIds[i] = stages[i].subscriptionIds.getAndIncrement();
+        }
+      }
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      this.upstream = subscription;
+      downstream.onSubscribe(this);
+    }
+
+    @Override
+    public void request(long n) {
+      requestFrom(stages.length, n);
+    }
+
+    @Override
+    public void cancel() {
+      done = true;
+      cancelFrom(stages.length);
+    }
+
+    // a request issued by the given stage (or the downstream subscriber), as seen by the wiretaps before it
+    private void requestFrom(int stage, long n) {
+      for (int i = stage - 1; i >= 0; --i) {
+        if (stages[i].kind == WIRETAP) {
+          try {
+            stages[i].listener.execute(new RequestEvent<>(subscriptionIds[i], n));
+          } catch (Throwable throwable) {
+            cancelFrom(i);
+            error(throwable, i);
+            return;
+          }
+        }
+      }
+      upstream.request(n);
+    }
+
+    // a cancellation issued by the given stage (or the downstream subscriber), as seen by the wiretaps before it
+    private void cancelFrom(int stage) {
+      Throwable error = null;
+      int errorStage = 0;
+      for (int i = stage - 1; i >= 0; --i) {
+        if (stages[i].kind == WIRETAP) {
+          try {
+            stages[i].listener.execute(new CancelEvent<>(subscriptionIds[i]));
+          } catch (Throwable throwable) {
+            if (error == null) {
+              error = throwable;
+            } else {
+              throwable.addSuppressed(error);
+              error = throwable;
+            }
+            errorStage = i;
+          }
+        }
+      }
+      upstream.cancel();
+      if (error != null) {
+        error(error, errorStage);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onNext(Object item) {
+      if (done) {
+        return;
+      }
+
+      Object value = item;
+      for (int i = 0; i < stages.length; ++i) {
+        Stage stage = stages[i];
+        try {
+          switch (stage.kind) {
+            case MAP:
+              value = stage.function.apply(value);
+              break;
+            case FILTER:
+              if (!stage.predicate.apply(value)) {
+                requestFrom(i, 1);
+                return;
+              }
+              break;
+            case WIRETAP:
+              stage.listener.execute(new DataEvent<>(subscriptionIds[i], value));
+              break;
+            default:
+              Iterator<?> iterator = ((Iterable<?>) value).iterator();
+              while (!done && iterator.hasNext()) {
+                downstream.onNext((T) iterator.next());
+              }
+              return;
+          }
+        } catch (Throwable throwable) {
+          cancelFrom(i);
+          error(throwable, stage.kind == WIRETAP ? i : i + 1);
+          return;
+        }
+      }
+
+      if (!done) {
+        downstream.onNext((T) value);
+      }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      error(t, 0);
+    }
+
+    // an error emitted by the stage before the given stage, as seen by the wiretaps from the given stage on
+    private void error(Throwable t, int stage) {
+      if (done) {
+        return;
+      }
+      done = true;
+      for (int i = stage; i < stages.length; ++i) {
+        if (stages[i].kind == WIRETAP) {
+          try {
+            stages[i].listener.execute(new ErrorEvent<>(subscriptionIds[i], t));
+          } catch (Throwable throwable) {
+            t.addSuppressed(throwable);
+          }
+        }
+      }
+      downstream.onError(t);
+    }
+
+    @Override
+    public void onComplete() {
+      if (done) {
+        return;
+      }
+      for (int i = 0; i < stages.length; ++i) {
+        if (stages[i].kind == WIRETAP) {
+          try {
+            stages[i].listener.execute(new CompletionEvent<>(subscriptionIds[i]));
+          } catch (Throwable throwable) {
+            error(throwable, i + 1);
+            return;
+          }
+        }
+      }
+      done = true;
+      downstream.onComplete();
+    }
+  }
+
+  private static class DataEvent<T> implements StreamEvent<T> {
+    private final int subscriptionId;
+    private final T data;
+
+    private DataEvent(int subscriptionId, T data) {
+      this.subscriptionId = subscriptionId;
+      this.data = data;
+    }
+
+    public int getSubscriptionId() {
+      return subscriptionId;
+    }
+
+    @Override
+    public boolean isComplete() {
+      return false;
+    }
+
+    @Override
+    public boolean isError() {
+      return false;
+    }
+
+    @Override
+    public boolean isData() {
+      return true;
+    }
+
+    @Nullable
+    @Override
+    public Throwable getThrowable() {
+      return null;
+    }
+
+    @Nullable
+    @Override
+    public T getItem() {
+      return data;
+    }
+
+    @Override
+    public boolean isCancel() {
+      return false;
+    }
+
+    @Override
+    public boolean isRequest() {
+      return false;
+    }
+
+    @Override
+    public long getRequestAmount() {
+      return 0;
+    }
+
+    @Override
+    public String toString() {
+      return "StreamEvent[DataEvent{subscriptionId=" + subscriptionId + ", data=" + data + "}]";
+    }
+  }
+
+  private static class CompletionEvent<T> implements StreamEvent<T> {
+
+    private final int subscriptionId;
+
+    private CompletionEvent(int subscriptionId) {
+      this.subscriptionId = subscriptionId;
+    }
+
+    public int getSubscriptionId() {
+      return subscriptionId;
+    }
+
+    @Override
+    public boolean isComplete() {
+      return true;
+    }
+
+    @Override
+    public boolean isError() {
+      return false;
+    }
+
+    @Override
+    public boolean isData() {
+      return false;
+    }
+
+    @Nullable
+    @Override
+    public Throwable getThrowable() {
+      return null;
+    }
+
+    @Nullable
+    @Override
+    public T getItem() {
+      return null;
+    }
+
+    @Override
+    public boolean isCancel() {
+      return false;
+    }
+
+    @Override
+    public boolean isRequest() {
+      return false;
+    }
+
+    @Override
+    public long getRequestAmount() {
+      return 0;
+    }
+
+    @Override
+    public String toString() {
+      return "StreamEvent[CompletionEvent{subscriptionId=" + subscriptionId + "}]";
+    }
+  }
+
+  private static class ErrorEvent<T> implements StreamEvent<T> {
+    private final int subscriptionId;
+    private final Throwable error;
+
+    private ErrorEvent(int subscriptionId, Throwable error) {
+      this.subscriptionId = subscriptionId;
+      this.error = error;
+    }
+
+    public int getSubscriptionId() {
+      return subscriptionId;
+    }
+
+    @Override
+    public boolean isComplete() {
+      return false;
+    }
+
+    @Override
+    public boolean isError() {
+      return true;
+    }
+
+    @Override
+    public boolean isData() {
+      return false;
+    }
+
+    @Nullable
+    @Override
+    public Throwable getThrowable() {
+      return error;
+    }
+
+    @Nullable
+    @Override
+    public T getItem() {
+      return null;
+    }
+
+    @Override
+    public boolean isCancel() {
+      return false;
+    }
+
+    @Override
+    public boolean isRequest() {
+      return false;
+    }
+
+    @Override
+    public long getRequestAmount() {
+      return 0;
+    }
+
+    @Override
+    public String toString() {
+      return "StreamEvent[ErrorEvent{subscriptionId=" + subscriptionId + ", error=" + error + "}]";
+    }
+  }
+
+  private static class CancelEvent<T> implements StreamEvent<T> {
+    private final int subscriptionId;
+
+    private CancelEvent(int subscriptionId) {
+      this.subscriptionId = subscriptionId;
+    }
+
+    @Override
+    public int getSubscriptionId() {
+      return subscriptionId;
+    }
+
+    @Override
+    public boolean isComplete() {
+      return false;
+    }
+
+    @Override
+    public boolean isError() {
+      return false;
+    }
+
+    @Override
+    public boolean isData() {
+      return false;
+    }
+
+    @Override
+    public boolean isCancel() {
+      return true;
+    }
+
+    @Override
+    public boolean isRequest() {
+      return false;
+    }
+
+    @Override
+    public long getRequestAmount() {
+      return 0;
+    }
+
+    @Nullable
+    @Override
+    public Throwable getThrowable() {
+      return null;
+    }
+
+    @Nullable
+    @Override
+    public T getItem() {
+      return null;
+    }
+
+    @Override
+    public String toString() {
+      return "StreamEvent[CancelEvent{subscriptionId=" + subscriptionId + "}]";
+    }
+  }
+
+  private static class RequestEvent<T> implements StreamEvent<T> {
+
+    private final long requestAmount;
+    private final int subscriptionId;
+
+    private RequestEvent(int subscriptionId, long requestAmount) {
+      this.requestAmount = requestAmount;
+      this.subscriptionId = subscriptionId;
+    }
+
+    @Override
+    public int getSubscriptionId() {
+      return subscriptionId;
+    }
+
+    @Override
+    public boolean isComplete() {
+      return false;
+    }
+
+    @Override
+    public boolean isError() {
+      return false;
+    }
+
+    @Override
+    public boolean isData() {
+      return false;
+    }
+
+    @Override
+    public boolean isCancel() {
+      return false;
+    }
+
+    @Override
+    public boolean isRequest() {
+      return true;
+    }
+
+    @Override
+    public long getRequestAmount() {
+      return requestAmount;
+    }
+
+    @Nullable
+    @Override
+    public Throwable getThrowable() {
+      return null;
+    }
+
+    @Nullable
+    @Override
+    public T getItem() {
+      return null;
+    }
+
+    @Override
+    public String toString() {
+      return "StreamEvent[RequestEvent{requestAmount=" + requestAmount + ", subscriptionId=" + subscriptionId + "}]";
+    }
+  }
+
+}
@@ -46,20 +46,27 @@ public class IterablePublisher<T> implements TransformablePublisher<T> {
 
     @Override
     protected void doRequest(long n) {
-      for (int i = 0; i < n && !isStopped(); ++i) {
-        if (iterator.hasNext()) {
-          T next;
-          try {
-            next = iterator.next();
-          } catch (Exception e) {
-            onError(e);
-            return;
-          }
-          onNext(next);
-        } else {
+      // Items are emitted directly as they are only ever emitted here, which avoids queueing each item
+      long emitted = 0;
+      while (emitted < n && !isStopped() && emitNext()) {
+        ++emitted;
+      }
+    }
+
+    private boolean emitNext() {
+      T next;
+      try {
+        if (!iterator.hasNext()) {
           onComplete();
+          return false;
         }
+        next = iterator.next();
+      } catch (Exception e) {
+        onError(e);
+        return false;
       }
+      onNextDirect(next);
+      return true;
     }
 
   }
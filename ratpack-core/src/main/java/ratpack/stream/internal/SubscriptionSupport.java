@@ -143,6 +143,34 @@ abstract class SubscriptionSupport<T> implements Subscription {
     }
   }
 
+  /**
+   * Sends an item to the subscriber without queueing it.
+   * <p>
+   * Only for items emitted synchronously by {@link #doRequest(long)}, which is never called concurrently or reentrantly,
+   * by implementations that never emit items any other way.
+   * <p>
+   * Errors and completion signalled while the item is being sent (e.g. due to an invalid request from another thread) are sent after it.
+   *
+   * @param t the item
+   */
+  protected void onNextDirect(T t) {
+    if (!stopped.get()) {
+      if (inOnMethod.compareAndSet(false, true)) {
+        try {
+          subscriber.onNext(t);
+        } finally {
+          inOnMethod.set(false);
+        }
+        //noinspection ThrowableResultOfMethodCallIgnored
+        if (complete.get() || error.get() != null) {
+          drain();
+        }
+      } else {
+        onNext(t);
+      }
+    }
+  }
+
   public void onNext(T t) {
     if (!stopped.get()) {
       onNextQueue.add(t);
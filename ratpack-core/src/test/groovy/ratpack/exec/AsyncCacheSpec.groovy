@@ -0,0 +1,214 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec
+
+import com.google.common.base.Ticker
+import ratpack.func.Action
+import ratpack.test.exec.ExecHarness
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.atomic.AtomicInteger
+
+class AsyncCacheSpec extends Specification {
+
+  @AutoCleanup
+  ExecHarness execHarness = ExecHarness.harness()
+
+  PollingConditions polling = new PollingConditions(timeout: 5)
+
+  long now = 0
+  def ticker = new Ticker() {
+    @Override
+    long read() {
+      now
+    }
+  }
+  def loads = new AtomicInteger()
+
+  AsyncCache<String, String> cache(Action<? super AsyncCache.Spec> spec = { it.ticker(ticker) }) {
+    AsyncCache.of(spec) { String key ->
+      def i = loads.incrementAndGet()
+      execHarness.control.promiseOf("$key-$i".toString())
+    }
+  }
+
+  String get(AsyncCache<String, String> cache, String key) {
+    execHarness.yield { cache.get(key) }.valueOrThrow
+  }
+
+  def "loads values once"() {
+    given:
+    def cache = cache()
+
+    expect:
+    get(cache, "a") == "a-1"
+    get(cache, "a") == "a-1"
+    get(cache, "b") == "b-2"
+    cache.loadCount == 2
+    cache.size == 2
+  }
+
+  def "concurrent requests for an uncached value are coalesced into one load"() {
+    given:
+    def fulfillers = new LinkedBlockingQueue<Fulfiller<String>>()
+    def cache = AsyncCache.of { String key ->
+      loads.incrementAndGet()
+      execHarness.control.promise { fulfillers << it }
+    }
+    def results = new ConcurrentLinkedQueue<String>()
+    def requests = 10
+    def latch = new CountDownLatch(requests)
+
+    when:
+    requests.times {
+      execHarness.fork().onComplete { latch.countDown() }.start {
+        cache.get("a").then { results << it }
+      }
+    }
+    fulfillers.take().success("value")
+    latch.await()
+
+    then:
+    loads.get() == 1
+    fulfillers.empty
+    results.toList() == ["value"] * requests
+  }
+
+  def "values expire"() {
+    given:
+    def cache = cache { it.ticker(ticker).expireAfterWrite(Duration.ofSeconds(10)) }
+
+    expect:
+    get(cache, "a") == "a-1"
+
+    when:
+    now += Duration.ofSeconds(9).toNanos()
+
+    then:
+    get(cache, "a") == "a-1"
+
+    when:
+    now += Duration.ofSeconds(1).toNanos()
+
+    then:
+    get(cache, "a") == "a-2"
+  }
+
+  def "stale values are provided while they are refreshed"() {
+    given:
+    def cache = cache { it.ticker(ticker).refreshAfterWrite(Duration.ofSeconds(5)).expireAfterWrite(Duration.ofSeconds(10)) }
+
+    expect:
+    get(cache, "a") == "a-1"
+
+    when:
+    now += Duration.ofSeconds(6).toNanos()
+
+    then:
+    get(cache, "a") == "a-1"
+    polling.eventually {
+      assert get(cache, "a") == "a-2"
+    }
+    loads.get() == 2
+  }
+
+  def "failed loads are not cached"() {
+    given:
+    def fail = true
+    def cache = AsyncCache.of { String key ->
+      loads.incrementAndGet()
+      fail ? execHarness.control.failedPromise(new IllegalStateException("!")) : execHarness.control.promiseOf(key)
+    }
+
+    when:
+    def result = execHarness.yield { cache.get("a") }
+
+    then:
+    result.throwable instanceof IllegalStateException
+    cache.size == 0
+
+    when:
+    fail = false
+
+    then:
+    get(cache, "a") == "a"
+    loads.get() == 2
+  }
+
+  def "can invalidate values"() {
+    given:
+    def cache = cache()
+
+    expect:
+    get(cache, "a") == "a-1"
+
+    when:
+    cache.invalidate("a")
+
+    then:
+    get(cache, "a") == "a-2"
+
+    when:
+    cache.invalidateAll()
+
+    then:
+    cache.size == 0
+  }
+
+  def "least recently used values are discarded when the maximum size is reached"() {
+    given:
+    def cache = cache { it.ticker(ticker).maximumSize(1) }
+
+    expect:
+    get(cache, "a") == "a-1"
+    get(cache, "b") == "b-2"
+    get(cache, "a") == "a-3"
+  }
+
+  def "loads in progress are not evicted"() {
+    given:
+    def fulfillers = new LinkedBlockingQueue<Fulfiller<String>>()
+    def cache = AsyncCache.of({ it.ticker(ticker).maximumSize(1).expireAfterWrite(Duration.ofSeconds(10)) }) { String key ->
+      def i = loads.incrementAndGet()
+      i == 1 ? execHarness.control.promise { fulfillers << it } : execHarness.control.promiseOf("$key-$i".toString())
+    }
+    def results = new ConcurrentLinkedQueue<String>()
+    def latch = new CountDownLatch(2)
+
+    when:
+    execHarness.fork().onComplete { latch.countDown() }.start { cache.get("a").then { results << it } }
+    def fulfiller = fulfillers.take()
+    get(cache, "b")
+    get(cache, "c")
+    now += Duration.ofSeconds(10).toNanos()
+    execHarness.fork().onComplete { latch.countDown() }.start { cache.get("a").then { results << it } }
+    fulfiller.success("value")
+    latch.await()
+
+    then:
+    results.toList() == ["value", "value"]
+    get(cache, "a") == "value"
+    loads.get() == 3
+  }
+
+}
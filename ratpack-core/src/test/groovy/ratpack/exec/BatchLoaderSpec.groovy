@@ -0,0 +1,175 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ratpack.exec
+
+import ratpack.func.Action
+import ratpack.test.exec.ExecHarness
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class BatchLoaderSpec extends Specification {
+
+  @AutoCleanup
+  ExecHarness execHarness = ExecHarness.harness(1)
+
+  def calls = new ConcurrentLinkedQueue<List<Integer>>()
+
+  BatchLoader<Integer, String> loader(Action<? super BatchLoader.Spec> spec = Action.noop()) {
+    BatchLoader.of(spec) { List<Integer> keys ->
+      calls << keys
+      execHarness.control.promiseOf(keys.collectEntries { [(it): "v$it".toString()] })
+    }
+  }
+
+  def <T> T yield(Closure<Promise<T>> closure) {
+    execHarness.yield { closure.call() }.valueOrThrow
+  }
+
+  def "keys loaded before the first subscription are loaded in one deduplicated batch"() {
+    given:
+    def loader = loader()
+
+    when:
+    def values = yield {
+      def one = loader.load(1)
+      def two = loader.load(2)
+      def oneAgain = loader.load(1)
+      one.flatMap { v1 -> two.flatMap { v2 -> oneAgain.map { v3 -> [v1, v2, v3] } } }
+    }
+
+    then:
+    values == ["v1", "v2", "v1"]
+    calls.toList() == [[1, 2]]
+    loader.batchCount == 1
+  }
+
+  def "values are cached for the execution only"() {
+    given:
+    def loader = loader()
+
+    when:
+    def values = yield { loader.load(1).flatMap { v1 -> loader.load(1).map { v2 -> [v1, v2] } } }
+    def again = yield { loader.load(1) }
+
+    then:
+    values == ["v1", "v1"]
+    again == "v1"
+    calls.toList() == [[1], [1]]
+  }
+
+  def "caching can be disabled"() {
+    given:
+    def loader = loader { it.cache(false) }
+
+    when:
+    def values = yield {
+      def one = loader.load(1)
+      def oneAgain = loader.load(1)
+      one.flatMap { v1 -> oneAgain.flatMap { v2 -> loader.load(1).map { v3 -> [v1, v2, v3] } } }
+    }
+
+    then:
+    values == ["v1", "v1", "v1"]
+    calls.toList() == [[1], [1]]
+  }
+
+  def "batches are limited to the max batch size"() {
+    given:
+    def loader = loader { it.maxBatchSize(2) }
+
+    expect:
+    yield { loader.loadAll([1, 2, 3, 2]) } == ["v1", "v2", "v3", "v2"]
+    calls.toList() == [[1, 2], [3]]
+  }
+
+  def "missing values are null"() {
+    given:
+    def loader = BatchLoader.of { List<Integer> keys -> execHarness.control.promiseOf([:]) }
+
+    expect:
+    yield { loader.load(1) } == null
+  }
+
+  def "batch failure fails all keys of the batch"() {
+    given:
+    def error = new IllegalStateException("!")
+    BatchLoader<Integer, String> loader = BatchLoader.of { List<Integer> keys -> execHarness.control.promise { it.error(error) } }
+
+    when:
+    def results = yield {
+      def one = loader.load(1)
+      def two = loader.load(2)
+      one.map { "unexpected" }.mapError { it.message }.flatMap { r1 ->
+        two.map { "unexpected" }.mapError { it.message }.map { r2 -> [r1, r2] }
+      }
+    }
+
+    then:
+    results == ["!", "!"]
+    loader.batchCount == 1
+  }
+
+  def "batches of executions on the same event loop can be combined"() {
+    given:
+    def loader = loader { it.batchAcrossExecutions(Duration.ofMillis(100)) }
+    def results = new ConcurrentLinkedQueue<String>()
+    def latch = new CountDownLatch(3)
+
+    when:
+    [1, 2, 1].each { key ->
+      execHarness.fork().start {
+        loader.load(key).then {
+          results << it
+          latch.countDown()
+        }
+      }
+    }
+
+    then:
+    latch.await(5, TimeUnit.SECONDS)
+    results.sort() == ["v1", "v1", "v2"]
+    calls.toList() == [[1, 2]]
+  }
+
+  def "combined batches are dispatched once the max batch size is reached"() {
+    given:
+    def loader = loader { it.maxBatchSize(2).batchAcrossExecutions(Duration.ofMinutes(1)) }
+    def results = new ConcurrentLinkedQueue<String>()
+    def latch = new CountDownLatch(2)
+
+    when:
+    [1, 2].each { key ->
+      execHarness.fork().start {
+        loader.load(key).then {
+          results << it
+          latch.countDown()
+        }
+      }
+    }
+
+    then:
+    latch.await(5, TimeUnit.SECONDS)
+    results.sort() == ["v1", "v2"]
+    calls.toList() == [[1, 2]]
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.handling
+
+import groovy.json.JsonSlurper
+import ratpack.test.internal.RatpackGroovyDslSpec
+import spock.util.concurrent.PollingConditions
+
+class AccessLogSpec extends RatpackGroovyDslSpec {
+
+  def polling = new PollingConditions(timeout: 5)
+
+  def "writes common log format lines to file"() {
+    given:
+    def file = temporaryFolder.newFolder().toPath().resolve("access.log")
+    def accessLog = AccessLog.of { it.file(file) }
+
+    bindings {
+      bindInstance accessLog
+    }
+
+    handlers {
+      get("foo") { render "bar" }
+    }
+
+    when:
+    get("foo?a=b")
+
+    then:
+    polling.eventually {
+      assert file.toFile().text ==~ /\S+ - - \[\d{2}\/\w{3}\/\d{4}:\d{2}:\d{2}:\d{2} \+0000\] "GET \/foo\?a=b HTTP\/1\.1" 200 3\n/
+    }
+    accessLog.writtenCount == 1
+  }
+
+  def "writes json lines"() {
+    given:
+    def file = temporaryFolder.newFolder().toPath().resolve("access.log")
+    def accessLog = AccessLog.of { it.file(file).format(AccessLog.Format.JSON) }
+
+    bindings {
+      bindInstance accessLog
+    }
+
+    handlers {
+      get("foo") { render "bar" }
+      get("quote") { clientError(404) }
+    }
+
+    when:
+    get("foo")
+    get("quote?q=%22")
+
+    then:
+    polling.eventually {
+      assert file.toFile().readLines().size() == 2
+    }
+    def lines = file.toFile().readLines().collect { new JsonSlurper().parseText(it) }
+    lines*.method == ["GET", "GET"]
+    lines*.uri == ["/foo", "/quote?q=%22"]
+    lines*.status == [200, 404]
+    lines[0].size == 3
+    lines[0].time ==~ /\d{4}-\d{2}-\d{2}T\d{2}:\d{2}:\d{2}Z/
+  }
+
+  def "drops lines when too many are pending"() {
+    given:
+    def accessLog = AccessLog.of { it.queueCapacity(0) }
+
+    bindings {
+      bindInstance accessLog
+    }
+
+    handlers {
+      get { render "ok" }
+    }
+
+    when:
+    2.times { get() }
+
+    then:
+    polling.eventually {
+      assert accessLog.droppedCount == 2
+    }
+    accessLog.writtenCount == 0
+  }
+
+  def "rotates log file by size"() {
+    given:
+    def dir = temporaryFolder.newFolder().toPath()
+    def file = dir.resolve("access.log")
+    def accessLog = AccessLog.of { it.file(file).rotateAfterSize(1) }
+
+    bindings {
+      bindInstance accessLog
+    }
+
+    handlers {
+      get { render "ok" }
+    }
+
+    when:
+    3.times { n ->
+      get()
+      polling.eventually {
+        assert accessLog.writtenCount == n + 1
+      }
+    }
+
+    then:
+    def files = dir.toFile().listFiles()
+    files.size() == 3
+    files*.readLines().flatten().size() == 3
+  }
+
+}
@@ -50,6 +50,18 @@ class InjectionHandlerSpec extends RatpackGroovyDslSpec {
     thrown InjectionHandler.NoSuitableHandleMethodException
   }
 
+  static class NoArgsHandleMethod extends InjectionHandler {
+    void handle() {}
+  }
+
+  def "handle method must accept a context and a value to inject"() {
+    when:
+    new NoArgsHandleMethod()
+
+    then:
+    thrown InjectionHandler.NoSuitableHandleMethodException
+  }
+
   static class InjectedHandler extends InjectionHandler {
     @SuppressWarnings(["GrMethodMayBeStatic", "GroovyUnusedDeclaration"])
     protected handle(Context exchange, FileSystemBinding fileSystemBinding) {
@@ -226,4 +238,96 @@ class InjectionHandlerSpec extends RatpackGroovyDslSpec {
     text == "foo:bar"
   }
 
+  static class InjectedPrimitiveParameterHandler extends InjectionHandler {
+    @SuppressWarnings(["GrMethodMayBeStatic", "GroovyUnusedDeclaration"])
+    protected handle(Context context, int integer) {
+      context.render("${integer + 1}")
+    }
+  }
+
+  def "can inject into primitive parameters"() {
+    when:
+    handlers {
+      register {
+        add Integer, 1
+      }
+      handler new InjectedPrimitiveParameterHandler()
+    }
+
+    then:
+    text == "2"
+  }
+
+  static class Injected6Handler extends InjectionHandler {
+    @SuppressWarnings(["GrMethodMayBeStatic", "GroovyUnusedDeclaration"])
+    protected handle(Context context, String string, Integer integer, Long l, Short s, Byte b, Character c) {
+      context.render([string, integer, l, s, b, c].join(":"))
+    }
+  }
+
+  static class Injected8Handler extends InjectionHandler {
+    @SuppressWarnings(["GrMethodMayBeStatic", "GroovyUnusedDeclaration"])
+    protected handle(Context context, String string, Integer integer, Long l, Short s, Byte b, Character c, Optional<Double> d, Optional<Float> f) {
+      context.render([string, integer, l, s, b, c, d.orElse(null), f.orElse(0f)].join(":"))
+    }
+  }
+
+  @Unroll
+  def "can inject many parameters with #injectionHandler.class.simpleName"() {
+    when:
+    handlers {
+      register {
+        add String, "s"
+        add Integer, 1
+        add Long, 2L
+        add Short, 3 as Short
+        add Byte, 4 as Byte
+        add Character, 'c' as Character
+        add Double, 5d
+      }
+      handler injectionHandler
+    }
+
+    then:
+    text == expected
+
+    where:
+    injectionHandler          | expected
+    new Injected6Handler()    | "s:1:2:3:4:c"
+    new Injected8Handler()    | "s:1:2:3:4:c:5.0:0.0"
+  }
+
+  static class ThrowingHandler extends InjectionHandler {
+    @SuppressWarnings(["GrMethodMayBeStatic", "GroovyUnusedDeclaration"])
+    protected handle(Context context, String string) {
+      if (string == "checked") {
+        throw new Exception(string)
+      } else {
+        throw new IllegalStateException(string)
+      }
+    }
+  }
+
+  @Unroll
+  def "exceptions thrown by the handle method propagate to the error handler"() {
+    when:
+    handlers {
+      register {
+        add String, message
+        add ServerErrorHandler, { Context context, Throwable throwable ->
+          context.render("${throwable.class.simpleName}:${(throwable.cause ?: throwable).message}")
+        } as ServerErrorHandler
+      }
+      handler new ThrowingHandler()
+    }
+
+    then:
+    text == expected
+
+    where:
+    message     | expected
+    "unchecked" | "IllegalStateException:unchecked"
+    "checked"   | "UncheckedException:checked"
+  }
+
 }
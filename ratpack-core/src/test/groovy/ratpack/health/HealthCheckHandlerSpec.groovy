@@ -25,8 +25,12 @@ import ratpack.http.MediaType
 import ratpack.registry.Registry
 import ratpack.render.Renderer
 import ratpack.test.internal.RatpackGroovyDslSpec
+import spock.util.concurrent.PollingConditions
 
+import java.time.Duration
 import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeoutException
+import java.util.concurrent.atomic.AtomicInteger
 
 class HealthCheckHandlerSpec extends RatpackGroovyDslSpec {
 
@@ -358,4 +362,51 @@ class HealthCheckHandlerSpec extends RatpackGroovyDslSpec {
     assert results.baz.message == "Unhealthy"
   }
 
+  def "serves results of scheduled health checks without running checks per request"() {
+    given:
+    def runs = new AtomicInteger()
+
+    when:
+    bindings {
+      bindInstance(HealthCheck, HealthCheck.of("counting") { ec, r ->
+        runs.incrementAndGet()
+        ec.promiseOf(HealthCheck.Result.healthy())
+      })
+      bindInstance(ScheduledHealthChecks, ScheduledHealthChecks.of { it.interval(Duration.ofHours(1)) })
+    }
+    handlers {
+      get("health-checks/:name?", new HealthCheckHandler())
+    }
+
+    then:
+    getText("health-checks") == "counting : HEALTHY"
+    getText("health-checks") == "counting : HEALTHY"
+    getText("health-checks/counting") == "counting : HEALTHY"
+    get("health-checks/other").statusCode == 404
+    runs.get() == 1
+  }
+
+  def "scheduled health check that does not complete in time is unhealthy and becomes stale"() {
+    when:
+    bindings {
+      bindInstance(HealthCheck, HealthCheck.of("hanging") { ec, r -> ec.promise {} })
+      bindInstance(ScheduledHealthChecks, ScheduledHealthChecks.of {
+        it.interval(Duration.ofHours(1)).interval("hanging", Duration.ofMillis(200)).timeout("hanging", Duration.ofMillis(100))
+      })
+    }
+    handlers {
+      get("health-checks", new HealthCheckHandler())
+    }
+
+    then:
+    def result = getText("health-checks")
+    result.startsWith("hanging : UNHEALTHY")
+    result.contains(TimeoutException.name)
+
+    and:
+    new PollingConditions(timeout: 5).eventually {
+      assert getText("health-checks").endsWith("[STALE]")
+    }
+  }
+
 }
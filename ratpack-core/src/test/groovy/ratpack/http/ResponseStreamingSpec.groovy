@@ -16,13 +16,19 @@
 
 package ratpack.http
 
+import io.netty.buffer.ByteBuf
 import io.netty.buffer.Unpooled
 import io.netty.util.CharsetUtil
+import org.reactivestreams.Publisher
+import org.reactivestreams.Subscriber
+import org.reactivestreams.Subscription
 import ratpack.test.internal.RatpackGroovyDslSpec
 import spock.lang.Ignore
 
 import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
 import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.atomic.AtomicInteger
 
 import static ratpack.stream.Streams.publish
 
@@ -110,6 +116,72 @@ class ResponseStreamingSpec extends RatpackGroovyDslSpec {
     socket.close()
   }
 
+  def "can stream many small items"() {
+    given:
+    serverConfig { responseStreamWindow 4 }
+
+    when:
+    handlers {
+      get {
+        response.sendStream(publish(1..1000).map { Unpooled.copiedBuffer("$it,", CharsetUtil.UTF_8) })
+      }
+    }
+
+    then:
+    text == (1..1000).collect { "$it," }.join("")
+  }
+
+  def "can stream items produced asynchronously"() {
+    when:
+    handlers {
+      get {
+        response.sendStream(publish(1..10).flatMap { i -> blocking { Unpooled.copiedBuffer("$i,", CharsetUtil.UTF_8) } })
+      }
+    }
+
+    then:
+    text == (1..10).collect { "$it," }.join("")
+  }
+
+  def "items produced off the event loop are sent in order"() {
+    given:
+    def executor = Executors.newSingleThreadExecutor()
+    // a mix of items smaller and larger than the write threshold
+    def chunks = (1..200).collect { i -> (i % 3 == 0 ? "$i" * 5000 : "$i,").toString() }
+
+    when:
+    handlers {
+      get {
+        response.sendStream({ Subscriber<ByteBuf> subscriber ->
+          def sent = new AtomicInteger()
+          subscriber.onSubscribe(new Subscription() {
+            @Override
+            void request(long n) {
+              executor.execute {
+                for (int j = 0; j < n && sent.get() < chunks.size(); ++j) {
+                  subscriber.onNext(Unpooled.copiedBuffer(chunks[sent.getAndIncrement()], CharsetUtil.UTF_8))
+                }
+                if (sent.compareAndSet(chunks.size(), chunks.size() + 1)) {
+                  subscriber.onComplete()
+                }
+              }
+            }
+
+            @Override
+            void cancel() {
+            }
+          })
+        } as Publisher<ByteBuf>)
+      }
+    }
+
+    then:
+    text == chunks.join("")
+
+    cleanup:
+    executor.shutdownNow()
+  }
+
   void read(InputStream inputStream, int read) {
     while (read > 0) {
       def bytesRead = inputStream.skip(read)
@@ -24,6 +24,8 @@ import ratpack.http.internal.HttpHeaderConstants
 import ratpack.stream.Streams
 
 import java.time.Duration
+import java.util.concurrent.TimeoutException
+import java.util.zip.GZIPOutputStream
 
 import static ratpack.http.ResponseChunks.stringChunks
 import static ratpack.sse.ServerSentEvents.serverSentEvents
@@ -268,6 +270,76 @@ class HttpClientSmokeSpec extends HttpClientSpec {
     text == "foo"
   }
 
+  def "can stream body from publisher"() {
+    given:
+    otherApp {
+      post {
+        render request.body.text + ":" + request.headers.get(HttpHeaderConstants.TRANSFER_ENCODING)
+      }
+    }
+
+    when:
+    handlers {
+      get { HttpClient httpClient ->
+        httpClient.post(otherAppUrl()) {
+          it.body.publisher(publish(["foo", "bar", "baz"]).map { Unpooled.copiedBuffer(it, CharsetUtil.UTF_8) })
+        } then {
+          render it.body.text
+        }
+      }
+    }
+
+    then:
+    text == "foobarbaz:chunked"
+  }
+
+  def "decompresses gzip encoded response"() {
+    given:
+    otherApp {
+      get {
+        response.headers.set(HttpHeaderConstants.CONTENT_ENCODING, "gzip")
+        response.send("text/plain", gzip(request.headers.get(HttpHeaderConstants.ACCEPT_ENCODING)))
+      }
+    }
+
+    when:
+    handlers {
+      get { HttpClient httpClient ->
+        httpClient.get(otherAppUrl()) {
+        } then {
+          render it.body.text + ":" + it.headers.get(HttpHeaderConstants.CONTENT_ENCODING)
+        }
+      }
+    }
+
+    then:
+    text == "gzip,deflate:null"
+  }
+
+  def "can disable response decompression"() {
+    given:
+    otherApp {
+      get {
+        response.headers.set(HttpHeaderConstants.CONTENT_ENCODING, "gzip")
+        response.send("text/plain", gzip("foo"))
+      }
+    }
+
+    when:
+    handlers {
+      get { HttpClient httpClient ->
+        httpClient.get(otherAppUrl()) {
+          it.decompressResponse(false)
+        } then {
+          render Arrays.equals(it.body.bytes, gzip("foo")).toString() + ":" + it.headers.get(HttpHeaderConstants.CONTENT_ENCODING)
+        }
+      }
+    }
+
+    then:
+    text == "true:gzip"
+  }
+
   def "can set headers"() {
     given:
     otherApp {
@@ -415,6 +487,36 @@ class HttpClientSmokeSpec extends HttpClientSpec {
     text == ReadTimeoutException.name
   }
 
+  def "total timeout covers redirects"() {
+    when:
+    otherApp {
+      get("a") {
+        blocking { sleep 300 } then { redirect(302, otherAppUrl("b").toString()) }
+      }
+      get("b") {
+        blocking { sleep 300 } then { redirect(302, otherAppUrl("c").toString()) }
+      }
+      get("c") {
+        blocking { sleep 300 } then { render "c" }
+      }
+    }
+
+    handlers {
+      get { HttpClient httpClient ->
+        httpClient.get(otherAppUrl("a")) {
+          it.totalTimeout(Duration.ofMillis(700))
+        } onError {
+          render it.class.name
+        } then {
+          render "success"
+        }
+      }
+    }
+
+    then:
+    text == TimeoutException.name
+  }
+
   def "can directly stream a client chunked response"() {
     given:
     otherApp {
@@ -517,4 +619,10 @@ BAR
     text == "bar"
   }
 
+  private static byte[] gzip(String text) {
+    def bytes = new ByteArrayOutputStream()
+    new GZIPOutputStream(bytes).withStream { it << text.getBytes(CharsetUtil.UTF_8) }
+    bytes.toByteArray()
+  }
+
 }
@@ -16,8 +16,11 @@
 
 package ratpack.http.client
 
+import ratpack.handling.Handlers
 import ratpack.http.MutableHeaders
 
+import java.util.zip.GZIPOutputStream
+
 import static ratpack.http.ResponseChunks.stringChunks
 import static ratpack.stream.Streams.publish
 
@@ -193,4 +196,98 @@ transfer-encoding: chunked
     }
   }
 
+  def "can proxy requests with the proxy handler"() {
+    given:
+    otherApp {
+      post("foo") {
+        response.headers.set("x-foo-header", "foo")
+        render "$request.method:$request.uri:${request.headers.get("x-bar-header")}:$request.body.text"
+      }
+    }
+
+    and:
+    handlers {
+      handler(Handlers.proxy(otherAppUrl()))
+    }
+
+    when:
+    requestSpec {
+      it.headers.set("x-bar-header", "bar")
+      it.body.text("body")
+    }
+    def response = post("foo?q=1")
+
+    then:
+    response.body.text == "POST:/foo?q=1:bar:body"
+    response.headers.get("x-foo-header") == "foo"
+  }
+
+  def "proxy handler does not forward headers named by the connection header"() {
+    given:
+    otherApp {
+      get {
+        render "${request.headers.get("x-baz-header")}:${request.headers.get("x-qux-header")}"
+      }
+    }
+
+    and:
+    handlers {
+      handler(Handlers.proxy(otherAppUrl()))
+    }
+
+    when:
+    requestSpec {
+      it.headers.set("connection", "keep-alive, X-Baz-Header")
+      it.headers.set("x-baz-header", "baz")
+      it.headers.set("x-qux-header", "qux")
+    }
+    def response = get()
+
+    then:
+    response.body.text == "null:qux"
+  }
+
+  def "proxy handler forwards large chunked responses"() {
+    given:
+    def chunk = "a" * 8192
+    otherApp {
+      get {
+        render stringChunks(publish([chunk] * 100))
+      }
+    }
+
+    and:
+    handlers {
+      handler(Handlers.proxy(otherAppUrl()))
+    }
+
+    expect:
+    text == chunk * 100
+  }
+
+  def "proxy handler forwards compressed responses as is"() {
+    given:
+    def compressed = new ByteArrayOutputStream()
+    new GZIPOutputStream(compressed).withStream { it << "foo".bytes }
+
+    otherApp {
+      get {
+        response.headers.set("content-encoding", "gzip")
+        response.send("text/plain", compressed.toByteArray())
+      }
+    }
+
+    and:
+    handlers {
+      handler(Handlers.proxy(otherAppUrl()))
+    }
+
+    when:
+    def response = get()
+
+    then:
+    response.headers.get("content-encoding") == "gzip"
+    response.body.bytes == compressed.toByteArray()
+  }
+
 }
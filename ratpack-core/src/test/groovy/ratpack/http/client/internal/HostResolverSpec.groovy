@@ -0,0 +1,90 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.http.client.internal
+
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executor
+
+class HostResolverSpec extends Specification {
+
+  def lookups = 0
+  def queued = []
+  Executor executor = { Runnable r -> lookups++; queued << r } as Executor
+
+  def "literal addresses are not looked up"() {
+    def resolver = new HostResolver(executor)
+
+    expect:
+    resolver.resolve("127.0.0.1").get().hostAddress == "127.0.0.1"
+    resolver.resolve("[::1]").get() instanceof Inet6Address
+    lookups == 0
+  }
+
+  def "concurrent and subsequent lookups of the same host share a lookup"() {
+    def resolver = new HostResolver(executor, Duration.ofMinutes(1))
+
+    when:
+    def first = resolver.resolve("localhost")
+    def second = resolver.resolve("localhost")
+
+    then:
+    first.is(second)
+    !first.done
+    lookups == 1
+
+    when:
+    queued*.run()
+
+    then:
+    first.get().loopbackAddress
+    resolver.resolve("localhost").is(first)
+    lookups == 1
+  }
+
+  def "expired lookups are repeated"() {
+    def resolver = new HostResolver(executor, Duration.ZERO)
+
+    when:
+    resolver.resolve("localhost")
+    resolver.resolve("localhost")
+
+    then:
+    lookups == 2
+  }
+
+  def "failed lookups are not cached"() {
+    def resolver = new HostResolver(executor, Duration.ofMinutes(1))
+
+    when:
+    def result = resolver.resolve("no-such-host.invalid")
+    queued*.run()
+    result.get()
+
+    then:
+    thrown ExecutionException
+
+    when:
+    resolver.resolve("no-such-host.invalid")
+
+    then:
+    lookups == 2
+  }
+
+}
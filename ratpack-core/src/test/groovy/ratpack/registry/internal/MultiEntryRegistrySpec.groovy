@@ -0,0 +1,152 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.registry.internal
+
+import com.google.common.reflect.TypeToken
+import ratpack.func.Function
+import ratpack.registry.Registries
+import ratpack.registry.MutableRegistry
+import spock.lang.Specification
+
+class MultiEntryRegistrySpec extends Specification {
+
+  private static final Class<?> STRING_ARRAY = ([] as String[]).getClass()
+  private static final Class<?> OBJECT_ARRAY = ([] as Object[]).getClass()
+  private static final Class<?> CHAR_SEQUENCE_ARRAY = ([] as CharSequence[]).getClass()
+
+  def "class lookups match type token lookups"() {
+    given:
+    def r = Registries.registry {
+      it
+        .add(String, "string")
+        .add(Integer, 1)
+        .add(CharSequence, "charsequence")
+        .add(new TypeToken<List<String>>() {}, ["list"])
+    }
+
+    expect:
+    r.maybeGet(type) == r.maybeGet(TypeToken.of(type))
+    r.getAll(type).toList() == r.getAll(TypeToken.of(type)).toList()
+    r.first(type, Function.identity()) == r.first(TypeToken.of(type), Function.identity())
+
+    where:
+    type << [String, CharSequence, Comparable, Integer, Number, List, Collection, Object, Map]
+  }
+
+  def "parameterized lookups are matched by type"() {
+    given:
+    def r = Registries.registry {
+      it
+        .add(new TypeToken<List<String>>() {}, ["strings"])
+        .add(new TypeToken<List<Integer>>() {}, [1])
+    }
+
+    expect:
+    r.get(new TypeToken<List<String>>() {}) == ["strings"]
+    r.get(new TypeToken<List<Integer>>() {}) == [1]
+    r.getAll(new TypeToken<List<? extends Number>>() {}).toList() == [[1]]
+    r.getAll(List).toList() == [[1], ["strings"]]
+  }
+
+  def "entries are resolved lazily"() {
+    given:
+    def calls = 0
+    def r = Registries.registry {
+      it
+        .add(Integer, 1)
+        .addLazy(String, { calls++; "string" })
+    }
+
+    when:
+    def all = r.getAll(CharSequence)
+
+    then:
+    calls == 0
+
+    when:
+    all.toList()
+
+    then:
+    calls == 1
+  }
+
+  def "flattened registry gives child precedence"() {
+    given:
+    def parent = Registries.registry { it.add(String, "parent").add(Integer, 1) }
+    def child = Registries.registry { it.add(String, "child").add(Long, 2L) }
+
+    when:
+    def flattened = MultiEntryRegistry.flatten(parent, child)
+
+    then:
+    flattened instanceof CachingRegistry
+    ((CachingRegistry) flattened).delegate.indexed
+    flattened.get(String) == "child"
+    flattened.getAll(String).toList() == ["child", "parent"]
+    flattened.getAll(Number).toList() == flattened.getAll(Number).toList()
+    flattened.getAll(Number).toList() == parent.join(child).getAll(Number).toList()
+  }
+
+  def "flattening includes joined registries"() {
+    given:
+    def parent = Registries.registry { it.add(String, "a").add(Integer, 1) }.join(Registries.just(String, "b"))
+    def child = Registries.just(String, "c")
+
+    expect:
+    MultiEntryRegistry.flatten(parent, child).getAll(String).toList() == ["c", "b", "a"]
+  }
+
+  def "does not flatten registries that are not a fixed list of entries"() {
+    given:
+    def parent = Registries.registry { it.add(String, "a").add(Integer, 1) }
+    def child = Mock(MutableRegistry)
+
+    when:
+    def flattened = MultiEntryRegistry.flatten(parent, child)
+
+    then:
+    flattened instanceof HierarchicalRegistry
+    ((CachingRegistry) ((HierarchicalRegistry) flattened).parent).delegate.indexed
+    ((HierarchicalRegistry) flattened).child.is(child)
+    MultiEntryRegistry.flatten(Registries.empty(), child).is(child)
+  }
+
+  def "registries are only indexed when requested"() {
+    expect:
+    !((CachingRegistry) Registries.registry { it.add(String, "a") }).delegate.indexed
+  }
+
+  def "indexed lookups match scanning lookups"() {
+    given:
+    def entries = [
+      new DefaultRegistryEntry<>(TypeToken.of(String), "string"),
+      new DefaultRegistryEntry<>(TypeToken.of(Integer), 1),
+      new DefaultRegistryEntry<>(new TypeToken<ArrayList<String>>() {}, ["list"]),
+      new DefaultRegistryEntry<>(TypeToken.of(STRING_ARRAY), ["array"] as String[])
+    ]
+    def indexed = MultiEntryRegistry.indexed(entries)
+    def scanned = new MultiEntryRegistry(entries)
+
+    expect:
+    indexed.getAll(type).toList() == scanned.getAll(type).toList()
+    indexed.maybeGet(type) == scanned.maybeGet(type)
+
+    where:
+    type << [String, CharSequence, Comparable, Number, List, Collection, RandomAccess, Serializable, Object, Map, STRING_ARRAY, OBJECT_ARRAY, CHAR_SEQUENCE_ARRAY]
+  }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.registry.internal
+
+import com.google.common.base.Supplier
+import com.google.common.collect.ImmutableList
+import com.google.common.reflect.TypeToken
+import ratpack.registry.Registries
+import ratpack.registry.Registry
+import ratpack.registry.RegistryBacking
+import spock.lang.Specification
+
+class RegistryDispatchCacheSpec extends Specification {
+
+  def resolutions = 0
+  def cache = new RegistryDispatchCache<Class<?>, CharSequence>({ Registry registry, Class<?> type ->
+    resolutions++
+    ImmutableList.copyOf(registry.getAll(CharSequence).findAll { type.isInstance(it) })
+  })
+
+  private static Registry indexed(Registry registry) {
+    MultiEntryRegistry.flatten(registry, Registries.empty())
+  }
+
+  def "resolves once per registry and key"() {
+    given:
+    def registry = indexed(Registries.registry().add("a").add(new StringBuilder("b")).build())
+
+    when:
+    def first = cache.get(registry, String)
+    def second = cache.get(registry, String)
+
+    then:
+    first == ["a"]
+    second.is(first)
+    resolutions == 1
+
+    when:
+    cache.get(registry, StringBuilder)
+
+    then:
+    resolutions == 2
+  }
+
+  def "joined registries reuse parent resolution and order child first"() {
+    given:
+    def parent = indexed(Registries.registry().add("parent-1").add("parent-2").build())
+    cache.get(parent, String)
+
+    when:
+    def joined = parent.join(Registries.just("child"))
+
+    then:
+    cache.get(joined, String) == ["child", "parent-2", "parent-1"]
+    resolutions == 2
+  }
+
+  def "mutable registries are not cached"() {
+    given:
+    def registry = new SimpleMutableRegistry()
+    registry.add("a")
+
+    when:
+    cache.get(registry, String)
+    registry.add("b")
+
+    then:
+    cache.get(registry, String) == ["b", "a"]
+    resolutions == 2
+  }
+
+  def "registries that are not known to be long lived are not cached"() {
+    given:
+    def registry = Registries.registry().add("a").build()
+
+    when:
+    cache.get(registry, String)
+    cache.get(registry, String)
+
+    then:
+    resolutions == 2
+  }
+
+  def "user defined registries are not cached"() {
+    given:
+    def registry = Mock(Registry) {
+      getAll(CharSequence) >>> [["a"], ["b"]]
+    }
+
+    expect:
+    cache.get(registry, String) == ["a"]
+    cache.get(registry, String) == ["b"]
+  }
+
+  def "backed registries are not cached, as they may supply new objects on each lookup"() {
+    given:
+    def registry = Registries.backedRegistry(new RegistryBacking() {
+      @Override
+      def <T> Iterable<Supplier<? extends T>> provide(TypeToken<T> type) {
+        type.rawType == CharSequence ? [{ new StringBuilder("a") } as Supplier<T>] : []
+      }
+    })
+
+    when:
+    def first = cache.get(registry, StringBuilder)
+    def second = cache.get(registry, StringBuilder)
+
+    then:
+    resolutions == 2
+    !first[0].is(second[0])
+  }
+
+  def "empty results are not remembered when requested"() {
+    given:
+    def registry = indexed(Registries.registry().add("a").add("b").build())
+
+    when:
+    cache.getIfResolvable(registry, Integer)
+    cache.getIfResolvable(registry, Integer)
+
+    then:
+    resolutions == 2
+  }
+
+}
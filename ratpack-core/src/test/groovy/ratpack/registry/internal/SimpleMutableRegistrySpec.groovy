@@ -67,6 +67,18 @@ class SimpleMutableRegistrySpec extends RegistryContractSpec {
     thrown NotInRegistryException
   }
 
+  def "lookups reflect entries added after previous lookups"() {
+    expect:
+    !r.maybeGet(String).present
+
+    when:
+    r.add("foo")
+
+    then:
+    r.get(String) == "foo"
+    r.getAll(CharSequence).toList() == ["foo"]
+  }
+
   def "ordering"() {
     when:
     r.add("foo")
@@ -22,6 +22,13 @@ import ratpack.test.http.TestHttpClient
 import spock.lang.AutoCleanup
 import spock.lang.Specification
 
+import java.time.Duration
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+
+import static ratpack.http.ResponseChunks.stringChunks
+import static ratpack.stream.Streams.periodically
+
 class RatpackServerTestSpec extends Specification {
 
   @AutoCleanup("stop")
@@ -203,4 +210,212 @@ class RatpackServerTestSpec extends Specification {
     reloadCounter == 2
 
   }
+
+  def "reload swaps the application without rebinding and lets in-flight requests complete"() {
+    given:
+    def value = "foo"
+    def events = new CopyOnWriteArrayList<String>()
+    def slowStarted = new CountDownLatch(1)
+    def releaseSlow = new CountDownLatch(1)
+
+    server = RatpackServer.of {
+      it.serverConfig(ServerConfig.embedded().development(false))
+      it.registryOf {
+        def registryValue = value
+        it.add(String, registryValue)
+        it.add(Service, new Service() {
+          @Override
+          void onStart(StartEvent event) throws Exception {
+            events << "start " + registryValue
+          }
+
+          @Override
+          void onStop(StopEvent event) throws Exception {
+            events << "stop " + registryValue
+          }
+        })
+      }
+      it.handler {
+        return { ctx ->
+          if (ctx.request.path == "slow") {
+            slowStarted.countDown()
+            ctx.blocking { releaseSlow.await() } then { ctx.render ctx.get(String) }
+          } else {
+            ctx.render ctx.get(String)
+          }
+        } as Handler
+      }
+    }
+
+    when:
+    server.start()
+    def port = server.bindPort
+    String slowText = null
+    def slowRequest = Thread.start { slowText = new URL("http://localhost:$port/slow").text }
+    slowStarted.await()
+
+    and:
+    value = "bar"
+    def reload = Thread.start { server.reload() }
+    // the previous application serves until the new one has started, so no request fails
+    while (new URL("http://localhost:$port/").text != "bar") {
+      sleep 10
+    }
+
+    then:
+    events == ["start foo", "start bar"]
+
+    when:
+    releaseSlow.countDown()
+    slowRequest.join()
+    reload.join()
+
+    then:
+    slowText == "foo"
+    events == ["start foo", "start bar", "stop foo"]
+    server.bindPort == port
+    http.text == "bar"
+  }
+
+  def "stop waits for requests in progress before stopping services"() {
+    given:
+    def events = new CopyOnWriteArrayList<String>()
+    def slowStarted = new CountDownLatch(1)
+    def releaseSlow = new CountDownLatch(1)
+
+    server = RatpackServer.of {
+      it.serverConfig(ServerConfig.embedded().development(false))
+      it.registryOf {
+        it.add(Service, new Service() {
+          @Override
+          void onStop(StopEvent event) throws Exception {
+            events << "stop"
+          }
+        })
+      }
+      it.handler {
+        return { ctx ->
+          slowStarted.countDown()
+          ctx.blocking { releaseSlow.await() } then {
+            events << "respond"
+            ctx.render "ok"
+          }
+        } as Handler
+      }
+    }
+
+    when:
+    server.start()
+    def connection = new URL("http://localhost:$server.bindPort/").openConnection() as HttpURLConnection
+    String slowText = null
+    def slowRequest = Thread.start { slowText = connection.inputStream.text }
+    slowStarted.await()
+    def stop = Thread.start { server.stop() }
+    sleep 100
+
+    then:
+    events.empty
+
+    when:
+    releaseSlow.countDown()
+    slowRequest.join()
+    stop.join()
+
+    then:
+    slowText == "ok"
+    connection.getHeaderField("Connection") == "close"
+    events == ["respond", "stop"]
+    !server.running
+  }
+
+  def "stop gives up waiting for requests in progress after the shutdown timeout"() {
+    given:
+    def releaseSlow = new CountDownLatch(1)
+    def slowStarted = new CountDownLatch(1)
+
+    server = RatpackServer.of {
+      it.serverConfig(ServerConfig.embedded().development(false).shutdownTimeout(Duration.ofMillis(100)))
+      it.handler {
+        return { ctx ->
+          slowStarted.countDown()
+          ctx.blocking { releaseSlow.await() } then { ctx.render "ok" }
+        } as Handler
+      }
+    }
+
+    when:
+    server.start()
+    def port = server.bindPort
+    Thread.start {
+      try {
+        new URL("http://localhost:$port/").text
+      } catch (IOException ignore) {
+      }
+    }
+    slowStarted.await()
+    server.stop()
+
+    then:
+    !server.running
+
+    cleanup:
+    releaseSlow.countDown()
+  }
+
+  def "stop waits for streamed responses to be written"() {
+    given:
+    def streamStarted = new CountDownLatch(1)
+
+    server = RatpackServer.of {
+      it.serverConfig(ServerConfig.embedded().development(false))
+      it.handler {
+        return { ctx ->
+          ctx.render stringChunks(periodically(ctx, Duration.ofMillis(50)) { i ->
+            streamStarted.countDown()
+            i < 10 ? i.toString() : null
+          })
+        } as Handler
+      }
+    }
+
+    when:
+    server.start()
+    String text = null
+    def port = server.bindPort
+    def request = Thread.start { text = new URL("http://localhost:$port/").text }
+    streamStarted.await()
+    server.stop()
+    request.join()
+
+    then:
+    text == "0123456789"
+    !server.running
+  }
+
+  def "stop closes idle connections"() {
+    given:
+    server = RatpackServer.of {
+      it.serverConfig(ServerConfig.embedded().development(false))
+      it.handler {
+        return { ctx -> ctx.render "ok" } as Handler
+      }
+    }
+
+    when:
+    server.start()
+    def socket = new Socket("localhost", server.bindPort)
+    socket.outputStream.write("GET / HTTP/1.1\r\nHost: localhost\r\n\r\n".bytes)
+    def response = new StringBuilder()
+    while (!response.toString().endsWith("\r\n\r\nok")) {
+      response.append((char) socket.inputStream.read())
+    }
+    server.stop()
+
+    then:
+    response.toString().contains("keep-alive")
+    socket.inputStream.read() == -1
+
+    cleanup:
+    socket?.close()
+  }
 }
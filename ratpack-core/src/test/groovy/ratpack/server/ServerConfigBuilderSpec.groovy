@@ -20,6 +20,7 @@ import ratpack.ssl.SSLContexts
 import spock.lang.Specification
 
 import javax.net.ssl.SSLContext
+import java.time.Duration
 
 class ServerConfigBuilderSpec extends Specification {
 
@@ -133,6 +134,26 @@ class ServerConfigBuilderSpec extends Specification {
     builder.maxContentLength(256).build().maxContentLength == 256
   }
 
+  def "new builder has default response stream window"() {
+    expect:
+    builder.build().responseStreamWindow == ServerConfig.DEFAULT_RESPONSE_STREAM_WINDOW
+  }
+
+  def "set response stream window"() {
+    expect:
+    builder.responseStreamWindow(64).build().responseStreamWindow == 64
+  }
+
+  def "new builder has default shutdown timeout"() {
+    expect:
+    builder.build().shutdownTimeout == ServerConfig.DEFAULT_SHUTDOWN_TIMEOUT
+  }
+
+  def "set shutdown timeout"() {
+    expect:
+    builder.shutdownTimeout(Duration.ofSeconds(5)).build().shutdownTimeout == Duration.ofSeconds(5)
+  }
+
   def "set ssl context"() {
     given:
     SSLContext context = SSLContexts.sslContext(ServerConfigBuilderSpec.classLoader.getResourceAsStream('ratpack/launch/internal/keystore.jks'), 'password')
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.sse
+
+import ratpack.sse.internal.DefaultEvent
+import ratpack.stream.OverflowStrategy
+import ratpack.test.internal.RatpackGroovyDslSpec
+
+import java.time.Duration
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+
+class ServerSentEventTopicSpec extends RatpackGroovyDslSpec {
+
+  ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor()
+
+  def cleanup() {
+    executor.shutdownNow()
+  }
+
+  ServerSentEventTopic topic(Closure<?> spec = {}) {
+    def topic = ServerSentEventTopic.of(executor) { ServerSentEventTopic.Spec s -> s.with(spec) }
+    handlers {
+      get { render topic.stream() }
+    }
+    topic
+  }
+
+  def "new clients only receive live events"() {
+    when:
+    def topic = topic()
+    topic.publish("a") { it.data(it.item) }
+    topic.close()
+
+    then:
+    text == ""
+  }
+
+  def "reconnecting clients receive events after last event id"() {
+    when:
+    def topic = topic()
+    (1..5).each { i -> topic.publish(i) { it.data("event $i".toString()) } }
+    topic.close()
+    requestSpec { it.headers.add("Last-Event-ID", "3") }
+
+    then:
+    text == "data: event 4\nid: 4\n\ndata: event 5\nid: 5\n\n"
+  }
+
+  def "replays all retained events when last event id has been evicted"() {
+    when:
+    def topic = topic { maxEvents(2) }
+    (1..5).each { i -> topic.publish(i) { it.id("e$i").data("$i".toString()) } }
+    topic.close()
+    requestSpec { it.headers.add("Last-Event-ID", "e1") }
+
+    then:
+    text == "data: 4\nid: e4\n\ndata: 5\nid: e5\n\n"
+  }
+
+  def "retained events are bounded by size"() {
+    when:
+    def topic = topic { maxBytes(40) }
+    (1..3).each { i -> topic.publish(i) { it.data("0123456789".toString()) } }
+    topic.close()
+    requestSpec { it.headers.add("Last-Event-ID", "0") }
+
+    then:
+    text == "data: 0123456789\nid: 3\n\n"
+  }
+
+  def "sends retry hint"() {
+    when:
+    def topic = topic { retry(Duration.ofSeconds(5)) }
+    topic.close()
+
+    then:
+    text == "retry: 5000\n\n"
+  }
+
+  def "sends live events and heartbeats to subscribers"() {
+    when:
+    def topic = topic { heartbeat(Duration.ofMillis(20)) }
+    Thread.start {
+      sleep 500
+      topic.publish("a") { it.data(it.item) }
+      sleep 100
+      topic.close()
+    }
+
+    then:
+    def received = text
+    received.startsWith(":\n\n")
+    received.contains("data: a\nid: 1\n\n")
+  }
+
+  def "events published concurrently are sent in the order they are published"() {
+    when:
+    def topic = topic()
+    def latch = new CountDownLatch(1)
+    Thread.start {
+      sleep 500
+      (1..4).collect { t ->
+        Thread.start {
+          latch.await()
+          (1..50).each { i -> topic.publish("$t-$i".toString()) { it.data(it.item) } }
+        }
+      }.each {
+        latch.countDown()
+        it.join()
+      }
+      topic.close()
+    }
+
+    then:
+    def ids = (text =~ /id: (\d+)/).collect { it[1] as int }
+    ids == (1..200).toList()
+  }
+
+  def "blocking overflow strategy is not supported"() {
+    when:
+    ServerSentEventTopic.of(executor) { it.buffer(10, OverflowStrategy.BLOCK) }
+
+    then:
+    thrown IllegalArgumentException
+  }
+
+  def "assigns ids without modifying the published event"() {
+    when:
+    def topic = topic()
+    def other = ServerSentEventTopic.of(executor) {}
+    def event = new DefaultEvent<String>().data("a")
+    other.publish(event)
+    topic.publish(event)
+    topic.publish(event)
+    topic.close()
+    requestSpec { it.headers.add("Last-Event-ID", "0") }
+
+    then:
+    event.id == null
+    text == "data: a\nid: 1\n\ndata: a\nid: 2\n\n"
+  }
+
+}
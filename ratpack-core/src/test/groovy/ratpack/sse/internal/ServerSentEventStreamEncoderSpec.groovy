@@ -16,6 +16,7 @@
 
 package ratpack.sse.internal
 
+import io.netty.buffer.Unpooled
 import io.netty.buffer.UnpooledByteBufAllocator
 import io.netty.util.CharsetUtil
 import org.reactivestreams.Publisher
@@ -58,6 +59,29 @@ class ServerSentEventStreamEncoderSpec extends RatpackGroovyDslSpec {
     serverSentEvent { it.event("fooType") }                                                         | "event: fooType\n\n"
   }
 
+  def "can encode multi line and non ascii data"() {
+    expect:
+    encoder.encode(serverSentEvent { it.event("f\u00f6\u00f6").data("\u20ac1\n\ud83d\ude00\n\nend") }, UnpooledByteBufAllocator.DEFAULT).toString(CharsetUtil.UTF_8) ==
+      "event: f\u00f6\u00f6\ndata: \u20ac1\ndata: \ud83d\ude00\ndata: \ndata: end\n\n"
+  }
+
+  @Unroll
+  def "can encode pre encoded data"() {
+    given:
+    def buffer = data == null ? null : Unpooled.copiedBuffer(data, CharsetUtil.UTF_8)
+
+    expect:
+    encoder.encode(type, buffer, id, UnpooledByteBufAllocator.DEFAULT).toString(CharsetUtil.UTF_8) == expectedEncoding
+    buffer == null || buffer.refCnt() == 1
+
+    where:
+    type      | data                  | id      | expectedEncoding
+    "fooType" | "fooData"             | "fooId" | "event: fooType\ndata: fooData\nid: fooId\n\n"
+    null      | "foo\nbar\n"          | null    | "data: foo\ndata: bar\ndata: \n\n"
+    null      | "\u20ac"              | "fooId" | "data: \u20ac\nid: fooId\n\n"
+    "fooType" | null                  | null    | "event: fooType\n\n"
+  }
+
   public <T> Event serverSentEvent(T t, Action<? super Event> action) {
     toList(ServerSentEvents.serverSentEvents(Streams.publish([t]), action).publisher).get(0)
   }
@@ -16,11 +16,14 @@
 
 package ratpack.ssl
 
+import io.netty.handler.ssl.SslHandler
 import org.junit.Rule
 import ratpack.test.internal.RatpackGroovyDslSpec
 import ratpack.test.internal.ssl.client.NonValidatingSSLClientContext
 import spock.lang.Unroll
 
+import javax.net.ssl.SSLParameters
+
 class HttpsSpec extends RatpackGroovyDslSpec {
 
   @Rule
@@ -76,6 +79,32 @@ class HttpsSpec extends RatpackGroovyDslSpec {
 
   }
 
-}
+  def "uses a new engine with the configured parameters for each connection"() {
+    given:
+    serverConfig {
+      ssl SSLContexts.sslContext(HttpsSpec.getResource("dummy.keystore"), "password"), new SSLParameters(null, ["TLSv1.2"] as String[])
+    }
 
+    and:
+    Set<Integer> engines = Collections.synchronizedSet(new HashSet<Integer>())
+    handlers {
+      get {
+        def engine = directChannelAccess.channel.pipeline().get(SslHandler).engine()
+        engines << System.identityHashCode(engine)
+        response.send engine.enabledProtocols.join(",")
+      }
+    }
+
+    when:
+    def texts = (1..3).collect {
+      def connection = applicationUnderTest.address.toURL().openConnection()
+      connection.setRequestProperty("Connection", "close")
+      connection.inputStream.text
+    }
 
+    then:
+    texts == ["TLSv1.2"] * 3
+    engines.size() == 3
+  }
+
+}
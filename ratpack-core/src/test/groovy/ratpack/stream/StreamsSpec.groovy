@@ -17,6 +17,7 @@
 
 package ratpack.stream
 
+import org.reactivestreams.Publisher
 import org.reactivestreams.Subscriber
 import org.reactivestreams.Subscription
 import ratpack.func.Function
@@ -624,4 +625,205 @@ class StreamsSpec extends Specification {
     then:
     s.received == [2, 4, 6, 8, 10, 12, 14, 16, 18, 20]
   }
+
+  def "bounded buffer can drop oldest or newest items when full"() {
+    given:
+    def p = (1..10).publish().buffer(3, strategy)
+
+    when:
+    def s = CollectingSubscriber.subscribe(p)
+    s.subscription.request(1)
+
+    then:
+    s.received == [1]
+    p.bufferedCount == 3
+    p.maxBufferedCount == 3
+    p.droppedCount == 6
+
+    when:
+    s.subscription.request(10)
+
+    then:
+    s.received == expected
+    s.complete
+    p.bufferedCount == 0
+
+    where:
+    strategy                        | expected
+    OverflowStrategy.DROP_OLDEST    | [1, 8, 9, 10]
+    OverflowStrategy.DROP_NEWEST    | [1, 2, 3, 4]
+  }
+
+  def "bounded buffer can error when full"() {
+    given:
+    def p = (1..10).publish().buffer(3, OverflowStrategy.ERROR)
+
+    when:
+    def s = CollectingSubscriber.subscribe(p)
+    s.subscription.request(1)
+
+    then:
+    s.received == [1]
+    s.error instanceof BufferOverflowException
+    p.bufferedCount == 0
+    p.droppedCount == 4
+  }
+
+  def "bounded buffer does not request more than it can hold"() {
+    given:
+    def requested = []
+    def p = Streams.transformable({ subscriber ->
+      (1..100).publish().subscribe(new Subscriber<Integer>() {
+        @Override
+        void onSubscribe(Subscription s) {
+          subscriber.onSubscribe(new Subscription() {
+            @Override
+            void request(long n) {
+              requested << n
+              s.request(n)
+            }
+
+            @Override
+            void cancel() {
+              s.cancel()
+            }
+          })
+        }
+
+        @Override
+        void onNext(Integer integer) {
+          subscriber.onNext(integer)
+        }
+
+        @Override
+        void onError(Throwable t) {
+          subscriber.onError(t)
+        }
+
+        @Override
+        void onComplete() {
+          subscriber.onComplete()
+        }
+      })
+    } as Publisher<Integer>).buffer(4, OverflowStrategy.BLOCK)
+
+    when:
+    def s = CollectingSubscriber.subscribe(p)
+    s.subscription.request(1)
+
+    then:
+    s.received == [1]
+    requested == [4]
+    p.bufferedCount == 3
+
+    when:
+    s.subscription.request(1)
+
+    then:
+    s.received == [1, 2]
+    requested == [4, 2]
+    p.bufferedCount == 4
+
+    when:
+    s.subscription.request(Long.MAX_VALUE)
+
+    then:
+    s.received == (1..100).toList()
+    s.complete
+    p.droppedCount == 0
+    p.maxBufferedCount == 4
+  }
+
+  def "fused transformations respect back pressure"() {
+    given:
+    def p = (1..10).publish().map { it * 2 }.filter { it % 3 == 0 }.map { it.toString() }
+
+    when:
+    def s = CollectingSubscriber.subscribe(p)
+    s.subscription.request(2)
+
+    then:
+    s.received == ["6", "12"]
+    !s.complete
+
+    when:
+    s.subscription.request(10)
+
+    then:
+    s.received == ["6", "12", "18"]
+    s.complete
+  }
+
+  def "wiretap before filter sees requests for replacements of filtered items"() {
+    given:
+    def requests = []
+    def p = (1..6).publish().wiretap {
+      if (it.request) {
+        requests << it.requestAmount
+      }
+    }.filter { it % 2 == 0 }
+
+    when:
+    def s = CollectingSubscriber.subscribe(p)
+    s.subscription.request(2)
+
+    then:
+    s.received == [2, 4]
+    requests == [2, 1, 1]
+  }
+
+  def "fused wiretaps see errors and cancellation of transformations"() {
+    given:
+    def before = []
+    def after = []
+    def error = new RuntimeException("!")
+    def p = (1..3).publish().wiretap { before << it }.map { throw error }.wiretap { after << it }
+
+    when:
+    def s = CollectingSubscriber.subscribe(p)
+    s.subscription.request(1)
+
+    then:
+    s.error.is(error)
+    before*.request == [true, false, false]
+    before[1].item == 1
+    before[2].cancel
+    after*.request == [true, false]
+    after[1].throwable.is(error)
+  }
+
+  def "iterable publisher does not signal errors while sending an item"() {
+    given:
+    def events = []
+    Subscription subscription
+
+    when:
+    (1..3).publish().subscribe(new Subscriber<Integer>() {
+      @Override
+      void onSubscribe(Subscription s) {
+        subscription = s
+        s.request(1)
+      }
+
+      @Override
+      void onNext(Integer integer) {
+        events << "start $integer".toString()
+        subscription.request(0)
+        events << "end $integer".toString()
+      }
+
+      @Override
+      void onError(Throwable t) {
+        events << t.class
+      }
+
+      @Override
+      void onComplete() {
+        events << "complete"
+      }
+    })
+
+    then:
+    events == ["start 1", "end 1", IllegalArgumentException]
+  }
 }
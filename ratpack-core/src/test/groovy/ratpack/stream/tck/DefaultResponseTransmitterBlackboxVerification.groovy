@@ -18,6 +18,7 @@ package ratpack.stream.tck
 
 import io.netty.buffer.ByteBuf
 import io.netty.buffer.Unpooled
+import io.netty.buffer.UnpooledByteBufAllocator
 import io.netty.channel.Channel
 import io.netty.channel.ChannelFuture
 import io.netty.handler.codec.http.FullHttpRequest
@@ -28,6 +29,7 @@ import org.reactivestreams.tck.SubscriberBlackboxVerification
 import org.reactivestreams.tck.TestEnvironment
 import ratpack.event.internal.DefaultEventController
 import ratpack.handling.RequestOutcome
+import ratpack.server.ServerConfig
 import ratpack.server.internal.DefaultResponseTransmitter
 
 import java.util.concurrent.atomic.AtomicBoolean
@@ -49,6 +51,7 @@ class DefaultResponseTransmitterBlackboxVerification extends SubscriberBlackboxV
     when(channel.isOpen()).thenReturn(true)
     when(channel.writeAndFlush(any()).addListener(any())).thenReturn(channelFuture)
     when(channel.isWritable()).thenReturn(true)
+    when(channel.alloc()).thenReturn(UnpooledByteBufAllocator.DEFAULT)
 
     FullHttpRequest nettyRequest = mock(FullHttpRequest, RETURNS_DEEP_STUBS)
     when(nettyRequest.retain()).thenReturn(nettyRequest)
@@ -61,7 +64,7 @@ class DefaultResponseTransmitterBlackboxVerification extends SubscriberBlackboxV
     when(eventController.hasListeners).thenReturn(false)
 
     new DefaultResponseTransmitter(
-      new AtomicBoolean(), null, channel, nettyRequest, null, responseHeaders, eventController
+      new AtomicBoolean(), null, channel, nettyRequest, null, responseHeaders, eventController, ServerConfig.DEFAULT_RESPONSE_STREAM_WINDOW, { false }
     ).transmitter(HttpResponseStatus.OK)
   }
 
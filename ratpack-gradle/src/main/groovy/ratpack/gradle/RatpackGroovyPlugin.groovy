@@ -18,7 +18,11 @@ package ratpack.gradle
 
 import org.gradle.api.Plugin
 import org.gradle.api.Project
+import org.gradle.api.Task
 import org.gradle.api.plugins.GroovyPlugin
+import org.gradle.api.tasks.SourceSet
+
+import java.nio.file.Path
 
 class RatpackGroovyPlugin implements Plugin<Project> {
 
@@ -35,6 +39,30 @@ class RatpackGroovyPlugin implements Plugin<Project> {
       compile ratpackDependencies.groovy
       testCompile ratpackDependencies.groovyTest
     }
+
+    // Only validates the templates, nothing is produced for the runtime.
+    // Templates are compiled into in memory class loaders when first rendered (or at startup, if precompilation is enabled).
+    def templatesDir = project.file("src/ratpack/templates")
+    def runtimeClasspath = project.sourceSets[SourceSet.MAIN_SOURCE_SET_NAME].runtimeClasspath
+    def validateTextTemplates = project.tasks.create("validateTextTemplates")
+    validateTextTemplates.with {
+      group = "Ratpack"
+      description = "Validates that the Groovy text templates in 'src/ratpack/templates' compile, failing if any template does not"
+      inputs.dir templatesDir
+      inputs.files runtimeClasspath
+      onlyIf { templatesDir.directory }
+      doLast { Task task ->
+        def loader = new URLClassLoader(runtimeClasspath.files.collect { it.toURI().toURL() } as URL[], (ClassLoader) null)
+        try {
+          def validator = loader.loadClass("ratpack.groovy.template.internal.TextTemplatePrecompiler")
+          def count = validator.getMethod("validate", Path, Boolean.TYPE).invoke(null, templatesDir.toPath(), false)
+          task.logger.info("Validated {} text templates in {}", count, templatesDir)
+        } finally {
+          loader.close()
+        }
+      }
+    }
+    project.tasks.getByName("check").dependsOn validateTextTemplates
   }
 
 }
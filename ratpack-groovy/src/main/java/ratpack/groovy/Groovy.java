@@ -48,6 +48,7 @@ import ratpack.handling.Chain;
 import ratpack.handling.Context;
 import ratpack.handling.Handler;
 import ratpack.handling.internal.ChainBuilders;
+import ratpack.handling.internal.DefaultContext;
 import ratpack.http.internal.HttpHeaderConstants;
 import ratpack.registry.Registry;
 import ratpack.server.RatpackServerSpec;
@@ -281,7 +282,13 @@ public abstract class Groovy {
    * @return The original context wrapped in a Groovy context
    */
   public static GroovyContext context(Context context) {
-    return context instanceof GroovyContext ? (GroovyContext) context : new DefaultGroovyContext(context);
+    if (context instanceof GroovyContext) {
+      return (GroovyContext) context;
+    } else if (context instanceof DefaultContext) {
+      return ((DefaultContext) context).adapt(GroovyContext.class, DefaultGroovyContext::new);
+    } else {
+      return new DefaultGroovyContext(context);
+    }
   }
 
   /**
@@ -438,6 +445,11 @@ public abstract class Groovy {
 
   /**
    * Creates a handler instance from a closure.
+   * <p>
+   * The closure is cloned each time the handler is invoked, with the clone's delegate set to the request's {@link GroovyContext}.
+   * A clone per request is required because closures nested in the handler (e.g. promise callbacks) resolve methods through the handler closure's delegate,
+   * and may run after the handler has been invoked again for another request.
+   * The closure's parameter types are resolved once, when the handler is created.
    *
    * @param closure The closure to convert to a handler
    * @return The created handler
@@ -28,7 +28,6 @@ import ratpack.groovy.internal.ClosureInvoker;
 import ratpack.groovy.internal.ClosureUtil;
 import ratpack.handling.Context;
 import ratpack.handling.internal.DescribingHandler;
-import ratpack.registry.internal.HierarchicalRegistry;
 
 public class ClosureBackedHandler implements DescribingHandler {
 
@@ -38,8 +37,8 @@ public class ClosureBackedHandler implements DescribingHandler {
     this.invoker = new ClosureInvoker<Object, GroovyContext>(closure);
   }
 
-  public void handle(Context context) {
-    invoker.invoke(new HierarchicalRegistry(context.getRequest(), context), Groovy.context(context), Closure.DELEGATE_FIRST);
+  public void handle(Context context) throws Exception {
+    invoker.invoke(context, context.getRequest(), Groovy.context(context), Closure.DELEGATE_FIRST);
   }
 
   @Override
@@ -16,24 +16,33 @@
 
 package ratpack.groovy.internal;
 
-import com.google.common.base.Function;
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
 import com.google.common.reflect.TypeToken;
 import groovy.lang.Closure;
+import org.codehaus.groovy.runtime.metaclass.ClosureMetaClass;
 import ratpack.func.Action;
 import ratpack.handling.internal.Extractions;
+import ratpack.registry.NotInRegistryException;
 import ratpack.registry.Registry;
 
-import java.util.Collections;
-import java.util.List;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static ratpack.util.Exceptions.uncheck;
 
 public class ClosureInvoker<T, D> {
 
+  private static final TypeToken<?>[] NO_PARAMETER_TYPES = new TypeToken<?>[0];
+
   private final Closure<T> closure;
-  private final List<TypeToken<?>> parameterTypes;
+  private final TypeToken<?>[] parameterTypes;
+  private final TypeToken<?>[] optionalValueTypes;
   private final boolean hasDefaultParam;
-
+  private final MethodHandle doCall;
 
   @SuppressWarnings("unchecked")
   public ClosureInvoker(Closure<? extends T> closure) {
@@ -42,6 +51,13 @@ public class ClosureInvoker<T, D> {
     closure.setDelegate(null);
 
     this.parameterTypes = retrieveParameterTypes(this.closure);
+    this.optionalValueTypes = new TypeToken<?>[parameterTypes.length];
+    for (int i = 0; i < parameterTypes.length; ++i) {
+      if (parameterTypes[i].getRawType().equals(Optional.class)) {
+        optionalValueTypes[i] = optionalValueType(parameterTypes[i]);
+      }
+    }
+    this.doCall = doCallHandle(this.closure);
   }
 
   public Closure<T> getClosure() {
@@ -49,20 +65,50 @@ public class ClosureInvoker<T, D> {
   }
 
   public T invoke(Registry registry, D delegate, int resolveStrategy) {
-    @SuppressWarnings("unchecked")
-    Closure<T> clone = (Closure<T>) closure.clone();
-    clone.setDelegate(delegate);
-    clone.setResolveStrategy(resolveStrategy);
+    Closure<T> clone = prepare(delegate, resolveStrategy);
+    if (parameterTypes.length == 0) {
+      return hasDefaultParam ? clone.call(delegate) : clone.call();
+    } else {
+      return clone.call(Extractions.extract(Arrays.asList(parameterTypes), registry));
+    }
+  }
 
-    if (parameterTypes.isEmpty()) {
-      if (hasDefaultParam) {
-        return clone.call(delegate);
-      } else {
-        return clone.call();
-      }
+  /**
+   * Invokes the closure, resolving parameters from the given registry and then the fallback registry.
+   * <p>
+   * The closure's generated {@code doCall} method is called directly where possible, bypassing the meta class.
+   *
+   * @param registry the registry to resolve parameters from
+   * @param fallback the registry to resolve parameters from if they are not available from {@code registry}
+   * @param delegate the delegate for the closure
+   * @param resolveStrategy the resolve strategy for the closure
+   * @return the closure result
+   * @throws Exception any thrown by the closure
+   */
+  public T invoke(Registry registry, Registry fallback, D delegate, int resolveStrategy) throws Exception {
+    Closure<T> clone = prepare(delegate, resolveStrategy);
+    Object[] args;
+    if (parameterTypes.length == 0) {
+      args = hasDefaultParam ? new Object[]{delegate} : new Object[0];
     } else {
-      Object[] services = Extractions.extract(parameterTypes, registry);
-      return clone.call(services);
+      args = new Object[parameterTypes.length];
+      for (int i = 0; i < parameterTypes.length; ++i) {
+        args[i] = extract(i, registry, fallback);
+      }
+    }
+
+    if (doCall == null) {
+      return clone.call(args);
+    }
+
+    try {
+      Object result = doCall.invokeExact((Closure<?>) clone, args);
+      @SuppressWarnings("unchecked") T cast = (T) result;
+      return cast;
+    } catch (Exception | Error e) {
+      throw e;
+    } catch (Throwable throwable) {
+      throw uncheck(throwable);
     }
   }
 
@@ -74,23 +120,73 @@ public class ClosureInvoker<T, D> {
     };
   }
 
-  private static List<TypeToken<?>> retrieveParameterTypes(Closure<?> closure) {
+  // The delegate is per invocation, and nested closures resolve through it later (e.g. in promise callbacks), so each invocation needs its own copy.
+  private Closure<T> prepare(D delegate, int resolveStrategy) {
+    @SuppressWarnings("unchecked")
+    Closure<T> clone = (Closure<T>) closure.clone();
+    clone.setDelegate(delegate);
+    clone.setResolveStrategy(resolveStrategy);
+    return clone;
+  }
+
+  private Object extract(int i, Registry registry, Registry fallback) {
+    TypeToken<?> optionalValueType = optionalValueTypes[i];
+    if (optionalValueType == null) {
+      TypeToken<?> type = parameterTypes[i];
+      Optional<?> value = registry.maybeGet(type);
+      if (!value.isPresent()) {
+        value = fallback.maybeGet(type);
+      }
+      return value.orElseThrow(() -> new NotInRegistryException(type));
+    } else {
+      Optional<?> value = registry.maybeGet(optionalValueType);
+      return value.isPresent() ? value : fallback.maybeGet(optionalValueType);
+    }
+  }
+
+  private static TypeToken<?> optionalValueType(TypeToken<?> type) {
+    try {
+      return type.resolveType(Optional.class.getMethod("get").getGenericReturnType());
+    } catch (NoSuchMethodException e) {
+      throw new InternalError("Optional class does not have get method");
+    }
+  }
+
+  // Returns null if the closure can't be called directly, in which case it is called via its meta class.
+  private static MethodHandle doCallHandle(Closure<?> closure) {
+    if (!(closure.getMetaClass() instanceof ClosureMetaClass)) {
+      return null;
+    }
+
+    Class<?> closureClass = closure.getClass();
+    Class<?>[] parameterTypes = closure.getParameterTypes();
+    try {
+      Method method = closureClass.getMethod("doCall", parameterTypes);
+      if (!Modifier.isPublic(closureClass.getModifiers()) || method.getParameterTypes().length != closure.getMaximumNumberOfParameters()) {
+        return null;
+      }
+      return MethodHandles.publicLookup().unreflect(method)
+        .asSpreader(Object[].class, parameterTypes.length)
+        .asType(MethodType.methodType(Object.class, Closure.class, Object[].class));
+    } catch (NoSuchMethodException | IllegalAccessException | SecurityException e) {
+      return null;
+    }
+  }
+
+  private static TypeToken<?>[] retrieveParameterTypes(Closure<?> closure) {
     Class<?>[] parameterTypes = closure.getParameterTypes();
     if (parameterTypes.length == 1 && parameterTypes[0].equals(Object.class)) {
-      return Collections.emptyList();
+      return NO_PARAMETER_TYPES;
     } else {
-      for (Class<?> clazz : parameterTypes) {
+      TypeToken<?>[] types = new TypeToken<?>[parameterTypes.length];
+      for (int i = 0; i < parameterTypes.length; ++i) {
+        Class<?> clazz = parameterTypes[i];
         if (clazz.isArray()) {
           throw new IllegalStateException("Closure parameters cannot be array types (type: " + clazz.getName() + ", closure: " + closure.getClass().getName() + ")");
         }
+        types[i] = TypeToken.of(clazz);
       }
-
-      return Lists.transform(ImmutableList.copyOf(parameterTypes), new Function<Class<?>, TypeToken<?>>() {
-        @Override
-        public TypeToken<?> apply(Class<?> input) {
-          return TypeToken.of(input);
-        }
-      });
+      return types;
     }
   }
 }
@@ -21,6 +21,7 @@ import com.google.inject.Singleton;
 import io.netty.buffer.ByteBufAllocator;
 import ratpack.exec.ExecController;
 import ratpack.file.FileSystemBinding;
+import ratpack.groovy.template.internal.TextTemplatePrecompiler;
 import ratpack.groovy.template.internal.TextTemplateRenderingEngine;
 import ratpack.groovy.template.internal.TextTemplateRenderer;
 import ratpack.guice.ConfigurableModule;
@@ -32,6 +33,8 @@ public class TextTemplateModule extends ConfigurableModule<TextTemplateModule.Co
   public static class Config {
     private String templatesPath = "templates";
     private boolean staticallyCompile;
+    private boolean precompile;
+    private int flushThreshold;
 
     public String getTemplatesPath() {
       return templatesPath;
@@ -48,12 +51,48 @@ public class TextTemplateModule extends ConfigurableModule<TextTemplateModule.Co
     public void setStaticallyCompile(boolean staticallyCompile) {
       this.staticallyCompile = staticallyCompile;
     }
+
+    /**
+     * Whether all templates should be compiled when the application starts, instead of on first render.
+     * <p>
+     * Defaults to {@code false}.
+     * If any template fails to compile, the application will fail to start.
+     *
+     * @return whether all templates should be compiled when the application starts
+     */
+    public boolean isPrecompile() {
+      return precompile;
+    }
+
+    public void setPrecompile(boolean precompile) {
+      this.precompile = precompile;
+    }
+
+    /**
+     * The number of bytes of rendered output after which it is sent to the client, if greater than zero.
+     * <p>
+     * Defaults to {@code 0}, which renders the entire template before sending it with a content length.
+     * If set, the response is streamed using chunked transfer encoding as the template renders.
+     * Templates render synchronously, so rendered output that the client has not yet read is held in memory.
+     * Streaming sends the first bytes sooner and avoids growing a single buffer for the whole response, but does not bound the memory used by a response.
+     * An error while rendering a streamed template can't be sent as an error response, as the response has already been started, so the error is logged and the response ends early instead.
+     *
+     * @return the number of bytes of rendered output after which it is sent to the client
+     */
+    public int getFlushThreshold() {
+      return flushThreshold;
+    }
+
+    public void setFlushThreshold(int flushThreshold) {
+      this.flushThreshold = flushThreshold;
+    }
   }
 
 
   @Override
   protected void configure() {
     bind(TextTemplateRenderer.class);
+    bind(TextTemplatePrecompiler.class);
   }
 
   @Provides
@@ -17,8 +17,8 @@
 package ratpack.groovy.template.internal;
 
 import org.codehaus.groovy.runtime.DefaultGroovyMethods;
-import io.netty.buffer.ByteBuf;
 import ratpack.groovy.template.TextTemplateModel;
+import ratpack.stream.internal.ChunkedByteBufOutputStream;
 
 import java.util.Map;
 
@@ -32,11 +32,11 @@ public class CompiledTextTemplate {
     this.templateClass = templateClass;
   }
 
-  void execute(Map<String, ?> model, ByteBuf buffer, NestedRenderer nestedRenderer) {
+  void execute(Map<String, ?> model, ChunkedByteBufOutputStream output, NestedRenderer nestedRenderer) {
     @SuppressWarnings("unchecked")
     Map<String, Object> modelTyped = (Map<String, Object>) model;
     TextTemplateModel templateModel = new MapBackedTextTemplateModel(modelTyped);
-    DefaultTextTemplateScript script = DefaultGroovyMethods.newInstance(templateClass, new Object[]{templateModel, buffer, nestedRenderer});
+    DefaultTextTemplateScript script = DefaultGroovyMethods.newInstance(templateClass, new Object[]{templateModel, output, nestedRenderer});
 
     try {
       script.run();
@@ -25,6 +25,7 @@ import io.netty.buffer.ByteBufUtil;
 import io.netty.util.CharsetUtil;
 import ratpack.groovy.template.TextTemplateModel;
 import ratpack.groovy.template.TextTemplateScript;
+import ratpack.stream.internal.ChunkedByteBufOutputStream;
 
 import java.nio.CharBuffer;
 import java.util.Collections;
@@ -38,11 +39,11 @@ public abstract class DefaultTextTemplateScript extends Script implements TextTe
 
   private final TextTemplateModel model;
   private final NestedRenderer renderer;
-  private final ByteBuf buffer;
+  private final ChunkedByteBufOutputStream output;
 
-  protected DefaultTextTemplateScript(TextTemplateModel model, ByteBuf buffer, NestedRenderer renderer) {
+  protected DefaultTextTemplateScript(TextTemplateModel model, ChunkedByteBufOutputStream output, NestedRenderer renderer) {
     this.model = model;
-    this.buffer = buffer;
+    this.output = output;
     this.renderer = renderer;
   }
 
@@ -78,9 +79,12 @@ public abstract class DefaultTextTemplateScript extends Script implements TextTe
   @SuppressWarnings("UnusedDeclaration")
   public void $(CharSequence charSequence) {
     //CHECKSTYLE:ON
-    ByteBuf byteBuf = ByteBufUtil.encodeString(buffer.alloc(), CharBuffer.wrap(charSequence.toString()), CharsetUtil.UTF_8);
-    buffer.writeBytes(byteBuf);
-    byteBuf.release();
+    ByteBuf byteBuf = ByteBufUtil.encodeString(output.alloc(), CharBuffer.wrap(charSequence), CharsetUtil.UTF_8);
+    try {
+      output.write(byteBuf);
+    } finally {
+      byteBuf.release();
+    }
   }
 
 }
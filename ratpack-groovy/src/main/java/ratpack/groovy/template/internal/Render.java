@@ -23,6 +23,8 @@ import io.netty.buffer.ByteBufAllocator;
 import ratpack.exec.ExecControl;
 import ratpack.exec.Promise;
 import ratpack.func.Function;
+import ratpack.stream.TransformablePublisher;
+import ratpack.stream.internal.ChunkedByteBufOutputStream;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -51,19 +53,24 @@ public class Render {
 
   private Promise<ByteBuf> invoke() {
     return execControl.promise(f -> {
-        ByteBuf byteBuf = bufferAllocator.ioBuffer();
+        ChunkedByteBufOutputStream output = ChunkedByteBufOutputStream.unchunked(bufferAllocator);
         try {
-          CompiledTextTemplate fromCache = getFromCache(compiledTemplateCache, templateSource);
-          Render.this.execute(fromCache, model, byteBuf);
-          f.success(byteBuf);
+          execute(getFromCache(compiledTemplateCache, templateSource), model, output);
+          f.success(output.take());
         } catch (Throwable e) {
-          byteBuf.release();
+          output.release();
           f.error(e);
         }
       }
     );
   }
 
+  private TransformablePublisher<ByteBuf> stream(int flushThreshold) {
+    return ChunkedByteBufOutputStream.publisher(bufferAllocator, flushThreshold, output ->
+        execute(getFromCache(compiledTemplateCache, templateSource), model, output)
+    );
+  }
+
   private CompiledTextTemplate getFromCache(LoadingCache<TextTemplateSource, CompiledTextTemplate> compiledTemplateCache, TextTemplateSource templateSource) {
     try {
       return compiledTemplateCache.get(templateSource);
@@ -72,21 +79,25 @@ public class Render {
     }
   }
 
-  private void executeNested(final String templatePath, final Map<String, ?> model, ByteBuf buffer) throws Exception {
+  private void executeNested(final String templatePath, final Map<String, ?> model, ChunkedByteBufOutputStream output) throws Exception {
     TextTemplateSource templateSource = includeTransformer.apply(templatePath);
     CompiledTextTemplate compiledTemplate = getFromCache(compiledTemplateCache, templateSource);
-    execute(compiledTemplate, model, buffer);
+    execute(compiledTemplate, model, output);
   }
 
-  private void execute(CompiledTextTemplate compiledTemplate, final Map<String, ?> model, final ByteBuf parts) throws Exception {
-    compiledTemplate.execute(model, parts, (templatePath, nestedModel) -> {
+  private void execute(CompiledTextTemplate compiledTemplate, final Map<String, ?> model, final ChunkedByteBufOutputStream output) throws Exception {
+    compiledTemplate.execute(model, output, (templatePath, nestedModel) -> {
       Map<String, Object> modelCopy = new HashMap<>(model);
       modelCopy.putAll(nestedModel);
-      executeNested(templatePath, modelCopy, parts);
+      executeNested(templatePath, modelCopy, output);
     });
   }
 
   public static Promise<ByteBuf> render(ExecControl execControl, ByteBufAllocator bufferAllocator, LoadingCache<TextTemplateSource, CompiledTextTemplate> compiledTemplateCache, TextTemplateSource templateSource, Map<String, ?> model, Function<String, TextTemplateSource> includeTransformer) throws Exception {
     return new Render(execControl, bufferAllocator, compiledTemplateCache, templateSource, model, includeTransformer).invoke();
   }
+
+  public static TransformablePublisher<ByteBuf> stream(ByteBufAllocator bufferAllocator, LoadingCache<TextTemplateSource, CompiledTextTemplate> compiledTemplateCache, TextTemplateSource templateSource, Map<String, ?> model, Function<String, TextTemplateSource> includeTransformer, int flushThreshold) {
+    return new Render(null, bufferAllocator, compiledTemplateCache, templateSource, model, includeTransformer).stream(flushThreshold);
+  }
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.groovy.template.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ratpack.file.internal.ParallelFileVisitor;
+import ratpack.groovy.script.internal.ScriptEngine;
+import ratpack.groovy.template.TextTemplateModule;
+import ratpack.server.Service;
+import ratpack.server.StartEvent;
+import ratpack.util.internal.IoUtils;
+
+import javax.inject.Inject;
+import java.nio.file.Path;
+
+/**
+ * Compiles all text templates when the application starts, if {@link TextTemplateModule.Config#isPrecompile() enabled}.
+ * <p>
+ * The {@link #validate(Path, boolean)} method compiles the templates in a given directory without starting an application,
+ * and is used by the Gradle plugin to fail the build on template errors.
+ * The compiled templates are discarded, as templates are compiled into in memory class loaders when rendered.
+ */
+public class TextTemplatePrecompiler implements Service {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TextTemplatePrecompiler.class);
+
+  private final TextTemplateModule.Config config;
+  private final TextTemplateRenderingEngine engine;
+
+  @Inject
+  public TextTemplatePrecompiler(TextTemplateModule.Config config, TextTemplateRenderingEngine engine) {
+    this.config = config;
+    this.engine = engine;
+  }
+
+  @Override
+  public void onStart(StartEvent event) throws Exception {
+    if (config.isPrecompile()) {
+      event.getExecControl().blocking(engine::precompile)
+        .then(count -> LOGGER.info("Precompiled {} text templates", count));
+    }
+  }
+
+  /**
+   * Compiles the templates in the given directory, discarding the result.
+   *
+   * @param templateDir the template directory
+   * @param staticCompile whether to compile the templates statically
+   * @return the number of templates compiled
+   * @throws Exception the first template compilation failure
+   */
+  public static int validate(Path templateDir, boolean staticCompile) throws Exception {
+    ScriptEngine<DefaultTextTemplateScript> scriptEngine = new ScriptEngine<>(TextTemplatePrecompiler.class.getClassLoader(), staticCompile, DefaultTextTemplateScript.class);
+    TextTemplateCompiler compiler = new TextTemplateCompiler(scriptEngine, UnpooledByteBufAllocator.DEFAULT);
+
+    return ParallelFileVisitor.visit(templateDir, "", (templateId, templateFile) -> {
+      ByteBuf content = IoUtils.read(UnpooledByteBufAllocator.DEFAULT, templateFile);
+      try {
+        compiler.compile(content, templateId);
+      } finally {
+        content.release();
+      }
+    });
+  }
+
+}
@@ -18,6 +18,7 @@ package ratpack.groovy.template.internal;
 
 import ratpack.file.MimeTypes;
 import ratpack.groovy.template.TextTemplate;
+import ratpack.groovy.template.TextTemplateModule;
 import ratpack.handling.Context;
 import ratpack.render.RendererSupport;
 
@@ -26,20 +27,28 @@ import javax.inject.Inject;
 public class TextTemplateRenderer extends RendererSupport<TextTemplate> {
 
   private final TextTemplateRenderingEngine engine;
+  private final int flushThreshold;
 
   @Inject
-  public TextTemplateRenderer(TextTemplateRenderingEngine engine) {
+  public TextTemplateRenderer(TextTemplateRenderingEngine engine, TextTemplateModule.Config config) {
     this.engine = engine;
+    this.flushThreshold = config.getFlushThreshold();
   }
 
   public void render(final Context context, final TextTemplate template) throws Exception {
-    engine.renderTemplate(template.getId(), template.getModel())
-      .then(byteBuf -> {
-        String type = template.getType();
-        if (type == null) {
-          type = context.get(MimeTypes.class).getContentType(template.getId());
-        }
-        context.getResponse().contentType(type).send(byteBuf);
-      });
+    if (flushThreshold > 0) {
+      context.getResponse().contentType(getType(context, template)).sendStream(engine.streamTemplate(template.getId(), template.getModel(), flushThreshold));
+    } else {
+      engine.renderTemplate(template.getId(), template.getModel())
+        .then(byteBuf -> context.getResponse().contentType(getType(context, template)).send(byteBuf));
+    }
+  }
+
+  private static String getType(Context context, TextTemplate template) {
+    String type = template.getType();
+    if (type == null) {
+      type = context.get(MimeTypes.class).getContentType(template.getId());
+    }
+    return type;
   }
 }
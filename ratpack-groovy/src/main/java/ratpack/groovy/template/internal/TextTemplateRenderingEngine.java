@@ -19,18 +19,23 @@ package ratpack.groovy.template.internal;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import ratpack.exec.ExecControl;
 import ratpack.exec.Promise;
 import ratpack.file.FileSystemBinding;
+import ratpack.file.internal.ParallelFileVisitor;
 import ratpack.groovy.script.internal.ScriptEngine;
+import ratpack.stream.TransformablePublisher;
+import ratpack.util.Exceptions;
 
 import javax.inject.Inject;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 public class TextTemplateRenderingEngine {
 
@@ -65,11 +70,41 @@ public class TextTemplateRenderingEngine {
     });
   }
 
+  /**
+   * Compiles all templates in the template directory, in parallel, so that they are not compiled on first render.
+   *
+   * @return the number of compiled templates
+   * @throws Exception the first template compilation failure
+   */
+  public int precompile() throws Exception {
+    return ParallelFileVisitor.visit(templateDir.getFile(), "", (templateId, templateFile) -> {
+      try {
+        compiledTemplateCache.get(toTemplateSource(templateId, templateFile));
+      } catch (ExecutionException | UncheckedExecutionException e) {
+        throw Exceptions.toException(e.getCause());
+      }
+    });
+  }
+
   public Promise<ByteBuf> renderTemplate(String templateId, Map<String, ?> model) throws Exception {
     Path templateFile = getTemplateFile(templateId);
     return render(toTemplateSource(templateId, templateFile), model);
   }
 
+  /**
+   * Renders the template as a stream of buffers of at least the given size (except the last), instead of one buffer.
+   *
+   * @param templateId the template to render
+   * @param model the model
+   * @param flushThreshold the size at which buffers are emitted
+   * @return the rendered template
+   * @throws Exception if the template file can't be read
+   */
+  public TransformablePublisher<ByteBuf> streamTemplate(String templateId, Map<String, ?> model, int flushThreshold) throws Exception {
+    Path templateFile = getTemplateFile(templateId);
+    return Render.stream(byteBufAllocator, compiledTemplateCache, toTemplateSource(templateId, templateFile), model, templateName -> toTemplateSource(templateName, getTemplateFile(templateName)), flushThreshold);
+  }
+
   private TextTemplateSource toTemplateSource(String templateId, Path templateFile) throws IOException {
     String id = templateId + (reloadable ? Files.getLastModifiedTime(templateFile) : "0");
     return new TextTemplateSource(byteBufAllocator, id, templateFile, templateId);
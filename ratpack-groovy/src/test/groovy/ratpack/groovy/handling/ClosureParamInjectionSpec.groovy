@@ -16,6 +16,7 @@
 
 package ratpack.groovy.handling
 
+import ratpack.error.ServerErrorHandler
 import ratpack.test.internal.RatpackGroovyDslSpec
 
 class ClosureParamInjectionSpec extends RatpackGroovyDslSpec {
@@ -77,4 +78,52 @@ class ClosureParamInjectionSpec extends RatpackGroovyDslSpec {
     text == "${Thing.name} bar"
   }
 
+  def "can inject optional objects"() {
+    when:
+    handlers {
+      handler {
+        request.add(new Thing())
+        next()
+      }
+      get { Optional<Thing> thing, Optional<Integer> integer ->
+        render "${thing.present} ${integer.present}"
+      }
+    }
+
+    then:
+    text == "true false"
+  }
+
+  def "checked exceptions thrown by handlers are not wrapped"() {
+    when:
+    handlers {
+      get { String string ->
+        throw new IOException("!")
+      }
+    }
+    bindings {
+      bindInstance "foo"
+      bindInstance ServerErrorHandler, { context, throwable -> context.render throwable.getClass().name } as ServerErrorHandler
+    }
+
+    then:
+    text == IOException.name
+  }
+
+  def "groovy context is created once per request"() {
+    when:
+    handlers {
+      handler {
+        request.add(GroovyContext, context)
+        next()
+      }
+      get {
+        render((request.get(GroovyContext).is(context)).toString())
+      }
+    }
+
+    then:
+    text == "true"
+  }
+
 }
@@ -16,7 +16,9 @@
 
 package ratpack.groovy.template
 
+import com.google.common.base.Throwables
 import ratpack.error.ServerErrorHandler
+import ratpack.groovy.template.internal.InvalidTemplateException
 import ratpack.test.internal.RatpackGroovyDslSpec
 import ratpack.test.internal.SimpleErrorHandler
 import spock.lang.Unroll
@@ -324,4 +326,57 @@ class TemplateRenderingSpec extends RatpackGroovyDslSpec {
     then:
     text == "&lt;&gt; a%2Fb a+b"
   }
+
+  def "can compile templates at startup"() {
+    given:
+    bindings { module(TextTemplateModule) { it.precompile = true } }
+    file "templates/dir/tpl.html", "a \${model.value}"
+
+    when:
+    handlers {
+      get {
+        render groovyTemplate("dir/tpl.html", value: "b")
+      }
+    }
+
+    then:
+    text == "a b"
+  }
+
+  def "invalid templates fail startup when compiling templates at startup"() {
+    given:
+    serverConfig { development false }
+    bindings { module(TextTemplateModule) { it.precompile = true } }
+    file "templates/good.html", "good"
+    file "templates/bad.html", "<% if ( %>"
+    handlers {
+      get { render groovyTemplate("good.html") }
+    }
+
+    when:
+    application.server.start()
+
+    then:
+    def e = thrown(Exception)
+    Throwables.getCausalChain(e).any { it instanceof InvalidTemplateException }
+  }
+
+  def "can stream template output"() {
+    given:
+    bindings { module(TextTemplateModule) { it.flushThreshold = 16 } }
+    file "templates/tpl.html", "<% model.values.each { %>\${it}-<% } %><% render 'inner.html', value: 'end' %>"
+    file "templates/inner.html", "\${model.value}"
+
+    when:
+    handlers {
+      get {
+        render groovyTemplate("tpl.html", values: 1..100)
+      }
+    }
+
+    then:
+    def response = get()
+    response.body.text == (1..100).collect { "$it-" }.join("") + "end"
+    response.headers.get("Transfer-Encoding") == "chunked"
+  }
 }
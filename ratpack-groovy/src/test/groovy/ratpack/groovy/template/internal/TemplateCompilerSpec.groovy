@@ -16,11 +16,11 @@
 
 package ratpack.groovy.template.internal
 
-import io.netty.buffer.ByteBuf
 import io.netty.buffer.Unpooled
 import io.netty.buffer.UnpooledByteBufAllocator
 import io.netty.util.CharsetUtil
 import ratpack.groovy.script.internal.ScriptEngine
+import ratpack.stream.internal.ChunkedByteBufOutputStream
 import spock.lang.Specification
 
 class TemplateCompilerSpec extends Specification {
@@ -32,18 +32,38 @@ class TemplateCompilerSpec extends Specification {
   }
 
   class StubNestedRenderer implements NestedRenderer {
-    ByteBuf buffer
+    ChunkedByteBufOutputStream output
 
     @Override
     void render(String templateName, Map<String, ?> model) {
-      buffer.writeBytes("render:${[templateName: templateName, model: model]}".getBytes(CharsetUtil.UTF_8))
+      output.write("render:${[templateName: templateName, model: model]}".getBytes(CharsetUtil.UTF_8))
     }
   }
 
   String exec(String script) {
-    ByteBuf buffer = Unpooled.buffer(script.size())
-    compile(script).execute([:], buffer, new StubNestedRenderer(buffer: buffer))
-    buffer.toString(CharsetUtil.UTF_8)
+    def output = ChunkedByteBufOutputStream.unchunked(UnpooledByteBufAllocator.DEFAULT)
+    compile(script).execute([:], output, new StubNestedRenderer(output: output))
+    def buffer = output.take()
+    try {
+      buffer.toString(CharsetUtil.UTF_8)
+    } finally {
+      buffer.release()
+    }
+  }
+
+  def "output is emitted in chunks once the flush threshold is reached"() {
+    given:
+    def chunks = []
+    def output = new ChunkedByteBufOutputStream(UnpooledByteBufAllocator.DEFAULT, 4, { chunks << it.toString(CharsetUtil.UTF_8); it.release() })
+
+    when:
+    compile("ab\${'cd'}ef<% render 'x' %>").execute([:], output, new StubNestedRenderer(output: output))
+    output.close()
+
+    then:
+    chunks.join("") == "abcdefrender:[templateName:x, model:[:]]"
+    chunks.size() > 1
+    chunks[0..-2].every { it.size() >= 4 }
   }
 
   def "compile"() {
@@ -20,27 +20,65 @@ import com.google.common.reflect.TypeToken;
 import com.google.inject.ConfigurationException;
 import com.google.inject.Injector;
 import com.google.inject.Key;
+import com.google.inject.Provider;
 import com.google.inject.TypeLiteral;
 import ratpack.registry.internal.CachingBackedRegistry;
 
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * A registry that provides anything the injector can provide, including just in time bindings.
+ * <p>
+ * The provider for each requested type is resolved once, including whether there is no such provider,
+ * so that repeated lookups of types that can't be provided do not each construct and throw a {@link ConfigurationException}.
+ */
 public class JustInTimeInjectorRegistry extends CachingBackedRegistry {
 
   private final Injector injector;
+  private final ConcurrentMap<TypeToken<?>, Optional<Provider<?>>> providers = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Class<?>, Optional<Provider<?>>> classProviders = new ConcurrentHashMap<>();
 
   public JustInTimeInjectorRegistry(Injector injector) {
     super(new InjectorRegistryBacking(injector));
     this.injector = injector;
   }
 
+  @Override
+  public <T> Optional<T> maybeGet(Class<T> type) {
+    Optional<Provider<?>> provider = classProviders.get(type);
+    if (provider == null) {
+      provider = provider(Key.get(type));
+      classProviders.putIfAbsent(type, provider);
+    }
+    return provide(provider);
+  }
+
   public <T> Optional<T> maybeGet(TypeToken<T> type) {
-    @SuppressWarnings("unchecked") TypeLiteral<T> typeLiteral = (TypeLiteral<T>) TypeLiteral.get(type.getType());
+    Optional<Provider<?>> provider = providers.get(type);
+    if (provider == null) {
+      provider = provider(Key.get(TypeLiteral.get(type.getType())));
+      providers.putIfAbsent(type, provider);
+    }
+    return provide(provider);
+  }
+
+  private Optional<Provider<?>> provider(Key<?> key) {
     try {
-      return Optional.of(injector.getInstance(Key.get(typeLiteral)));
+      return Optional.of(injector.getProvider(key));
     } catch (ConfigurationException e) {
       return Optional.empty();
     }
   }
 
+  private static <T> Optional<T> provide(Optional<Provider<?>> provider) {
+    if (provider.isPresent()) {
+      @SuppressWarnings("unchecked") T instance = (T) provider.get().get();
+      return Optional.of(instance);
+    } else {
+      return Optional.empty();
+    }
+  }
+
 }
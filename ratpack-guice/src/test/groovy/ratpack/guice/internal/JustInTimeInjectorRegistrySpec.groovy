@@ -0,0 +1,60 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.guice.internal
+
+import com.google.common.reflect.TypeToken
+import com.google.inject.ConfigurationException
+import com.google.inject.Injector
+import com.google.inject.Key
+import com.google.inject.Provider
+import spock.lang.Specification
+
+class JustInTimeInjectorRegistrySpec extends Specification {
+
+  static class Thing {}
+
+  def injector = Mock(Injector)
+  def registry = new JustInTimeInjectorRegistry(injector)
+
+  def "provider is resolved once"() {
+    given:
+    def i = 0
+
+    when:
+    def first = registry.get(Thing)
+    def second = registry.get(Thing)
+
+    then:
+    1 * injector.getProvider(Key.get(Thing)) >> ({ i++; new Thing() } as Provider)
+    i == 2
+    first instanceof Thing
+    second instanceof Thing
+    !first.is(second)
+  }
+
+  def "absent types are resolved once"() {
+    when:
+    def first = registry.maybeGet(TypeToken.of(String))
+    def second = registry.maybeGet(TypeToken.of(String))
+
+    then:
+    1 * injector.getProvider(Key.get(String)) >> { throw new ConfigurationException([]) }
+    !first.present
+    !second.present
+  }
+
+}
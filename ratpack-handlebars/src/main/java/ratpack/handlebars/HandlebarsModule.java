@@ -28,6 +28,7 @@ import ratpack.file.FileSystemBinding;
 import ratpack.guice.ConfigurableModule;
 import ratpack.guice.internal.GuiceUtil;
 import ratpack.handlebars.internal.FileSystemBindingTemplateLoader;
+import ratpack.handlebars.internal.HandlebarsTemplatePrecompiler;
 import ratpack.handlebars.internal.HandlebarsTemplateRenderer;
 import ratpack.handlebars.internal.RatpackTemplateCache;
 import ratpack.handlebars.internal.TemplateKey;
@@ -97,6 +98,10 @@ public class HandlebarsModule extends ConfigurableModule<HandlebarsModule.Config
 
     private Boolean reloadable;
 
+    private boolean precompile;
+
+    private int flushThreshold;
+
     public String getTemplatesPath() {
       return templatesPath;
     }
@@ -132,11 +137,50 @@ public class HandlebarsModule extends ConfigurableModule<HandlebarsModule.Config
       this.reloadable = reloadable;
       return this;
     }
+
+    public boolean isPrecompile() {
+      return precompile;
+    }
+
+    /**
+     * Whether all templates should be compiled when the application starts, instead of on first render.
+     * <p>
+     * If any template fails to compile, the application will fail to start.
+     *
+     * @param precompile whether all templates should be compiled when the application starts
+     * @return this
+     */
+    public Config precompile(boolean precompile) {
+      this.precompile = precompile;
+      return this;
+    }
+
+    public int getFlushThreshold() {
+      return flushThreshold;
+    }
+
+    /**
+     * The number of bytes of rendered output after which it is sent to the client, if greater than zero.
+     * <p>
+     * By default, the entire template is rendered before it is sent with a content length.
+     * If set, the response is streamed using chunked transfer encoding as the template renders.
+     * Templates render synchronously, so rendered output that the client has not yet read is held in memory.
+     * Streaming sends the first bytes sooner and avoids growing a single buffer for the whole response, but does not bound the memory used by a response.
+     * An error while rendering a streamed template can't be sent as an error response, as the response has already been started, so the error is logged and the response ends early instead.
+     *
+     * @param flushThreshold the number of bytes of rendered output after which it is sent to the client
+     * @return this
+     */
+    public Config flushThreshold(int flushThreshold) {
+      this.flushThreshold = flushThreshold;
+      return this;
+    }
   }
 
   @Override
   protected void configure() {
     bind(HandlebarsTemplateRenderer.class).in(Singleton.class);
+    bind(HandlebarsTemplatePrecompiler.class);
   }
 
   @SuppressWarnings("UnusedDeclaration")
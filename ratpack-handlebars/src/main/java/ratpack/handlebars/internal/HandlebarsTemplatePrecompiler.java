@@ -0,0 +1,65 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.handlebars.internal;
+
+import com.github.jknack.handlebars.Handlebars;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ratpack.file.FileSystemBinding;
+import ratpack.file.internal.ParallelFileVisitor;
+import ratpack.handlebars.HandlebarsModule;
+import ratpack.server.Service;
+import ratpack.server.StartEvent;
+
+import javax.inject.Inject;
+
+public class HandlebarsTemplatePrecompiler implements Service {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(HandlebarsTemplatePrecompiler.class);
+
+  private final HandlebarsModule.Config config;
+  private final FileSystemBinding fileSystemBinding;
+  private final Handlebars handlebars;
+
+  @Inject
+  public HandlebarsTemplatePrecompiler(HandlebarsModule.Config config, FileSystemBinding fileSystemBinding, Handlebars handlebars) {
+    this.config = config;
+    this.fileSystemBinding = fileSystemBinding;
+    this.handlebars = handlebars;
+  }
+
+  @Override
+  public void onStart(StartEvent event) throws Exception {
+    if (config.isPrecompile()) {
+      event.getExecControl().blocking(this::precompile).then(count -> {
+        LOGGER.info("Precompiled {} handlebars templates", count);
+        if (count > config.getCacheSize()) {
+          LOGGER.warn("There are more handlebars templates ({}) than the template cache size ({}), some will be compiled again on render", count, config.getCacheSize());
+        }
+      });
+    }
+  }
+
+  private int precompile() throws Exception {
+    String suffix = config.getTemplatesSuffix();
+    FileSystemBinding templatesBinding = fileSystemBinding.binding(config.getTemplatesPath());
+    return ParallelFileVisitor.visit(templatesBinding.getFile(), suffix, (templateFile, path) ->
+        handlebars.compile(templateFile.substring(0, templateFile.length() - suffix.length()))
+    );
+  }
+
+}
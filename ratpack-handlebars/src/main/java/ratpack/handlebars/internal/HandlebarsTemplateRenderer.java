@@ -17,21 +17,30 @@
 package ratpack.handlebars.internal;
 
 import com.github.jknack.handlebars.Handlebars;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.util.CharsetUtil;
 import ratpack.file.MimeTypes;
+import ratpack.handlebars.HandlebarsModule;
 import ratpack.handlebars.Template;
 import ratpack.handling.Context;
 import ratpack.render.RendererSupport;
+import ratpack.stream.internal.ChunkedByteBufOutputStream;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 
 public class HandlebarsTemplateRenderer extends RendererSupport<Template> {
 
   private final Handlebars handlebars;
+  private final int flushThreshold;
 
   @Inject
-  public HandlebarsTemplateRenderer(Handlebars handlebars) {
+  public HandlebarsTemplateRenderer(Handlebars handlebars, HandlebarsModule.Config config) {
     this.handlebars = handlebars;
+    this.flushThreshold = config.getFlushThreshold();
   }
 
   @Override
@@ -39,17 +48,39 @@ public class HandlebarsTemplateRenderer extends RendererSupport<Template> {
     String contentType = template.getContentType();
     String templateName = template.getName();
     contentType = contentType == null ? context.get(MimeTypes.class).getContentType(templateName) : contentType;
-    String renderedTemplate;
+    com.github.jknack.handlebars.Template compiledTemplate;
     try {
-      com.github.jknack.handlebars.Template compiledTemplate = handlebars.compile(templateName);
-      Object templateModel = template.getModel();
-      renderedTemplate = compiledTemplate.apply(templateModel);
+      compiledTemplate = handlebars.compile(templateName);
     } catch (IOException e) {
       context.error(e);
       return;
     }
 
-    context.getResponse().send(contentType, renderedTemplate);
+    Object templateModel = template.getModel();
+    ByteBufAllocator allocator = context.get(ByteBufAllocator.class);
+    if (flushThreshold > 0) {
+      context.getResponse().contentType(contentType).sendStream(
+        ChunkedByteBufOutputStream.publisher(allocator, flushThreshold, output -> apply(compiledTemplate, templateModel, output))
+      );
+    } else {
+      ChunkedByteBufOutputStream output = ChunkedByteBufOutputStream.unchunked(allocator);
+      ByteBuf renderedTemplate;
+      try {
+        apply(compiledTemplate, templateModel, output);
+        renderedTemplate = output.take();
+      } catch (Throwable e) {
+        output.release();
+        context.error(e);
+        return;
+      }
+      context.getResponse().send(contentType, renderedTemplate);
+    }
+  }
+
+  private static void apply(com.github.jknack.handlebars.Template compiledTemplate, Object model, ChunkedByteBufOutputStream output) throws IOException {
+    Writer writer = new OutputStreamWriter(output, CharsetUtil.UTF_8);
+    compiledTemplate.apply(model, writer);
+    writer.flush();
   }
 
   @Override
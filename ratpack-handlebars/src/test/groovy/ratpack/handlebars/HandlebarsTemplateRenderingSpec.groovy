@@ -224,4 +224,58 @@ class TestHelper implements NamedHelper {
   CharSequence apply(Object context, Options options) throws IOException {
     'from helper'
   }
+
+  void 'can compile templates at startup'() {
+    given:
+    file 'handlebars/dir/simple.hbs', '{{key}}'
+    file 'handlebars/other.txt', '{{'
+
+    when:
+    bindings {
+      module new HandlebarsModule(), { it.precompile(true) }
+    }
+    handlers {
+      get {
+        render handlebarsTemplate('dir/simple', key: 'it works!')
+      }
+    }
+
+    then:
+    text == 'it works!'
+  }
+
+  void 'invalid templates fail startup when compiling templates at startup'() {
+    given:
+    serverConfig { development false }
+    file 'handlebars/bad.hbs', '{{#each}}'
+
+    when:
+    bindings {
+      module new HandlebarsModule(), { it.precompile(true) }
+    }
+    application.server.start()
+
+    then:
+    thrown(Exception)
+  }
+
+  void 'can stream template output'() {
+    given:
+    file 'handlebars/list.hbs', '{{#each values}}{{this}}-{{/each}}'
+
+    when:
+    bindings {
+      module new HandlebarsModule(), { it.flushThreshold(16) }
+    }
+    handlers {
+      get {
+        render handlebarsTemplate('list.hbs', values: 1..100)
+      }
+    }
+
+    then:
+    def response = get()
+    response.body.text == (1..100).collect { "$it-" }.join('')
+    response.headers.get('Transfer-Encoding') == 'chunked'
+  }
 }
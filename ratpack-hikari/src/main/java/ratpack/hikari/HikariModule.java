@@ -16,17 +16,29 @@
 
 package ratpack.hikari;
 
+import com.codahale.metrics.MetricRegistry;
+import com.google.inject.Binding;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Key;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import ratpack.guice.ConfigurableModule;
+import ratpack.hikari.internal.DefaultJdbcExecutor;
+import ratpack.hikari.internal.JdbcExecutorHealthCheck;
+import ratpack.server.Service;
+import ratpack.server.StopEvent;
 
 import javax.sql.DataSource;
 
 /**
  * An extension module that provides a {@link DataSource} from a HikariCP JDBC connection pool.
  * <p>
+ * A {@link JdbcExecutor} is also provided, that performs JDBC work on a dedicated set of threads sized to the pool,
+ * along with a {@link ratpack.health.HealthCheck} for the pool.
+ * <p>
  * This is a {@link ConfigurableModule}, exposing the {@link HikariConfig} type as the configuration.
  * All aspects of the connection pool can be configured through this object.
  * See {@link ConfigurableModule} for usage patterns.
@@ -99,12 +111,14 @@ import javax.sql.DataSource;
  * @see <a href="http://brettwooldridge.github.io/HikariCP/" target="_blank">HikariCP</a>
  * @see HikariConfig
  * @see ConfigurableModule
+ * @see JdbcExecutor
  */
 public class HikariModule extends ConfigurableModule<HikariConfig> {
 
   @Override
   protected void configure() {
-
+    bind(JdbcExecutorHealthCheck.class);
+    bind(JdbcExecutorShutdown.class);
   }
 
   @Provides
@@ -113,4 +127,32 @@ public class HikariModule extends ConfigurableModule<HikariConfig> {
     return new HikariDataSource(config);
   }
 
+  @Provides
+  @Singleton
+  public JdbcExecutor jdbcExecutor(HikariConfig config, DataSource dataSource, Injector injector) {
+    // the data source has the generated pool name, if one was not configured
+    String poolName = dataSource instanceof HikariConfig ? ((HikariConfig) dataSource).getPoolName() : config.getPoolName();
+    int maximumPoolSize = dataSource instanceof HikariConfig ? ((HikariConfig) dataSource).getMaximumPoolSize() : config.getMaximumPoolSize();
+    Binding<MetricRegistry> metricRegistryBinding = injector.getExistingBinding(Key.get(MetricRegistry.class));
+    MetricRegistry metricRegistry = metricRegistryBinding == null ? null : metricRegistryBinding.getProvider().get();
+    return new DefaultJdbcExecutor(dataSource, poolName == null ? "hikari" : poolName, maximumPoolSize, metricRegistry);
+  }
+
+  private static class JdbcExecutorShutdown implements Service {
+
+    private final JdbcExecutor jdbcExecutor;
+
+    @Inject
+    public JdbcExecutorShutdown(JdbcExecutor jdbcExecutor) {
+      this.jdbcExecutor = jdbcExecutor;
+    }
+
+    @Override
+    public void onStop(StopEvent event) throws Exception {
+      if (jdbcExecutor instanceof DefaultJdbcExecutor) {
+        ((DefaultJdbcExecutor) jdbcExecutor).shutdown();
+      }
+    }
+  }
+
 }
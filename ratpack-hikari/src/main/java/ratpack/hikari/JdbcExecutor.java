@@ -0,0 +1,113 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ratpack.hikari;
+
+import ratpack.exec.Promise;
+import ratpack.func.Function;
+
+import java.sql.Connection;
+
+/**
+ * Performs JDBC work with connections from the {@link HikariModule Hikari} connection pool, on a dedicated set of threads.
+ * <p>
+ * The number of threads is the pool's {@link com.zaxxer.hikari.HikariConfig#getMaximumPoolSize() maximum pool size}.
+ * Work submitted while all threads are busy is queued, without occupying a thread, until a thread (and therefore a connection) is free.
+ * This bounds the number of threads blocked on the database, regardless of how slow it becomes,
+ * unlike performing the work via {@link ratpack.exec.ExecControl#blocking(java.util.concurrent.Callable)}.
+ * <pre class="java">{@code
+ * import ratpack.guice.Guice;
+ * import ratpack.hikari.HikariModule;
+ * import ratpack.hikari.JdbcExecutor;
+ * import ratpack.test.embed.EmbeddedApp;
+ *
+ * import java.sql.ResultSet;
+ *
+ * import static org.junit.Assert.*;
+ *
+ * public class Example {
+ *   public static void main(String... args) throws Exception {
+ *     EmbeddedApp.of(s -> s
+ *       .registry(Guice.registry(b -> b
+ *         .module(HikariModule.class, hikariConfig -> {
+ *           hikariConfig.setDataSourceClassName("org.h2.jdbcx.JdbcDataSource");
+ *           hikariConfig.addDataSourceProperty("URL", "jdbc:h2:mem:executor");
+ *         })
+ *       ))
+ *       .handler(r -> ctx ->
+ *         ctx.get(JdbcExecutor.class).withConnection(connection -> {
+ *           ResultSet resultSet = connection.createStatement().executeQuery("select 1 + 1");
+ *           resultSet.next();
+ *           return resultSet.getInt(1);
+ *         }).then(result ->
+ *           ctx.render(result.toString())
+ *         )
+ *       )
+ *     ).test(httpClient ->
+ *       assertEquals("2", httpClient.getText())
+ *     );
+ *   }
+ * }
+ * }</pre>
+ * <p>
+ * If a {@code com.codahale.metrics.MetricRegistry} is bound (e.g. by the {@code CodaHaleMetricsModule}),
+ * the executor's {@link #getActive() active}, {@link #getIdle() idle} and {@link #getPending() pending} counts are published as gauges,
+ * and the time work waits for a connection as a timer, named {@code <pool name>.executor.active} etc.
+ * The {@link HikariModule} also binds a {@link ratpack.health.HealthCheck} named {@code "hikari"} that validates a connection obtained through the executor.
+ */
+public interface JdbcExecutor {
+
+  /**
+   * Performs the given work with a connection from the pool, once a thread is available.
+   * <p>
+   * The connection is closed (i.e. returned to the pool) once the function returns.
+   *
+   * @param function the work to perform with the connection
+   * @param <T> the type of result
+   * @return a promise for the result of the function
+   */
+  <T> Promise<T> withConnection(Function<? super Connection, ? extends T> function);
+
+  /**
+   * The maximum number of units of work performed at the same time, which is the maximum size of the connection pool.
+   *
+   * @return the maximum number of units of work performed at the same time
+   */
+  int getMaximumPoolSize();
+
+  /**
+   * The number of units of work currently being performed.
+   *
+   * @return the number of units of work currently being performed
+   */
+  int getActive();
+
+  /**
+   * The number of units of work that could be started immediately.
+   *
+   * @return the maximum pool size, minus the active count
+   */
+  int getIdle();
+
+  /**
+   * The number of units of work waiting for a thread.
+   *
+   * @return the number of units of work waiting for a thread
+   */
+  int getPending();
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ratpack.hikari.internal;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import ratpack.api.Nullable;
+import ratpack.exec.ExecControl;
+import ratpack.exec.Promise;
+import ratpack.exec.Result;
+import ratpack.func.Function;
+import ratpack.hikari.JdbcExecutor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DefaultJdbcExecutor implements JdbcExecutor {
+
+  private final DataSource dataSource;
+  private final int maximumPoolSize;
+  private final ThreadPoolExecutor executor;
+  private final AtomicInteger active = new AtomicInteger();
+  private final Timer waitTimer;
+
+  public DefaultJdbcExecutor(DataSource dataSource, String poolName, int maximumPoolSize, @Nullable MetricRegistry metricRegistry) {
+    this.dataSource = dataSource;
+    this.maximumPoolSize = maximumPoolSize;
+
+    // one thread per connection, so that threads never queue inside the pool, and an unbounded queue in front of them
+    this.executor = new ThreadPoolExecutor(
+      maximumPoolSize, maximumPoolSize, 60, TimeUnit.SECONDS,
+      new LinkedBlockingQueue<>(),
+      new ThreadFactoryBuilder().setDaemon(true).setNameFormat("ratpack-jdbc-" + poolName.replace("%", "%%") + "-%d").build()
+    );
+    this.executor.allowCoreThreadTimeOut(true);
+
+    if (metricRegistry == null) {
+      this.waitTimer = null;
+    } else {
+      register(metricRegistry, poolName, "active", this::getActive);
+      register(metricRegistry, poolName, "idle", this::getIdle);
+      register(metricRegistry, poolName, "pending", this::getPending);
+      this.waitTimer = metricRegistry.timer(MetricRegistry.name(poolName, "executor", "wait"));
+    }
+  }
+
+  private static void register(MetricRegistry metricRegistry, String poolName, String name, Gauge<Integer> gauge) {
+    String metricName = MetricRegistry.name(poolName, "executor", name);
+    // a reload may build a new executor for the same pool
+    metricRegistry.remove(metricName);
+    metricRegistry.register(metricName, gauge);
+  }
+
+  @Override
+  public <T> Promise<T> withConnection(Function<? super Connection, ? extends T> function) {
+    return ExecControl.execControl().promise(fulfiller -> {
+      long submittedAt = System.nanoTime();
+      executor.execute(() -> {
+        active.incrementAndGet();
+        Result<T> result;
+        try (Connection connection = dataSource.getConnection()) {
+          if (waitTimer != null) {
+            waitTimer.update(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+          }
+          result = Result.success(function.apply(connection));
+        } catch (Throwable throwable) {
+          result = Result.error(throwable);
+        } finally {
+          active.decrementAndGet();
+        }
+        fulfiller.accept(result);
+      });
+    });
+  }
+
+  @Override
+  public int getMaximumPoolSize() {
+    return maximumPoolSize;
+  }
+
+  @Override
+  public int getActive() {
+    return active.get();
+  }
+
+  @Override
+  public int getIdle() {
+    return Math.max(0, maximumPoolSize - active.get());
+  }
+
+  @Override
+  public int getPending() {
+    return executor.getQueue().size();
+  }
+
+  /**
+   * Stops accepting work, letting work already submitted complete.
+   */
+  public void shutdown() {
+    executor.shutdown();
+  }
+
+}
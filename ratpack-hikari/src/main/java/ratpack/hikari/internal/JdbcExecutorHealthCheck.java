@@ -0,0 +1,53 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ratpack.hikari.internal;
+
+import com.google.inject.Inject;
+import ratpack.exec.ExecControl;
+import ratpack.exec.Promise;
+import ratpack.health.HealthCheck;
+import ratpack.hikari.JdbcExecutor;
+import ratpack.registry.Registry;
+
+public class JdbcExecutorHealthCheck implements HealthCheck {
+
+  private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+  private final JdbcExecutor jdbcExecutor;
+
+  @Inject
+  public JdbcExecutorHealthCheck(JdbcExecutor jdbcExecutor) {
+    this.jdbcExecutor = jdbcExecutor;
+  }
+
+  @Override
+  public String getName() {
+    return "hikari";
+  }
+
+  @Override
+  public Promise<Result> check(ExecControl execControl, Registry registry) throws Exception {
+    return jdbcExecutor.withConnection(connection -> connection.isValid(VALIDATION_TIMEOUT_SECONDS))
+      .map(valid -> {
+        String stats = String.format("%d active, %d idle, %d pending", jdbcExecutor.getActive(), jdbcExecutor.getIdle(), jdbcExecutor.getPending());
+        return valid ? Result.healthy(stats) : Result.unhealthy("connection is not valid (" + stats + ")");
+      })
+      .mapError(Result::unhealthy);
+  }
+
+}
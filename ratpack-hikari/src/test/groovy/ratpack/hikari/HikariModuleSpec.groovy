@@ -16,12 +16,17 @@
 
 package ratpack.hikari
 
+import com.codahale.metrics.MetricRegistry
 import groovy.sql.Sql
+import ratpack.health.HealthCheckHandler
 import ratpack.groovy.sql.SqlModule
 import ratpack.server.Service
 import ratpack.server.StartEvent
 import ratpack.test.internal.RatpackGroovyDslSpec
 
+import java.sql.SQLException
+import java.util.concurrent.CountDownLatch
+
 public class HikariModuleSpec extends RatpackGroovyDslSpec {
 
   def "can use db"() {
@@ -63,4 +68,100 @@ public class HikariModuleSpec extends RatpackGroovyDslSpec {
     getText('get/0') == "foo"
     getText('schema') == 'DEV'
   }
+
+  def "can use jdbc executor"() {
+    given:
+    def metricRegistry = new MetricRegistry()
+
+    when:
+    bindings {
+      module HikariModule, {
+        it.addDataSourceProperty("URL", "jdbc:h2:mem:executor")
+        it.dataSourceClassName = "org.h2.jdbcx.JdbcDataSource"
+        it.poolName = "test"
+        it.maximumPoolSize = 2
+      }
+      bindInstance MetricRegistry, metricRegistry
+    }
+
+    handlers {
+      get("sum") { JdbcExecutor jdbcExecutor ->
+        jdbcExecutor.withConnection { connection ->
+          def resultSet = connection.createStatement().executeQuery("select 1 + 1")
+          resultSet.next()
+          resultSet.getInt(1)
+        } then {
+          render it.toString()
+        }
+      }
+      get("thread") { JdbcExecutor jdbcExecutor ->
+        jdbcExecutor.withConnection { Thread.currentThread().name } then { render it }
+      }
+      get("error") { JdbcExecutor jdbcExecutor ->
+        jdbcExecutor.withConnection { it.createStatement().executeQuery("select * from missing") } onError {
+          render((it instanceof SQLException).toString())
+        } then {
+          render "unexpected"
+        }
+      }
+      get("health/:name?", new HealthCheckHandler())
+    }
+
+    then:
+    getText("sum") == "2"
+    getText("thread").startsWith("ratpack-jdbc-test-")
+    getText("error") == "true"
+    getText("health") == "hikari : HEALTHY [0 active, 2 idle, 0 pending]"
+
+    and:
+    metricRegistry.gauges["test.executor.active"].value == 0
+    metricRegistry.gauges["test.executor.idle"].value == 2
+    metricRegistry.gauges["test.executor.pending"].value == 0
+    metricRegistry.timers["test.executor.wait"].count == 4
+  }
+
+  def "work is queued when all connections are in use"() {
+    given:
+    def release = new CountDownLatch(1)
+    def started = new CountDownLatch(1)
+
+    when:
+    bindings {
+      module HikariModule, {
+        it.addDataSourceProperty("URL", "jdbc:h2:mem:queued")
+        it.dataSourceClassName = "org.h2.jdbcx.JdbcDataSource"
+        it.maximumPoolSize = 1
+      }
+    }
+
+    handlers {
+      get("block") { JdbcExecutor jdbcExecutor ->
+        jdbcExecutor.withConnection { started.countDown(); release.await(); "blocked" } then { render it }
+      }
+      get("queued") { JdbcExecutor jdbcExecutor ->
+        jdbcExecutor.withConnection { "queued" } then { render it }
+      }
+      get("stats") { JdbcExecutor jdbcExecutor ->
+        render "$jdbcExecutor.active:$jdbcExecutor.pending"
+      }
+    }
+
+    and:
+    String blockedText = null
+    String queuedText = null
+    def blocked = Thread.start { blockedText = new URL("${applicationUnderTest.address}block").text }
+    started.await()
+    def queued = Thread.start { queuedText = new URL("${applicationUnderTest.address}queued").text }
+    while (getText("stats") != "1:1") {
+      sleep 10
+    }
+    release.countDown()
+    blocked.join()
+    queued.join()
+
+    then:
+    blockedText == "blocked"
+    queuedText == "queued"
+    getText("stats") == "0:0"
+  }
 }
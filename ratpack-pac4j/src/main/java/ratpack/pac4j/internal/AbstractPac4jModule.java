@@ -29,6 +29,8 @@ import ratpack.pac4j.Authorizer;
 import ratpack.pac4j.Pac4jCallbackHandlerBuilder;
 import ratpack.registry.Registry;
 
+import java.time.Duration;
+
 /**
  * Base class for pac4j integration modules.
  *
@@ -39,12 +41,19 @@ public abstract class AbstractPac4jModule<C extends Credentials, U extends UserP
 
   public static final String DEFAULT_CALLBACK_PATH = "pac4j-callback";
 
+  public static final long DEFAULT_TOKEN_CACHE_SIZE = 1000;
+
+  public static final Duration DEFAULT_TOKEN_CACHE_TTL = Duration.ofMinutes(5);
+
   /**
    * The configuration object for {@link AbstractPac4jModule}.
    */
   public static class Config {
 
     private String callbackPath = DEFAULT_CALLBACK_PATH;
+    private boolean stateless;
+    private long tokenCacheSize = DEFAULT_TOKEN_CACHE_SIZE;
+    private Duration tokenCacheTtl = DEFAULT_TOKEN_CACHE_TTL;
 
     /**
      * Returns the path to use for callbacks from the identity provider.
@@ -65,6 +74,78 @@ public abstract class AbstractPac4jModule<C extends Credentials, U extends UserP
       this.callbackPath = callbackPath;
       return this;
     }
+
+    /**
+     * Whether the client authenticates each request from its own credentials, instead of storing the profile in the session.
+     *
+     * @return whether authentication is stateless
+     */
+    public boolean isStateless() {
+      return stateless;
+    }
+
+    /**
+     * Sets whether the client authenticates each request from its own credentials (e.g. a token in the {@code Authorization} header).
+     * <p>
+     * Stateless clients never redirect to the identity provider and do not use the session.
+     * Requests that require authentication but do not authenticate receive a {@code 401} response.
+     *
+     * @param stateless whether authentication is stateless
+     * @return this
+     */
+    public Config stateless(boolean stateless) {
+      this.stateless = stateless;
+      return this;
+    }
+
+    /**
+     * Returns the maximum number of verified tokens to cache, when stateless.
+     *
+     * @return the maximum number of verified tokens to cache
+     */
+    public long getTokenCacheSize() {
+      return tokenCacheSize;
+    }
+
+    /**
+     * Sets the maximum number of verified tokens to cache, when stateless.
+     * <p>
+     * Verified profiles are keyed by the credentials the client extracted from the request, wherever it reads them from.
+     * Defaults to {@link #DEFAULT_TOKEN_CACHE_SIZE}, a value of {@code 0} disables caching.
+     *
+     * @param tokenCacheSize the maximum number of verified tokens to cache
+     * @return this
+     */
+    public Config tokenCacheSize(long tokenCacheSize) {
+      this.tokenCacheSize = tokenCacheSize;
+      return this;
+    }
+
+    /**
+     * Returns how long a verified token is cached for, when stateless.
+     *
+     * @return how long a verified token is cached for
+     */
+    public Duration getTokenCacheTtl() {
+      return tokenCacheTtl;
+    }
+
+    /**
+     * Sets how long a verified token is cached for, when stateless.
+     * <p>
+     * If the verified profile has an {@code exp} attribute (e.g. the expiry claim of a JWT), it is not cached beyond that time.
+     * The cache can't know that credentials have been revoked, so revoked credentials are accepted until their entry expires.
+     * This should therefore be no longer than the acceptable delay between revoking credentials and them being rejected.
+     * <p>
+     * Defaults to {@link #DEFAULT_TOKEN_CACHE_TTL}.
+     *
+     * @param tokenCacheTtl how long a verified token is cached for
+     * @return this
+     */
+    public Config tokenCacheTtl(Duration tokenCacheTtl) {
+      this.tokenCacheTtl = tokenCacheTtl;
+      return this;
+    }
   }
 
   @Override
@@ -109,7 +190,9 @@ public abstract class AbstractPac4jModule<C extends Credentials, U extends UserP
       final Authorizer authorizer = this.authorizer;
       final Pac4jClientsHandler clientsHandler = new Pac4jClientsHandler(callbackPath, client);
       final Handler callbackHandler = new Pac4jCallbackHandlerBuilder().build();
-      final Pac4jAuthenticationHandler authenticationHandler = new Pac4jAuthenticationHandler(client.getName(), authorizer);
+      final Pac4jAuthenticationHandler authenticationHandler = new Pac4jAuthenticationHandler(
+        client.getName(), authorizer, config.isStateless(), config.getTokenCacheSize(), config.getTokenCacheTtl()
+      );
       return Handlers.chain(clientsHandler, Handlers.path(callbackPath, callbackHandler), authenticationHandler, rest);
     }
   }
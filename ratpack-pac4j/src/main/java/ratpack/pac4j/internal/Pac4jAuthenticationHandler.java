@@ -16,23 +16,61 @@
 
 package ratpack.pac4j.internal;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Maps;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import org.pac4j.core.client.Client;
 import org.pac4j.core.client.Clients;
+import org.pac4j.core.credentials.Credentials;
 import org.pac4j.core.exception.RequiresHttpAction;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.profile.UserProfile;
 import ratpack.handling.Context;
 import ratpack.http.Request;
 import ratpack.pac4j.Authorizer;
-import ratpack.session.store.SessionStorage;
+import ratpack.util.Types;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import static org.pac4j.core.context.Pac4jConstants.REQUESTED_URL;
 
 /**
  * Filters requests to apply authentication and authorization as required.
+ * <p>
+ * When stateless, the credentials are extracted from every request instead of authenticating once and storing the profile in the session.
+ * Verified profiles are cached by the credentials they were verified with (wherever the client reads them from),
+ * so that repeated requests with the same credentials are not verified again until the entry expires.
+ * Entries expire after the configured time to live, or at the profile's {@code exp} attribute (e.g. a JWT expiry claim) if that is sooner.
+ * Credentials that are revoked are still accepted until their entry expires.
  */
 public class Pac4jAuthenticationHandler extends Pac4jProfileHandler {
   private final String name;
   private final Authorizer authorizer;
+  private final boolean stateless;
+  private final Cache<HashCode, VerifiedProfile> verifiedCredentials;
+
+  private static class VerifiedProfile {
+    private final UserProfile profile;
+    private final Instant expiresAt;
+
+    private VerifiedProfile(UserProfile profile, Instant expiresAt) {
+      this.profile = profile;
+      this.expiresAt = expiresAt;
+    }
+
+    private boolean isExpired() {
+      return expiresAt != null && !Instant.now().isBefore(expiresAt);
+    }
+  }
 
   /**
    * Constructs a new instance.
@@ -41,20 +79,41 @@ public class Pac4jAuthenticationHandler extends Pac4jProfileHandler {
    * @param authorizer The authorizer to user for authorization
    */
   public Pac4jAuthenticationHandler(String name, Authorizer authorizer) {
+    this(name, authorizer, false, 0, Duration.ZERO);
+  }
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param name The name of the client to use for authentication
+   * @param authorizer The authorizer to user for authorization
+   * @param stateless Whether the credentials are extracted from every request, instead of storing the profile in the session
+   * @param tokenCacheSize The maximum number of verified tokens to cache, when stateless
+   * @param tokenCacheTtl How long a verified token is cached for, when stateless
+   */
+  public Pac4jAuthenticationHandler(String name, Authorizer authorizer, boolean stateless, long tokenCacheSize, Duration tokenCacheTtl) {
     this.name = name;
     this.authorizer = authorizer;
+    this.stateless = stateless;
+    this.verifiedCredentials = CacheBuilder.newBuilder()
+      .maximumSize(tokenCacheSize)
+      .expireAfterWrite(tokenCacheTtl.toNanos(), TimeUnit.NANOSECONDS)
+      .build();
   }
 
   @Override
   public void handle(final Context context) throws Exception {
+    if (stateless) {
+      authenticateStateless(context);
+      return;
+    }
+
     getUserProfile(context).then((userProfile) -> {
       if (authorizer.isAuthenticationRequired(context) && !userProfile.isPresent()) {
         initiateAuthentication(context);
       } else {
         if (userProfile.isPresent()) {
-          UserProfile user = userProfile.get();
-          registerUserProfile(context, user);
-          authorizer.handleAuthorization(context, user);
+          authorize(context, userProfile.get());
         } else {
           context.next();
         }
@@ -63,23 +122,102 @@ public class Pac4jAuthenticationHandler extends Pac4jProfileHandler {
 
   }
 
+  private void authorize(final Context context, UserProfile user) throws Exception {
+    registerUserProfile(context, user);
+    authorizer.handleAuthorization(context, user);
+  }
+
   private void initiateAuthentication(final Context context) {
     final Request request = context.getRequest();
-    request.get(SessionStorage.class).set(REQUESTED_URL, request.getUri()).then((success)->{
-      //TODO Log
+    final Clients clients = request.get(Clients.class);
+    RatpackWebContext.from(context).then(webContext -> {
+      webContext.setSessionAttribute(REQUESTED_URL, request.getUri());
+      context.blocking(() -> {
+        clients.findClient(name).redirect(webContext, true, request.isAjaxRequest());
+        return null;
+      }).onError(ex -> {
+        if (ex instanceof RequiresHttpAction) {
+          webContext.saveSession().then(c -> c.sendResponse((RequiresHttpAction) ex));
+        } else {
+          throw new TechnicalException("Failed to redirect", ex);
+        }
+      }).then(ignored -> webContext.saveSession().then(RatpackWebContext::sendResponse));
     });
+  }
+
+  private void authenticateStateless(final Context context) throws Exception {
+    final Request request = context.getRequest();
+    final boolean authenticationRequired = authorizer.isAuthenticationRequired(context);
     final Clients clients = request.get(Clients.class);
-    final RatpackWebContext webContext = new RatpackWebContext(context);
+    final RatpackWebContext webContext = new RatpackWebContext(context, Maps.newHashMap());
     context.blocking(() -> {
-      clients.findClient(name).redirect(webContext, true, request.isAjaxRequest());
-      return null;
+      Client<Credentials, UserProfile> client = Types.cast(clients.findClient(name));
+      Credentials credentials = client.getCredentials(webContext);
+      return credentials == null ? Optional.<UserProfile>empty() : verify(client, credentials, webContext);
     }).onError(ex -> {
-      if (ex instanceof RequiresHttpAction) {
+      if (!authenticationRequired) {
+        context.next();
+      } else if (ex instanceof RequiresHttpAction) {
         webContext.sendResponse((RequiresHttpAction) ex);
       } else {
-        throw new TechnicalException("Failed to redirect", ex);
+        throw new TechnicalException("Failed to authenticate", ex);
+      }
+    }).then(userProfile -> {
+      resolvedUserProfile(context, userProfile);
+      if (userProfile.isPresent()) {
+        authorize(context, userProfile.get());
+      } else if (authenticationRequired) {
+        context.clientError(401);
+      } else {
+        context.next();
       }
-    }).then(ignored -> webContext.sendResponse());
+    });
+  }
+
+  private Optional<UserProfile> verify(Client<Credentials, UserProfile> client, Credentials credentials, RatpackWebContext webContext) throws RequiresHttpAction {
+    HashCode key = cacheKey(credentials);
+    if (key != null) {
+      VerifiedProfile verified = verifiedCredentials.getIfPresent(key);
+      if (verified != null) {
+        if (!verified.isExpired()) {
+          return Optional.of(verified.profile);
+        }
+        verifiedCredentials.invalidate(key);
+      }
+    }
+
+    UserProfile profile = client.getUserProfile(credentials, webContext);
+    if (profile != null && key != null) {
+      VerifiedProfile verified = new VerifiedProfile(profile, expiresAt(profile));
+      if (!verified.isExpired()) {
+        verifiedCredentials.put(key, verified);
+      }
+    }
+    return Optional.ofNullable(profile);
+  }
+
+  // A digest of all of the credentials' state (including the client name), so that only the same credentials find a verified profile,
+  // without holding on to secrets. Credentials that can't be serialized are not cached.
+  private static HashCode cacheKey(Credentials credentials) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(credentials);
+    } catch (IOException e) {
+      return null;
+    }
+    return Hashing.sha256().hashBytes(bytes.toByteArray());
+  }
+
+  // The expiry of the credentials the profile was verified from, if the profile states one as an "exp" attribute (seconds since the epoch, as in JWT)
+  private static Instant expiresAt(UserProfile profile) {
+    Object exp = profile.getAttribute("exp");
+    if (exp instanceof Number) {
+      return Instant.ofEpochSecond(((Number) exp).longValue());
+    } else if (exp instanceof Date) {
+      return ((Date) exp).toInstant();
+    } else {
+      return null;
+    }
   }
 
 }
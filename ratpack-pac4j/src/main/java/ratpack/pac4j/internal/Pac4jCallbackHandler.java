@@ -45,18 +45,19 @@ public class Pac4jCallbackHandler implements Handler {
 
   @Override
   public void handle(Context context) {
-    RatpackWebContext webContext = new RatpackWebContext(context);
-    context.blocking(() -> {
-      Client<Credentials, UserProfile> client = lookupClient.apply(context, webContext);
-      Credentials credentials = client.getCredentials(webContext);
-      return client.getUserProfile(credentials, webContext);
-    }).onError(e -> {
-      if (e instanceof RequiresHttpAction) {
-        webContext.sendResponse((RequiresHttpAction) e);
-      } else {
-        onError.accept(context, e);
-      }
-    }).then(profile -> onSuccess.accept(context, profile));
+    RatpackWebContext.from(context).then(webContext ->
+        context.blocking(() -> {
+          Client<Credentials, UserProfile> client = lookupClient.apply(context, webContext);
+          Credentials credentials = client.getCredentials(webContext);
+          return client.getUserProfile(credentials, webContext);
+        }).onError(e -> {
+          if (e instanceof RequiresHttpAction) {
+            webContext.saveSession().then(c -> c.sendResponse((RequiresHttpAction) e));
+          } else {
+            onError.accept(context, e);
+          }
+        }).then(profile -> webContext.saveSession().then(c -> onSuccess.accept(context, profile)))
+    );
   }
 
 }
@@ -29,8 +29,19 @@ import static org.pac4j.core.context.Pac4jConstants.USER_PROFILE;
 /**
  * Retrieve the current pac4j user profile stored in session
  * and push it into the request.
+ * <p>
+ * The profile is only retrieved from the session once per request, subsequent lookups use the profile resolved for the request.
  */
 public class Pac4jProfileHandler implements Handler {
+
+  private static class ResolvedUserProfile {
+    private final Optional<UserProfile> userProfile;
+
+    private ResolvedUserProfile(Optional<UserProfile> userProfile) {
+      this.userProfile = userProfile;
+    }
+  }
+
   @Override
   public void handle(final Context context) throws Exception {
     getUserProfile(context).then((userProfile) -> {
@@ -45,7 +56,12 @@ public class Pac4jProfileHandler implements Handler {
     context.getRequest().add(userProfile).add(UserProfile.class, userProfile);
   }
 
+  protected void resolvedUserProfile(final Context context, Optional<UserProfile> userProfile) {
+    context.getRequest().add(ResolvedUserProfile.class, new ResolvedUserProfile(userProfile));
+  }
+
   protected void removeUserProfile(final Context context) {
+    resolvedUserProfile(context, Optional.empty());
     final SessionStorage sessionStorage = context.getRequest().get(SessionStorage.class);
     sessionStorage.remove(USER_PROFILE).then((numberRemoved) -> {
       //TODO Log
@@ -53,6 +69,14 @@ public class Pac4jProfileHandler implements Handler {
   }
 
   protected Promise<Optional<UserProfile>> getUserProfile(final Context context) {
-    return context.getRequest().get(SessionStorage.class).get(USER_PROFILE, UserProfile.class);
+    Optional<ResolvedUserProfile> resolved = context.getRequest().maybeGet(ResolvedUserProfile.class);
+    if (resolved.isPresent()) {
+      return context.promiseOf(resolved.get().userProfile);
+    }
+    return context.getRequest().get(SessionStorage.class).get(USER_PROFILE, UserProfile.class).wiretap(result -> {
+      if (result.isSuccess()) {
+        resolvedUserProfile(context, result.getValue());
+      }
+    });
   }
 }
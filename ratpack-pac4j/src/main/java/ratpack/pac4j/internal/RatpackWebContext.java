@@ -22,6 +22,7 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.exception.RequiresHttpAction;
+import ratpack.exec.Promise;
 import ratpack.form.Form;
 import ratpack.handling.Context;
 import ratpack.http.HttpMethod;
@@ -35,15 +36,21 @@ import ratpack.util.MultiValueMap;
 import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 /**
  * Adapts a {@link ratpack.handling.Context} object to be usable as a {@link org.pac4j.core.context.WebContext}.
  * In order to separate foreground from background operations, methods that are part of {@code WebContext} should not
  * send the response; instead, they should store the information and only send the response as part of {@link #sendResponse()}.
+ * <p>
+ * Session attributes are read from and written to a snapshot of the session, so that pac4j can use them from a blocking thread without blocking on the session storage.
+ * Changes are written back to the {@link SessionStorage} by {@link #saveSession()}.
  */
 public class RatpackWebContext implements WebContext {
   private final Context context;
+  private final Map<String, Object> session;
+  private final Map<String, Optional<Object>> sessionChanges = Maps.newLinkedHashMap();
   private String responseContent = "";
   private Form form;
 
@@ -51,9 +58,35 @@ public class RatpackWebContext implements WebContext {
    * Constructs a new instance.
    *
    * @param context The context to adapt
+   * @param session The snapshot of the session attributes
    */
-  public RatpackWebContext(Context context) {
+  public RatpackWebContext(Context context, Map<String, Object> session) {
     this.context = context;
+    this.session = session;
+  }
+
+  /**
+   * Creates a web context for the given context, with a snapshot of the current session.
+   *
+   * @param context The context to adapt
+   * @return a promise for the web context
+   */
+  public static Promise<RatpackWebContext> from(Context context) {
+    SessionStorage sessionStorage = context.getRequest().get(SessionStorage.class);
+    return sessionStorage.getKeys().flatMap(keys -> {
+      Promise<Map<String, Object>> snapshot = context.promiseOf(Maps.newHashMap());
+      for (String key : keys) {
+        snapshot = snapshot.flatMap(session ->
+            sessionStorage.get(key, Object.class).map(value -> {
+              if (value.isPresent()) {
+                session.put(key, value.get());
+              }
+              return session;
+            })
+        );
+      }
+      return snapshot.map(session -> new RatpackWebContext(context, session));
+    });
   }
 
   @Override
@@ -81,13 +114,17 @@ public class RatpackWebContext implements WebContext {
 
   @Override
   public void setSessionAttribute(String name, Object value) {
-    Exceptions.uncheck((value == null ? getSessionStorage().remove(name) : getSessionStorage().set(name, value))::block);
+    if (value == null) {
+      session.remove(name);
+    } else {
+      session.put(name, value);
+    }
+    sessionChanges.put(name, Optional.ofNullable(value));
   }
 
   @Override
   public Object getSessionAttribute(String name) {
-    SessionStorage sessionStorage = getSessionStorage();
-    return Exceptions.uncheck(() -> sessionStorage.get(name, Object.class).block()).orElse(null);
+    return session.get(name);
   }
 
   @Override
@@ -144,8 +181,23 @@ public class RatpackWebContext implements WebContext {
     }
   }
 
-  private SessionStorage getSessionStorage() {
-    return context.getRequest().get(SessionStorage.class);
+  /**
+   * Writes the session attributes that have been set or removed through this context back to the session storage.
+   *
+   * @return a promise for this context, once all changes have been written
+   */
+  public Promise<RatpackWebContext> saveSession() {
+    SessionStorage sessionStorage = context.getRequest().get(SessionStorage.class);
+    Promise<RatpackWebContext> saved = context.promiseOf(this);
+    for (Map.Entry<String, Optional<Object>> change : sessionChanges.entrySet()) {
+      String name = change.getKey();
+      Optional<Object> value = change.getValue();
+      saved = saved.flatMap(webContext ->
+          (value.isPresent() ? sessionStorage.set(name, value.get()) : sessionStorage.remove(name)).map(result -> webContext)
+      );
+    }
+    sessionChanges.clear();
+    return saved;
   }
 
   private URI getAddress() {
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ratpack.pac4j.stateless
+
+import org.pac4j.core.profile.UserProfile
+import org.pac4j.http.client.BasicAuthClient
+import org.pac4j.http.credentials.SimpleTestUsernamePasswordAuthenticator
+import org.pac4j.http.credentials.UsernamePasswordCredentials
+import org.pac4j.http.profile.HttpProfile
+import org.pac4j.http.profile.UsernameProfileCreator
+import ratpack.handling.Context
+import ratpack.pac4j.AbstractAuthorizer
+import ratpack.pac4j.Pac4jModule
+import ratpack.test.internal.RatpackGroovyDslSpec
+
+import java.util.concurrent.atomic.AtomicInteger
+
+import static io.netty.handler.codec.http.HttpResponseStatus.OK
+import static io.netty.handler.codec.http.HttpResponseStatus.UNAUTHORIZED
+
+class StatelessSpec extends RatpackGroovyDslSpec {
+
+  private static class PathAuthorizer extends AbstractAuthorizer {
+    @Override
+    boolean isAuthenticationRequired(Context context) {
+      return context.getRequest().getPath().startsWith("auth")
+    }
+  }
+
+  private static class CountingAuthenticator extends SimpleTestUsernamePasswordAuthenticator {
+    final AtomicInteger validations = new AtomicInteger()
+
+    @Override
+    void validate(UsernamePasswordCredentials credentials) {
+      validations.incrementAndGet()
+      super.validate(credentials)
+    }
+  }
+
+  private static class ExpiringProfileCreator extends UsernameProfileCreator {
+    Long exp
+
+    @Override
+    HttpProfile create(UsernamePasswordCredentials credentials) {
+      def profile = super.create(credentials)
+      if (exp != null) {
+        profile.addAttribute("exp", exp)
+      }
+      profile
+    }
+  }
+
+  def authenticator = new CountingAuthenticator()
+  def profileCreator = new ExpiringProfileCreator()
+  def client = new BasicAuthClient(authenticator, profileCreator)
+
+  def setup() {
+    def pac4jModule = new Pac4jModule<>(client, new PathAuthorizer())
+    pac4jModule.configure { it.stateless(true) }
+
+    bindings {
+      module pac4jModule
+    }
+
+    handlers {
+      get("noauth") {
+        response.send "noauth:" + request.maybeGet(UserProfile).orElse(null)?.attributes?.username
+      }
+      get("auth") {
+        response.send "auth:" + request.maybeGet(UserProfile).orElse(null)?.attributes?.username
+      }
+    }
+  }
+
+  private void authorization(String username, String password, String header = "Authorization") {
+    resetRequest()
+    requestSpec { it.headers.add(header, "Basic " + "$username:$password".bytes.encodeBase64()) }
+  }
+
+  def "requests without credentials are rejected when authentication is required"() {
+    expect:
+    get("auth").statusCode == UNAUTHORIZED.code()
+    getText("noauth") == "noauth:null"
+    authenticator.validations.get() == 0
+  }
+
+  def "authenticates each request without a session and caches verified tokens"() {
+    when:
+    authorization("foo", "foo")
+
+    then:
+    get("auth").statusCode == OK.code()
+    response.body.text == "auth:foo"
+    getText("auth") == "auth:foo"
+    getText("noauth") == "noauth:foo"
+    authenticator.validations.get() == 1
+
+    when:
+    authorization("bar", "bar")
+
+    then:
+    getText("auth") == "auth:bar"
+    authenticator.validations.get() == 2
+  }
+
+  def "invalid credentials are rejected and not cached"() {
+    when:
+    authorization("foo", "bar")
+
+    then:
+    get("auth").statusCode == UNAUTHORIZED.code()
+    get("auth").statusCode == UNAUTHORIZED.code()
+    authenticator.validations.get() == 2
+  }
+
+  def "verified profiles are cached by the credentials that were verified, not the authorization header"() {
+    given:
+    client.headerName = "X-Credentials"
+
+    when:
+    authorization("foo", "foo", "X-Credentials")
+    requestSpec { it.headers.add("Authorization", "x") }
+
+    then:
+    getText("auth") == "auth:foo"
+
+    when:
+    resetRequest()
+    requestSpec { it.headers.add("Authorization", "x") }
+
+    then:
+    get("auth").statusCode == UNAUTHORIZED.code()
+    authenticator.validations.get() == 1
+  }
+
+  def "verified profiles are not cached beyond their expiry"() {
+    given:
+    profileCreator.exp = System.currentTimeMillis().intdiv(1000) - 1
+
+    when:
+    authorization("foo", "foo")
+
+    then:
+    getText("auth") == "auth:foo"
+    getText("auth") == "auth:foo"
+    authenticator.validations.get() == 2
+  }
+
+}
@@ -83,7 +83,7 @@ public class DefaultHandlingResult implements HandlingResult {
       results.getLatch().countDown();
     };
 
-    final RenderController renderController = (object, context) -> {
+    final RenderController renderController = (object, context, contextRegistry) -> {
       rendered = object;
       latch.countDown();
     };
@@ -30,6 +30,7 @@ import org.thymeleaf.templateresolver.TemplateResolver;
 import ratpack.guice.ConfigurableModule;
 import ratpack.server.ServerConfig;
 import ratpack.thymeleaf.internal.FileSystemBindingThymeleafResourceResolver;
+import ratpack.thymeleaf.internal.ThymeleafTemplatePrecompiler;
 import ratpack.thymeleaf.internal.ThymeleafTemplateRenderer;
 
 import java.io.File;
@@ -95,6 +96,7 @@ public class ThymeleafModule extends ConfigurableModule<ThymeleafModule.Config>
     private String templatesMode = DEFAULT_TEMPLATE_MODE;
     private String templatesPrefix = DEFAULT_TEMPLATE_PREFIX;
     private String templatesSuffix = DEFAULT_TEMPLATE_SUFFIX;
+    private boolean precompile;
 
     /**
      * The size of the templates cache.
@@ -140,6 +142,31 @@ public class ThymeleafModule extends ConfigurableModule<ThymeleafModule.Config>
       return templatesSuffix;
     }
 
+    /**
+     * Whether all templates should be parsed into the templates cache when the application starts, instead of on first render.
+     * <p>
+     * {@code false} by default.
+     * Has no effect if the templates cache is disabled.
+     *
+     * @return whether all templates should be parsed when the application starts
+     */
+    public boolean isPrecompile() {
+      return precompile;
+    }
+
+    /**
+     * Sets whether all templates should be parsed into the templates cache when the application starts.
+     * <p>
+     * If any template fails to parse, the application will fail to start.
+     *
+     * @param precompile whether all templates should be parsed when the application starts
+     * @return this
+     */
+    public Config precompile(boolean precompile) {
+      this.precompile = precompile;
+      return this;
+    }
+
     /**
      * Sets the size of the templates cache.
      *
@@ -231,6 +258,7 @@ public class ThymeleafModule extends ConfigurableModule<ThymeleafModule.Config>
     Multibinder.newSetBinder(binder(), IDialect.class);
     bind(ThymeleafTemplateRenderer.class).in(Singleton.class);
     bind(ICacheManager.class).to(StandardCacheManager.class).in(Singleton.class);
+    bind(ThymeleafTemplatePrecompiler.class);
   }
 
   @Provides
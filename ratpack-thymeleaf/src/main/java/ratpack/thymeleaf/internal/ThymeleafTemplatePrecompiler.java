@@ -0,0 +1,78 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.thymeleaf.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.TemplateProcessingParameters;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.templateresolver.ITemplateResolver;
+import org.thymeleaf.templateresolver.TemplateResolver;
+import ratpack.file.internal.ParallelFileVisitor;
+import ratpack.server.ServerConfig;
+import ratpack.server.Service;
+import ratpack.server.StartEvent;
+import ratpack.thymeleaf.ThymeleafModule;
+
+import javax.inject.Inject;
+import java.nio.file.Path;
+
+public class ThymeleafTemplatePrecompiler implements Service {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ThymeleafTemplatePrecompiler.class);
+
+  private final ThymeleafModule.Config config;
+  private final ServerConfig serverConfig;
+  private final ITemplateResolver templateResolver;
+  private final TemplateEngine templateEngine;
+
+  @Inject
+  public ThymeleafTemplatePrecompiler(ThymeleafModule.Config config, ServerConfig serverConfig, ITemplateResolver templateResolver, TemplateEngine templateEngine) {
+    this.config = config;
+    this.serverConfig = serverConfig;
+    this.templateResolver = templateResolver;
+    this.templateEngine = templateEngine;
+  }
+
+  @Override
+  public void onStart(StartEvent event) throws Exception {
+    if (!config.isPrecompile()) {
+      return;
+    }
+
+    if (!(templateResolver instanceof TemplateResolver) || !((TemplateResolver) templateResolver).isCacheable()) {
+      LOGGER.warn("Not precompiling thymeleaf templates as the template cache is disabled");
+      return;
+    }
+
+    event.getExecControl().blocking(() -> precompile((TemplateResolver) templateResolver))
+      .then(count -> LOGGER.info("Precompiled {} thymeleaf templates", count));
+  }
+
+  private int precompile(TemplateResolver resolver) throws Exception {
+    templateEngine.initialize();
+    String prefix = resolver.getPrefix();
+    String suffix = resolver.getSuffix();
+    Path templatesDir = serverConfig.getBaseDir().file(prefix);
+    return ParallelFileVisitor.visit(templatesDir, suffix, (templateFile, path) -> {
+      String templateName = templateFile.substring(0, templateFile.length() - suffix.length());
+      templateEngine.getTemplateRepository().getTemplate(new TemplateProcessingParameters(templateEngine.getConfiguration(), templateName, new Context()));
+    });
+  }
+
+}